@@ -0,0 +1,109 @@
+package com.lorely.content;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compressed representation of entity content: one format byte followed by a raw deflate stream primed
+ * with a preset dictionary of TipTap output.
+ * <p>
+ * Rich-text documents repeat the same markup ({@code </p><p>}, {@code {"type":"text","text":"}, ...)
+ * thousands of times; with those strings in the dictionary even the first occurrence is a back-reference,
+ * which matters most for the short and medium documents that plain deflate handles poorly. The format
+ * byte identifies the dictionary, so it can be replaced later without rewriting stored rows.
+ */
+public final class ContentCodec {
+
+    static final byte FORMAT_DEFLATE_TIPTAP_V1 = 1;
+
+    // Deflate favours matches near the end of the window, so the most frequent fragments go last.
+    // The editor saves StarterKit HTML under content.text; TipTap JSON documents are covered as well.
+    private static final byte[] TIPTAP_V1 = (
+            "{\"type\":\"horizontalRule\"}{\"type\":\"codeBlock\",\"attrs\":{\"language\":null},\"content\":["
+            + "{\"type\":\"blockquote\",\"content\":[{\"type\":\"orderedList\",\"attrs\":{\"start\":1},\"content\":["
+            + "{\"type\":\"bulletList\",\"content\":[{\"type\":\"listItem\",\"content\":[{\"type\":\"hardBreak\"}"
+            + "{\"type\":\"heading\",\"attrs\":{\"level\":2},\"content\":[\"marks\":[{\"type\":\"italic\"}]"
+            + "\"marks\":[{\"type\":\"bold\"}]{\"type\":\"doc\",\"content\":["
+            + "]},{\"type\":\"paragraph\",\"content\":[{\"type\":\"text\",\"text\":\""
+            + "<pre><code class=\\\"language-\\\"></code></pre><hr><s></s><code></code>"
+            + "<span data-type=\\\"mention\\\" data-id=\\\"\\\" data-label=\\\"\\\">@</span>"
+            + "<blockquote><p></p></blockquote><ol><li><p></p></li></ol><h1></h1><h3></h3>"
+            + "<ul><li><p></p></li><li><p></p></li></ul><h2></h2><br>"
+            + "\",\"description\":\"{\"text\":\"<p></p><p><em></em> <strong></strong> the </p><p>"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> CONTENT_TYPE = new TypeReference<>() {
+    };
+
+    private ContentCodec() {
+        // Prevent instantiation
+    }
+
+    public static byte[] encode(byte[] json) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(TIPTAP_V1);
+            deflater.setInput(json);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 16);
+            out.write(FORMAT_DEFLATE_TIPTAP_V1);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static byte[] decode(byte[] data) {
+        if (data.length == 0 || data[0] != FORMAT_DEFLATE_TIPTAP_V1) {
+            throw new IllegalStateException("Unknown content format " + (data.length == 0 ? "(empty)" : data[0]));
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setDictionary(TIPTAP_V1);
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated content stream");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt content stream", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public static byte[] toJson(Map<String, Object> content) {
+        try {
+            return MAPPER.writeValueAsBytes(content);
+        } catch (IOException e) {
+            throw new IllegalStateException("Content cannot be serialized", e);
+        }
+    }
+
+    public static Map<String, Object> fromJson(byte[] json) {
+        try {
+            return MAPPER.readValue(json, CONTENT_TYPE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Stored content is not valid JSON", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.lorely.content;
+
+import com.lorely.model.EntityType;
+import com.lorely.model.WorldEntity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Opt-in compressed storage for large entity content.
+ * <p>
+ * When enabled, content of the configured types whose JSON exceeds the threshold is written to the
+ * {@code content_compressed} column via {@link ContentCodec}, and its plain text to {@code content_text}
+ * for the search trigger; the {@code content} column is left null. Rows are only rewritten when their
+ * content changes, so turning the mode on or off migrates entities gradually as they are edited.
+ */
+@Component
+@Slf4j
+public class ContentStorageListener {
+
+    private static final Set<String> STRUCTURAL_KEYS = Set.of("type", "attrs", "marks");
+    private static final Pattern MARKUP = Pattern.compile("<[^>]*>|&#?[A-Za-z0-9]+;");
+
+    @Value("${app.content.compression.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.content.compression.threshold-bytes:16384}")
+    private int thresholdBytes;
+
+    @Value("${app.content.compression.types:CHAPTER}")
+    private Set<EntityType> types;
+
+    @PrePersist
+    @PreUpdate
+    public void beforeSave(WorldEntity entity) {
+        // Already compressed and untouched since, or nothing to store
+        if (!enabled || entity.getCompressedContent() != null || entity.getContent() == null
+                || !types.contains(entity.getType())) {
+            return;
+        }
+        byte[] json = ContentCodec.toJson(entity.getContent());
+        if (json.length < thresholdBytes) {
+            return;
+        }
+        byte[] compressed = ContentCodec.encode(json);
+        entity.compressContent(compressed, extractText(entity.getContent()));
+        log.debug("Compressed content of entity {}: {} -> {} bytes", entity.getId(), json.length, compressed.length);
+    }
+
+    /**
+     * Visible text in document order: string values outside node metadata ({@code type}, {@code attrs},
+     * {@code marks}), mention labels, and HTML strings without their tags and character references.
+     * Mirrors {@code entity_content_text} (V21), which derives the same text for uncompressed rows.
+     */
+    public static String extractText(Object node) {
+        StringBuilder text = new StringBuilder();
+        appendText(node, text);
+        return text.toString();
+    }
+
+    private static void appendText(Object node, StringBuilder text) {
+        if (node instanceof String value) {
+            append(MARKUP.matcher(value).replaceAll(" "), text);
+        } else if (node instanceof Map<?, ?> map) {
+            if ("mention".equals(map.get("type"))) {
+                if (map.get("attrs") instanceof Map<?, ?> attrs && attrs.get("label") instanceof String label) {
+                    append(label, text);
+                }
+                return;
+            }
+            for (Map.Entry<?, ?> member : map.entrySet()) {
+                if (!STRUCTURAL_KEYS.contains(String.valueOf(member.getKey()))) {
+                    appendText(member.getValue(), text);
+                }
+            }
+        } else if (node instanceof Collection<?> values) {
+            for (Object value : values) {
+                appendText(value, text);
+            }
+        }
+    }
+
+    private static void append(String value, StringBuilder text) {
+        if (!text.isEmpty()) {
+            text.append(' ');
+        }
+        text.append(value);
+    }
+}
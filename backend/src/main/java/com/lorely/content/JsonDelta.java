@@ -0,0 +1,211 @@
+package com.lorely.content;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Structural deltas between two JSON documents, compact enough to store one per revision.
+ * <p>
+ * A delta is always a JSON object of one of these shapes:
+ * <ul>
+ *   <li>{@code {"v": value}} replaces the node with {@code value}</li>
+ *   <li>{@code {"o": {key: delta, ...}, "x": [key, ...]}} edits an object: changed or added members
+ *       carry their own delta, removed members are listed under {@code x}</li>
+ *   <li>{@code {"s": [at, count], "i": [value, ...]}} splices an array: removes {@code count} elements
+ *       starting at {@code at} and inserts the given values there</li>
+ *   <li>{@code {"e": at, "p": [delta or null, ...]}} edits consecutive array elements in place,
+ *       {@code null} meaning the element is unchanged</li>
+ * </ul>
+ * Arrays are trimmed of their common prefix and suffix first, so editing one word inside a long rich-text
+ * document produces a delta that only spells out the path down to the changed text node.
+ * Nodes are never mutated: {@link #apply} returns a new tree that shares unchanged subtrees with its input.
+ */
+public final class JsonDelta {
+
+    private static final String REPLACE = "v";
+    private static final String OBJECT = "o";
+    private static final String REMOVED = "x";
+    private static final String SPLICE = "s";
+    private static final String INSERTED = "i";
+    private static final String EDIT = "e";
+    private static final String EDITS = "p";
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private JsonDelta() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns the delta that turns {@code from} into {@code to}, or null when both are equal.
+     * A missing {@code from} (null) is treated as absent and always yields a replacement.
+     */
+    public static ObjectNode diff(JsonNode from, JsonNode to) {
+        if (from != null && from.equals(to)) {
+            return null;
+        }
+        if (from != null && from.isObject() && to.isObject()) {
+            return diffObjects(from, to);
+        }
+        if (from != null && from.isArray() && to.isArray()) {
+            return diffArrays(from, to);
+        }
+        return replace(to);
+    }
+
+    /**
+     * Returns a delta that leaves an object as it is.
+     */
+    public static ObjectNode unchanged() {
+        ObjectNode delta = NODES.objectNode();
+        delta.set(OBJECT, NODES.objectNode());
+        return delta;
+    }
+
+    /**
+     * Applies a delta produced by {@link #diff}. A null delta returns {@code base} unchanged.
+     *
+     * @throws IllegalArgumentException if the delta does not fit the shape of {@code base}
+     */
+    public static JsonNode apply(JsonNode base, JsonNode delta) {
+        if (delta == null || delta.isNull()) {
+            return base;
+        }
+        if (delta.has(REPLACE)) {
+            return delta.get(REPLACE);
+        }
+        if (delta.has(OBJECT)) {
+            if (base == null || !base.isObject()) {
+                throw new IllegalArgumentException("Object delta applied to " + describe(base));
+            }
+            ObjectNode result = NODES.objectNode();
+            result.setAll((ObjectNode) base);
+            for (JsonNode key : delta.path(REMOVED)) {
+                result.remove(key.asText());
+            }
+            Iterator<Map.Entry<String, JsonNode>> members = delta.get(OBJECT).fields();
+            while (members.hasNext()) {
+                Map.Entry<String, JsonNode> member = members.next();
+                result.set(member.getKey(), apply(base.get(member.getKey()), member.getValue()));
+            }
+            return result;
+        }
+        if (delta.has(SPLICE) || delta.has(EDIT)) {
+            if (base == null || !base.isArray()) {
+                throw new IllegalArgumentException("Array delta applied to " + describe(base));
+            }
+            return delta.has(SPLICE) ? applySplice(base, delta) : applyEdits(base, delta);
+        }
+        throw new IllegalArgumentException("Unrecognized delta: " + delta);
+    }
+
+    private static ObjectNode diffObjects(JsonNode from, JsonNode to) {
+        ObjectNode changes = NODES.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> members = to.fields();
+        while (members.hasNext()) {
+            Map.Entry<String, JsonNode> member = members.next();
+            ObjectNode change = diff(from.get(member.getKey()), member.getValue());
+            if (change != null) {
+                changes.set(member.getKey(), change);
+            }
+        }
+        ArrayNode removed = NODES.arrayNode();
+        Iterator<String> names = from.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!to.has(name)) {
+                removed.add(name);
+            }
+        }
+
+        ObjectNode delta = NODES.objectNode();
+        delta.set(OBJECT, changes);
+        if (!removed.isEmpty()) {
+            delta.set(REMOVED, removed);
+        }
+        return delta;
+    }
+
+    private static ObjectNode diffArrays(JsonNode from, JsonNode to) {
+        int prefix = 0;
+        int limit = Math.min(from.size(), to.size());
+        while (prefix < limit && from.get(prefix).equals(to.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < limit - prefix
+                && from.get(from.size() - 1 - suffix).equals(to.get(to.size() - 1 - suffix))) {
+            suffix++;
+        }
+        int removed = from.size() - prefix - suffix;
+        int inserted = to.size() - prefix - suffix;
+
+        ObjectNode delta = NODES.objectNode();
+        if (removed == inserted) {
+            // Same shape: descend into the changed elements instead of copying them whole
+            ArrayNode edits = NODES.arrayNode(removed);
+            for (int i = prefix; i < prefix + removed; i++) {
+                ObjectNode edit = diff(from.get(i), to.get(i));
+                edits.add(edit != null ? edit : NODES.nullNode());
+            }
+            delta.put(EDIT, prefix);
+            delta.set(EDITS, edits);
+            return delta;
+        }
+        ArrayNode values = NODES.arrayNode(inserted);
+        for (int i = prefix; i < prefix + inserted; i++) {
+            values.add(to.get(i));
+        }
+        delta.set(SPLICE, NODES.arrayNode(2).add(prefix).add(removed));
+        delta.set(INSERTED, values);
+        return delta;
+    }
+
+    private static JsonNode applySplice(JsonNode base, JsonNode delta) {
+        int at = delta.get(SPLICE).get(0).asInt();
+        int count = delta.get(SPLICE).get(1).asInt();
+        if (at < 0 || count < 0 || at + count > base.size()) {
+            throw new IllegalArgumentException("Splice [" + at + ", " + count + "] out of range for " + base.size() + " elements");
+        }
+        ArrayNode result = NODES.arrayNode(base.size() - count + delta.path(INSERTED).size());
+        for (int i = 0; i < at; i++) {
+            result.add(base.get(i));
+        }
+        for (JsonNode value : delta.path(INSERTED)) {
+            result.add(value);
+        }
+        for (int i = at + count; i < base.size(); i++) {
+            result.add(base.get(i));
+        }
+        return result;
+    }
+
+    private static JsonNode applyEdits(JsonNode base, JsonNode delta) {
+        int at = delta.get(EDIT).asInt();
+        JsonNode edits = delta.path(EDITS);
+        if (at < 0 || at + edits.size() > base.size()) {
+            throw new IllegalArgumentException("Edit range out of bounds for " + base.size() + " elements");
+        }
+        ArrayNode result = NODES.arrayNode(base.size());
+        for (int i = 0; i < base.size(); i++) {
+            int edit = i - at;
+            result.add(edit >= 0 && edit < edits.size() ? apply(base.get(i), edits.get(edit)) : base.get(i));
+        }
+        return result;
+    }
+
+    private static ObjectNode replace(JsonNode value) {
+        ObjectNode delta = NODES.objectNode();
+        delta.set(REPLACE, value);
+        return delta;
+    }
+
+    private static String describe(JsonNode node) {
+        return node == null ? "missing node" : node.getNodeType().name().toLowerCase() + " node";
+    }
+}
@@ -0,0 +1,114 @@
+package com.lorely.content;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds @mentions of other entities in entity content.
+ * <p>
+ * Two encodings of the TipTap mention node are recognized: JSON nodes
+ * ({@code {"type":"mention","attrs":{"id":"<uuid>","label":"Elara"}}}) and the HTML the editor saves
+ * ({@code <span data-type="mention" data-id="<uuid>">@Elara</span>}). Offsets count the characters of
+ * visible text before the mention, in document order, so they stay comparable across both encodings.
+ */
+public final class MentionExtractor {
+
+    private static final String MENTION_TYPE = "mention";
+    // Node metadata that never contributes visible text
+    private static final Set<String> STRUCTURAL_KEYS = Set.of("type", "attrs", "marks");
+
+    private static final Pattern MENTION_TAG = Pattern.compile("^<span\\b[^>]*\\bdata-type=\"mention\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATA_ID = Pattern.compile("\\bdata-id=\"([^\"]*)\"", Pattern.CASE_INSENSITIVE);
+
+    private MentionExtractor() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Returns every mentioned entity id with its mention count and first offset, in order of first appearance.
+     * Mentions whose id is not a UUID are ignored.
+     */
+    public static Map<UUID, Mention> extract(Map<String, Object> content) {
+        Walker walker = new Walker();
+        walker.visit(content);
+        return walker.mentions;
+    }
+
+    public record Mention(int count, int firstOffset) {
+    }
+
+    private static final class Walker {
+
+        private final Map<UUID, Mention> mentions = new LinkedHashMap<>();
+        private int offset;
+
+        private void visit(Object node) {
+            if (node instanceof Map<?, ?> map) {
+                if (MENTION_TYPE.equals(map.get("type"))) {
+                    visitMentionNode(map);
+                    return;
+                }
+                for (Map.Entry<?, ?> member : map.entrySet()) {
+                    if (!STRUCTURAL_KEYS.contains(String.valueOf(member.getKey()))) {
+                        visit(member.getValue());
+                    }
+                }
+            } else if (node instanceof Collection<?> values) {
+                for (Object value : values) {
+                    visit(value);
+                }
+            } else if (node instanceof String text) {
+                visitText(text);
+            }
+        }
+
+        private void visitMentionNode(Map<?, ?> node) {
+            if (node.get("attrs") instanceof Map<?, ?> attrs) {
+                record(attrs.get("id") != null ? attrs.get("id").toString() : null);
+                // Rendered as "@label"
+                if (attrs.get("label") instanceof String label) {
+                    offset += label.length() + 1;
+                }
+            }
+        }
+
+        // Plain strings count as visible text; HTML tags are skipped and mention spans recorded
+        private void visitText(String text) {
+            int i = 0;
+            while (i < text.length()) {
+                char c = text.charAt(i);
+                int end = c == '<' ? text.indexOf('>', i) : -1;
+                if (end < 0) {
+                    offset++;
+                    i++;
+                    continue;
+                }
+                String tag = text.substring(i, end + 1);
+                if (MENTION_TAG.matcher(tag).find()) {
+                    Matcher id = DATA_ID.matcher(tag);
+                    record(id.find() ? id.group(1) : null);
+                }
+                i = end + 1;
+            }
+        }
+
+        private void record(String id) {
+            UUID target;
+            try {
+                target = id != null ? UUID.fromString(id) : null;
+            } catch (IllegalArgumentException e) {
+                target = null;
+            }
+            if (target == null) {
+                return;
+            }
+            mentions.merge(target, new Mention(1, offset),
+                    (existing, added) -> new Mention(existing.count() + 1, existing.firstOffset()));
+        }
+    }
+}
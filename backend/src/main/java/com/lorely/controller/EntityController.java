@@ -1,25 +1,52 @@
 package com.lorely.controller;
 
+import com.lorely.dto.request.AutosaveRequest;
+import com.lorely.dto.request.BulkEntityRequest;
 import com.lorely.dto.request.CreateEntityRequest;
 import com.lorely.dto.request.UpdateEntityRequest;
+import com.lorely.dto.response.BacklinkResponse;
+import com.lorely.dto.response.BulkEntityResponse;
+import com.lorely.dto.response.CursorPaginatedResponse;
+import com.lorely.dto.response.EntityFacetsResponse;
 import com.lorely.dto.response.EntityResponse;
+import com.lorely.dto.response.EntityRevisionResponse;
+import com.lorely.dto.response.EntitySuggestionResponse;
 import com.lorely.dto.response.PaginatedResponse;
+import com.lorely.dto.response.RevisionDiffResponse;
+import com.lorely.dto.response.SimilarEntityResponse;
 import com.lorely.exception.ForbiddenException;
+import com.lorely.exception.PreconditionFailedException;
+import com.lorely.exception.PreconditionRequiredException;
+import com.lorely.exception.ValidationException;
+import com.lorely.filter.EntityFilter;
 import com.lorely.model.EntityType;
 import com.lorely.model.Project;
 import com.lorely.model.WorldEntity;
 import com.lorely.security.UserPrincipal;
+import com.lorely.service.AutosaveService;
+import com.lorely.service.EntityAutocompleteService;
+import com.lorely.service.EntityFacetService;
+import com.lorely.service.EntityMentionService;
+import com.lorely.service.EntityRevisionService;
 import com.lorely.service.EntityService;
 import com.lorely.service.ProjectService;
+import com.lorely.service.SimilarEntityService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -29,6 +56,12 @@ public class EntityController {
 
     private final EntityService entityService;
     private final ProjectService projectService;
+    private final EntityRevisionService entityRevisionService;
+    private final EntityMentionService entityMentionService;
+    private final AutosaveService autosaveService;
+    private final EntityFacetService entityFacetService;
+    private final EntityAutocompleteService entityAutocompleteService;
+    private final SimilarEntityService similarEntityService;
 
     @PostMapping("/api/projects/{projectId}/entities")
     @Operation(summary = "Create a new entity in a project")
@@ -41,6 +74,16 @@ public class EntityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/api/projects/{projectId}/entities/bulk")
+    @Operation(summary = "Create, update and soft-delete many entities in one request")
+    public ResponseEntity<BulkEntityResponse> bulkEntities(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId,
+            @Valid @RequestBody BulkEntityRequest request) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(entityService.applyBulkOperations(projectId, request));
+    }
+
     @GetMapping("/api/projects/{projectId}/entities")
     @Operation(summary = "List entities in a project with pagination")
     public ResponseEntity<PaginatedResponse<EntityResponse>> getEntities(
@@ -48,34 +91,90 @@ public class EntityController {
             @PathVariable UUID projectId,
             @RequestParam(required = false) EntityType type,
             @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) Set<UUID> allTags,
+            @RequestParam(required = false) Set<UUID> anyTags,
+            @RequestParam(required = false) Set<UUID> noneTags,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "updatedAt") String sort,
-            @RequestParam(defaultValue = "desc") String direction) {
+            @RequestParam(defaultValue = "desc") String direction,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields) {
         verifyProjectOwnership(projectId, userPrincipal.getUserId());
 
+        boolean summary = isSummaryView(view, fields);
         PaginatedResponse<EntityResponse> entities;
-        if (tagId != null) {
-            entities = entityService.getEntitiesByProjectAndTagPaginated(projectId, tagId, page, size, sort, direction);
+        if (allTags != null || anyTags != null || noneTags != null || tagId != null && type != null) {
+            // Combined filters are answered from the in-memory tag bitmaps; tagId counts as one more required tag
+            Set<UUID> required = new HashSet<>(allTags != null ? allTags : Set.of());
+            if (tagId != null) {
+                required.add(tagId);
+            }
+            entities = entityService.getEntitiesByFilterPaginated(projectId, new EntityFilter(type, required, anyTags, noneTags),
+                    page, size, sort, direction, summary);
+        } else if (tagId != null) {
+            entities = entityService.getEntitiesByProjectAndTagPaginated(projectId, tagId, page, size, sort, direction, summary);
         } else if (type != null) {
-            entities = entityService.getEntitiesByProjectAndTypePaginated(projectId, type, page, size, sort, direction);
+            entities = entityService.getEntitiesByProjectAndTypePaginated(projectId, type, page, size, sort, direction, summary);
         } else {
-            entities = entityService.getEntitiesByProjectPaginated(projectId, page, size, sort, direction);
+            entities = entityService.getEntitiesByProjectPaginated(projectId, page, size, sort, direction, summary);
         }
         return ResponseEntity.ok(entities);
     }
 
+    @GetMapping("/api/projects/{projectId}/entities/cursor")
+    @Operation(summary = "List entities in a project with keyset (cursor) pagination")
+    public ResponseEntity<CursorPaginatedResponse<EntityResponse>> getEntitiesByCursor(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) EntityType type,
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "updatedAt") String sort,
+            @RequestParam(defaultValue = "desc") String direction) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(entityService.getEntitiesByProjectCursor(projectId, type, tagId, cursor, size, sort, direction));
+    }
+
+    @GetMapping("/api/projects/{projectId}/entities/facets")
+    @Operation(summary = "Count entities per type and per tag for the given filters")
+    public ResponseEntity<EntityFacetsResponse> getEntityFacets(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId,
+            @RequestParam(required = false) EntityType type,
+            @RequestParam(required = false) UUID tagId,
+            @RequestParam(required = false) String q) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(entityFacetService.getFacets(projectId, type, tagId, q));
+    }
+
+    @GetMapping("/api/projects/{projectId}/entities/suggest")
+    @Operation(summary = "Suggest entities whose title words start with the query, for @mention autocomplete")
+    public ResponseEntity<List<EntitySuggestionResponse>> suggestEntities(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(entityAutocompleteService.suggest(projectId, q, limit));
+    }
+
     @GetMapping("/api/projects/{projectId}/entities/search")
-    @Operation(summary = "Search entities with full-text search and pagination")
+    @Operation(summary = "Search entities with full-text search and pagination, or fuzzy title search with mode=similarity")
     public ResponseEntity<PaginatedResponse<EntityResponse>> searchEntities(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @PathVariable UUID projectId,
             @RequestParam String q,
             @RequestParam(required = false) EntityType type,
+            @RequestParam(defaultValue = "auto") String mode,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String fields) {
         verifyProjectOwnership(projectId, userPrincipal.getUserId());
-        PaginatedResponse<EntityResponse> results = entityService.searchEntitiesPaginated(projectId, q, type, page, size);
+        PaginatedResponse<EntityResponse> results = entityService.searchEntitiesPaginated(
+                projectId, q, type, isSimilarityMode(mode), page, size, isSummaryView(view, fields));
         return ResponseEntity.ok(results);
     }
 
@@ -83,10 +182,22 @@ public class EntityController {
     @Operation(summary = "Get a single entity by ID")
     public ResponseEntity<EntityResponse> getEntity(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
-            @PathVariable UUID id) {
-        WorldEntity entity = entityService.getEntityById(id);
-        verifyProjectOwnership(entity.getProjectId(), userPrincipal.getUserId());
-        return ResponseEntity.ok(EntityResponse.fromEntity(entity));
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        autosaveService.flushBeforeRead(id);
+        if (ifNoneMatch != null) {
+            // Checked against the version alone so an unchanged entity is never loaded
+            long version = entityService.getEntityVersion(id);
+            boolean matches = ifNoneMatch.trim().equals("*") || Arrays.stream(ifNoneMatch.split(","))
+                    .map(this::parseETag)
+                    .anyMatch(Long.valueOf(version)::equals);
+            if (matches) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(toETag(version)).build();
+            }
+        }
+        EntityResponse response = entityService.getEntityResponseById(id);
+        return ResponseEntity.ok().eTag(toETag(response.getVersion())).body(response);
     }
 
     @PutMapping("/api/entities/{id}")
@@ -94,11 +205,58 @@ public class EntityController {
     public ResponseEntity<EntityResponse> updateEntity(
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateEntityRequest request) {
-        WorldEntity entity = entityService.getEntityById(id);
-        verifyProjectOwnership(entity.getProjectId(), userPrincipal.getUserId());
-        EntityResponse response = entityService.updateEntity(id, request);
-        return ResponseEntity.ok(response);
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        // The request replaces title and content, so a pending draft is superseded rather than written first
+        autosaveService.discard(id);
+        Long expectedVersion = autosaveService.rebase(id, parseIfMatch(ifMatch));
+        EntityResponse response = entityService.updateEntity(id, request, expectedVersion);
+        return ResponseEntity.ok().eTag(toETag(response.getVersion())).body(response);
+    }
+
+    @PatchMapping(value = "/api/entities/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Partially update an entity with a JSON Merge Patch (RFC 7396); content is merged server-side")
+    public ResponseEntity<EntityResponse> patchEntity(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Map<String, Object> patch) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        Long expectedVersion = autosaveService.flushBefore(id, parseIfMatch(ifMatch));
+        EntityResponse response = entityService.patchEntity(id, patch, expectedVersion);
+        return ResponseEntity.ok().eTag(toETag(response.getVersion())).body(response);
+    }
+
+    @PutMapping("/api/entities/{id}/autosave")
+    @Operation(summary = "Autosave an entity's title and content; buffered and written within a few seconds (202)")
+    public ResponseEntity<EntityResponse> autosaveEntity(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody AutosaveRequest request) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        // Drafts are written in the background, so they must say which version they were edited from
+        Long baseVersion = parseIfMatch(ifMatch);
+        if (baseVersion == null) {
+            throw new PreconditionRequiredException("Autosave requires If-Match with the version the draft is based on");
+        }
+        if (autosaveService.buffer(id, baseVersion, request.getTitle(), request.getContent())) {
+            return ResponseEntity.accepted().build();
+        }
+        EntityResponse response = autosaveService.saveNow(id, baseVersion, request.getTitle(), request.getContent());
+        return ResponseEntity.ok().eTag(toETag(response.getVersion())).body(response);
+    }
+
+    @PostMapping("/api/entities/{id}/autosave/flush")
+    @Operation(summary = "Write an entity's pending autosave now")
+    public ResponseEntity<EntityResponse> flushAutosave(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        EntityResponse response = autosaveService.flush(id)
+                .orElseGet(() -> entityService.getEntityResponseById(id));
+        return ResponseEntity.ok().eTag(toETag(response.getVersion())).body(response);
     }
 
     @DeleteMapping("/api/entities/{id}")
@@ -107,8 +265,10 @@ public class EntityController {
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @PathVariable UUID id,
             @RequestParam(defaultValue = "false") boolean permanent) {
-        WorldEntity entity = entityService.getEntityById(id);
+        // Permanent deletion also empties an entity out of the trash
+        WorldEntity entity = permanent ? entityService.getEntityByIdIncludeDeleted(id) : entityService.getEntityById(id);
         verifyProjectOwnership(entity.getProjectId(), userPrincipal.getUserId());
+        autosaveService.discard(id);
         if (permanent) {
             entityService.permanentlyDeleteEntity(id);
         } else {
@@ -128,6 +288,70 @@ public class EntityController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/api/entities/{id}/backlinks")
+    @Operation(summary = "List entities whose content @mentions this entity")
+    public ResponseEntity<List<BacklinkResponse>> getBacklinks(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        return ResponseEntity.ok(entityMentionService.getBacklinks(id));
+    }
+
+    @GetMapping("/api/entities/{id}/similar")
+    @Operation(summary = "Suggest entities with similar content that are not yet related or linked to this entity")
+    public ResponseEntity<List<SimilarEntityResponse>> getSimilarEntities(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "10") int limit) {
+        UUID projectId = entityService.getEntityProjectId(id);
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(similarEntityService.findSimilar(projectId, id, limit));
+    }
+
+    @GetMapping("/api/entities/{id}/revisions")
+    @Operation(summary = "List an entity's revisions, newest first, without their content")
+    public ResponseEntity<List<EntityRevisionResponse>> getRevisions(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        autosaveService.flushBeforeRead(id);
+        return ResponseEntity.ok(entityRevisionService.getRevisions(id));
+    }
+
+    @GetMapping("/api/entities/{id}/revisions/diff")
+    @Operation(summary = "Get the content delta between two revisions of an entity")
+    public ResponseEntity<RevisionDiffResponse> diffRevisions(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestParam int from,
+            @RequestParam int to) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        return ResponseEntity.ok(entityRevisionService.diffRevisions(id, from, to));
+    }
+
+    @GetMapping("/api/entities/{id}/revisions/{revision}")
+    @Operation(summary = "Get a single revision of an entity, including its content")
+    public ResponseEntity<EntityRevisionResponse> getRevision(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @PathVariable int revision) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        return ResponseEntity.ok(entityRevisionService.getRevision(id, revision));
+    }
+
+    @PostMapping("/api/entities/{id}/revisions/{revision}/restore")
+    @Operation(summary = "Restore an entity to an earlier revision")
+    public ResponseEntity<EntityResponse> restoreRevision(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @PathVariable int revision,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        verifyProjectOwnership(entityService.getEntityProjectId(id), userPrincipal.getUserId());
+        Long expectedVersion = autosaveService.flushBefore(id, parseIfMatch(ifMatch));
+        EntityResponse response = entityService.restoreRevision(id, revision, expectedVersion);
+        return ResponseEntity.ok().eTag(toETag(response.getVersion())).body(response);
+    }
+
     @PostMapping("/api/entities/{id}/tags/{tagId}")
     @Operation(summary = "Add a tag to an entity")
     public ResponseEntity<EntityResponse> addTagToEntity(
@@ -152,6 +376,56 @@ public class EntityController {
         return ResponseEntity.ok(response);
     }
 
+    // view=summary leaves out the content column, which dominates list payloads. Arbitrary field selection is not
+    // supported; fields= is rejected rather than ignored so callers don't silently get full payloads
+    private boolean isSummaryView(String view, String fields) {
+        if (fields != null) {
+            throw new ValidationException("Field selection is not supported; use view=summary to leave out content");
+        }
+        return switch (view) {
+            case "summary" -> true;
+            case "full" -> false;
+            default -> throw new ValidationException("View must be 'full' or 'summary'");
+        };
+    }
+
+    private boolean isSimilarityMode(String mode) {
+        return switch (mode) {
+            case "similarity" -> true;
+            case "auto" -> false;
+            default -> throw new ValidationException("Mode must be 'auto' or 'similarity'");
+        };
+    }
+
+    // ETags are the quoted entity version, e.g. "7"
+    private String toETag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private Long parseETag(String etag) {
+        String value = etag.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        try {
+            return Long.parseLong(value.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Returns the version the client expects, or null when any version is acceptable
+    private Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long version = parseETag(ifMatch);
+        if (version == null) {
+            throw new PreconditionFailedException("If-Match does not reference a known entity version");
+        }
+        return version;
+    }
+
     private void verifyProjectOwnership(UUID projectId, UUID userId) {
         Project project = projectService.getProjectById(projectId);
         if (!project.getOwnerId().equals(userId)) {
@@ -0,0 +1,74 @@
+package com.lorely.controller;
+
+import com.lorely.dto.response.GraphResponse;
+import com.lorely.dto.response.NeighborhoodResponse;
+import com.lorely.dto.response.ShortestPathResponse;
+import com.lorely.exception.ForbiddenException;
+import com.lorely.model.Project;
+import com.lorely.security.UserPrincipal;
+import com.lorely.service.GraphService;
+import com.lorely.service.ProjectService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Graph", description = "Project graph queries")
+public class GraphController {
+
+    private final GraphService graphService;
+    private final ProjectService projectService;
+
+    @GetMapping("/api/projects/{projectId}/graph")
+    @Operation(summary = "Get a compact snapshot of all entities, relationships and links in a project")
+    public ResponseEntity<GraphResponse> getProjectGraph(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(graphService.getProjectGraph(projectId));
+    }
+
+    @GetMapping("/api/entities/{id}/neighborhood")
+    // types names the relationship types to follow; links are followed as links says, or else only when types is empty
+    @Operation(summary = "Get the subgraph within N hops of an entity, following relationships and links")
+    public ResponseEntity<NeighborhoodResponse> getNeighborhood(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestParam(defaultValue = "2") int depth,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) Boolean links,
+            @RequestParam(defaultValue = "200") int limit) {
+        UUID projectId = graphService.getEntityProjectId(id);
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(graphService.getNeighborhood(projectId, id, depth, types, links, limit));
+    }
+
+    @GetMapping("/api/entities/{id}/paths")
+    @Operation(summary = "Find the shortest connection chains between two entities")
+    public ResponseEntity<ShortestPathResponse> getShortestPaths(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID id,
+            @RequestParam UUID to,
+            @RequestParam(defaultValue = "6") int maxDepth,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(required = false) Boolean links,
+            @RequestParam(defaultValue = "5") int limit) {
+        UUID projectId = graphService.getEntityProjectId(id);
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(graphService.getShortestPaths(projectId, id, to, maxDepth, types, links, limit));
+    }
+
+    private void verifyProjectOwnership(UUID projectId, UUID userId) {
+        Project project = projectService.getProjectById(projectId);
+        if (!project.getOwnerId().equals(userId)) {
+            throw new ForbiddenException("You do not have permission to access this project");
+        }
+    }
+}
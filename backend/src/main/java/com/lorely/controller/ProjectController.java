@@ -77,7 +77,8 @@ public class ProjectController {
             @AuthenticationPrincipal UserPrincipal userPrincipal,
             @PathVariable UUID id,
             @RequestParam(defaultValue = "false") boolean permanent) {
-        Project project = projectService.getProjectById(id);
+        // Permanent deletion also empties a project out of the trash
+        Project project = permanent ? projectService.getProjectByIdIncludeDeleted(id) : projectService.getProjectById(id);
         verifyOwnership(project, userPrincipal.getUserId());
         if (permanent) {
             projectService.permanentlyDeleteProject(id);
@@ -0,0 +1,57 @@
+package com.lorely.controller;
+
+import com.lorely.dto.response.SearchIndexStatusResponse;
+import com.lorely.exception.ForbiddenException;
+import com.lorely.model.Project;
+import com.lorely.search.SearchEngine;
+import com.lorely.security.UserPrincipal;
+import com.lorely.service.ProjectService;
+import com.lorely.service.SearchIndexService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Search", description = "Search index maintenance")
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+    private final SearchEngine searchEngine;
+    private final ProjectService projectService;
+
+    @GetMapping("/api/projects/{projectId}/search/index")
+    @Operation(summary = "Show how many of the project's entities are waiting to be reindexed")
+    public ResponseEntity<SearchIndexStatusResponse> getIndexStatus(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(searchIndexService.getStatus(projectId));
+    }
+
+    @PostMapping("/api/projects/{projectId}/search/reindex")
+    @Operation(summary = "Rebuild the project's search index with the configured search engine")
+    public ResponseEntity<SearchIndexStatusResponse> reindexProject(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        searchEngine.rebuild(projectId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(searchIndexService.getStatus(projectId));
+    }
+
+    private void verifyProjectOwnership(UUID projectId, UUID userId) {
+        Project project = projectService.getProjectById(projectId);
+        if (!project.getOwnerId().equals(userId)) {
+            throw new ForbiddenException("You do not have permission to access this project");
+        }
+    }
+}
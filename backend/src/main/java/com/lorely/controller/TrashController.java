@@ -0,0 +1,56 @@
+package com.lorely.controller;
+
+import com.lorely.dto.response.PaginatedResponse;
+import com.lorely.dto.response.TrashItemResponse;
+import com.lorely.exception.ForbiddenException;
+import com.lorely.model.Project;
+import com.lorely.security.UserPrincipal;
+import com.lorely.service.ProjectService;
+import com.lorely.service.TrashService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Trash", description = "Soft-deleted projects and entities")
+public class TrashController {
+
+    private final TrashService trashService;
+    private final ProjectService projectService;
+
+    @GetMapping("/api/projects/trash")
+    @Operation(summary = "List the user's soft-deleted projects, most recently deleted first")
+    public ResponseEntity<PaginatedResponse<TrashItemResponse>> getProjectTrash(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(trashService.getProjectTrash(userPrincipal.getUserId(), page, size));
+    }
+
+    @GetMapping("/api/projects/{projectId}/trash")
+    @Operation(summary = "List a project's soft-deleted entities, most recently deleted first")
+    public ResponseEntity<PaginatedResponse<TrashItemResponse>> getEntityTrash(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @PathVariable UUID projectId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        verifyProjectOwnership(projectId, userPrincipal.getUserId());
+        return ResponseEntity.ok(trashService.getEntityTrash(projectId, page, size));
+    }
+
+    private void verifyProjectOwnership(UUID projectId, UUID userId) {
+        Project project = projectService.getProjectById(projectId);
+        if (!project.getOwnerId().equals(userId)) {
+            throw new ForbiddenException("You do not have permission to access this project");
+        }
+    }
+}
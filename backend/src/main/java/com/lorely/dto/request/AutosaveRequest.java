@@ -0,0 +1,23 @@
+package com.lorely.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutosaveRequest {
+
+    @Size(max = 255, message = "Title must be at most 255 characters")
+    private String title;
+
+    @NotNull(message = "Content is required")
+    private Map<String, Object> content;
+}
@@ -0,0 +1,33 @@
+package com.lorely.dto.request;
+
+import com.lorely.model.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEntityOperation {
+
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    private Action action;
+
+    // Required for UPDATE and DELETE
+    private UUID id;
+
+    // CREATE requires type and title; UPDATE only applies the fields that are present
+    private EntityType type;
+    private String title;
+    private Map<String, Object> content;
+}
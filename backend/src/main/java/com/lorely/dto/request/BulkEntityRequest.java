@@ -0,0 +1,24 @@
+package com.lorely.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEntityRequest {
+
+    public static final int MAX_OPERATIONS = 5000;
+
+    // Individual operations are validated one by one so a bad row is reported instead of failing the batch
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "At most " + MAX_OPERATIONS + " operations are allowed per request")
+    private List<BulkEntityOperation> operations;
+}
@@ -0,0 +1,34 @@
+package com.lorely.dto.response;
+
+import com.lorely.model.EntityType;
+import com.lorely.repository.projection.BacklinkView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacklinkResponse {
+
+    private UUID entityId;
+    private String title;
+    private EntityType type;
+    private int mentionCount;
+    // Characters of visible text before the first mention
+    private int firstOffset;
+
+    public static BacklinkResponse fromView(BacklinkView view) {
+        return BacklinkResponse.builder()
+                .entityId(view.getSourceId())
+                .title(view.getTitle())
+                .type(view.getType())
+                .mentionCount(view.getMentionCount())
+                .firstOffset(view.getFirstOffset())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.lorely.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEntityResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<BulkEntityResult> results;
+}
@@ -0,0 +1,29 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lorely.dto.request.BulkEntityOperation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkEntityResult {
+
+    public enum Status {
+        OK,
+        ERROR
+    }
+
+    private int index;
+    private BulkEntityOperation.Action action;
+    private UUID id;
+    private Status status;
+    private String error;
+}
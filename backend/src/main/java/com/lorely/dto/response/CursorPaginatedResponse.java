@@ -0,0 +1,11 @@
+package com.lorely.dto.response;
+
+import java.util.List;
+
+public record CursorPaginatedResponse<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean last
+) {
+}
@@ -0,0 +1,24 @@
+package com.lorely.dto.response;
+
+import com.lorely.model.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityFacetsResponse {
+
+    // Entities matching every filter
+    private long total;
+    // Counts per type ignore the type filter, counts per tag ignore the tag filter
+    private Map<EntityType, Long> types;
+    // Most used tags first
+    private Map<UUID, Long> tags;
+}
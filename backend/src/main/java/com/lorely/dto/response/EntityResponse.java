@@ -1,5 +1,6 @@
 package com.lorely.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.lorely.model.EntityType;
 import com.lorely.model.WorldEntity;
 import lombok.AllArgsConstructor;
@@ -23,10 +24,16 @@ public class EntityResponse {
     private UUID projectId;
     private EntityType type;
     private String title;
+    // Omitted from summary views
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private Map<String, Object> content;
     private List<TagResponse> tags;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
+    // Highlighted excerpt of the matching text, on full-text search results only: escaped HTML, matches in <b>
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String highlight;
 
     public static EntityResponse fromEntity(WorldEntity entity) {
         List<TagResponse> tagResponses = entity.getTags() != null
@@ -42,6 +49,7 @@ public class EntityResponse {
                 .tags(tagResponses)
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .version(entity.getVersion())
                 .build();
     }
 }
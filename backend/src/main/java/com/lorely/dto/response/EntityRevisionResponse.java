@@ -0,0 +1,40 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lorely.model.EntityType;
+import com.lorely.repository.projection.EntityRevisionView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityRevisionResponse {
+
+    private int revision;
+    private String title;
+    private EntityType type;
+    private int contentSize;
+    private Instant createdAt;
+    private Instant updatedAt;
+    // Only present when a single revision is requested
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Object> content;
+
+    public static EntityRevisionResponse fromView(EntityRevisionView view) {
+        return EntityRevisionResponse.builder()
+                .revision(view.getRevisionNumber())
+                .title(view.getTitle())
+                .type(view.getType())
+                .contentSize(view.getContentSize())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+}
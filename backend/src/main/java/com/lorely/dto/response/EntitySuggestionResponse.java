@@ -0,0 +1,29 @@
+package com.lorely.dto.response;
+
+import com.lorely.model.EntityType;
+import com.lorely.search.TitlePrefixIndex;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntitySuggestionResponse {
+
+    private UUID id;
+    private String title;
+    private EntityType type;
+
+    public static EntitySuggestionResponse fromSuggestion(TitlePrefixIndex.Suggestion suggestion) {
+        return EntitySuggestionResponse.builder()
+                .id(suggestion.id())
+                .title(suggestion.title())
+                .type(suggestion.type())
+                .build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lorely.model.EdgeKind;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GraphEdgeResponse {
+
+    private UUID id;
+    private EdgeKind kind;
+    private UUID fromEntityId;
+    private UUID toEntityId;
+
+    // Only set for relationships; links are untyped
+    private String relationType;
+}
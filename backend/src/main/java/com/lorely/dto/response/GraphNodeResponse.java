@@ -0,0 +1,30 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lorely.model.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphNodeResponse {
+
+    private UUID id;
+    private EntityType type;
+    private String title;
+    private List<UUID> tagIds;
+
+    // Precomputed layout position; only present in full project graph snapshots
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double x;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double y;
+}
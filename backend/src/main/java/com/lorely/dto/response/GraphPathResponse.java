@@ -0,0 +1,22 @@
+package com.lorely.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphPathResponse {
+
+    // Entities in walking order from the source to the target
+    private List<UUID> entityIds;
+
+    // edges[i] connects entityIds[i] and entityIds[i + 1], in whichever direction it was created
+    private List<GraphEdgeResponse> edges;
+}
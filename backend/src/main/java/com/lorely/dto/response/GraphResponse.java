@@ -0,0 +1,20 @@
+package com.lorely.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GraphResponse {
+
+    private UUID projectId;
+    private List<GraphNodeResponse> nodes;
+    private List<GraphEdgeResponse> edges;
+}
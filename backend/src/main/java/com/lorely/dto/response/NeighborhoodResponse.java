@@ -0,0 +1,25 @@
+package com.lorely.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NeighborhoodResponse {
+
+    private UUID entityId;
+    private int depth;
+
+    // True when the node cap was hit before the requested depth was fully explored
+    private boolean truncated;
+
+    private List<GraphNodeResponse> nodes;
+    private List<GraphEdgeResponse> edges;
+}
@@ -0,0 +1,27 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.lorely.model.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevisionDiffResponse {
+
+    private UUID entityId;
+    private int fromRevision;
+    private int toRevision;
+    private String fromTitle;
+    private String toTitle;
+    private EntityType fromType;
+    private EntityType toType;
+    // JsonDelta turning the first revision's content into the second's; null when the content is identical
+    private JsonNode contentDelta;
+}
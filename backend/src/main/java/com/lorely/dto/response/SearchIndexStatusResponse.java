@@ -0,0 +1,23 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchIndexStatusResponse {
+
+    // Entities whose search vector is waiting to be rebuilt
+    private long pending;
+    // Absent when nothing is pending
+    private Instant oldestEnqueuedAt;
+    private Long lagMs;
+}
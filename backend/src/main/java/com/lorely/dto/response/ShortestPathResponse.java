@@ -0,0 +1,27 @@
+package com.lorely.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShortestPathResponse {
+
+    private UUID fromEntityId;
+    private UUID toEntityId;
+
+    // Number of edges in each path, or null when the entities are not connected within maxDepth
+    private Integer length;
+
+    private List<GraphPathResponse> paths;
+
+    // Every entity appearing on any of the paths
+    private List<GraphNodeResponse> nodes;
+}
@@ -0,0 +1,22 @@
+package com.lorely.dto.response;
+
+import com.lorely.model.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimilarEntityResponse {
+
+    private UUID id;
+    private String title;
+    private EntityType type;
+    // Cosine similarity of the two entities' term vectors, between 0 and 1
+    private double score;
+}
@@ -0,0 +1,50 @@
+package com.lorely.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.lorely.model.EntityType;
+import com.lorely.model.Project;
+import com.lorely.model.WorldEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrashItemResponse {
+
+    private UUID id;
+    // Entities only
+    private UUID projectId;
+    private EntityType type;
+    private String title;
+    private Instant deletedAt;
+    // When the purge job removes the item for good
+    private Instant purgeAfter;
+
+    public static TrashItemResponse fromEntity(WorldEntity entity, Instant purgeAfter) {
+        return TrashItemResponse.builder()
+                .id(entity.getId())
+                .projectId(entity.getProjectId())
+                .type(entity.getType())
+                .title(entity.getTitle())
+                .deletedAt(entity.getDeletedAt())
+                .purgeAfter(purgeAfter)
+                .build();
+    }
+
+    public static TrashItemResponse fromProject(Project project, Instant purgeAfter) {
+        return TrashItemResponse.builder()
+                .id(project.getId())
+                .title(project.getName())
+                .deletedAt(project.getDeletedAt())
+                .purgeAfter(purgeAfter)
+                .build();
+    }
+}
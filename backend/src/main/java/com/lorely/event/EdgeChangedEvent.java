@@ -0,0 +1,27 @@
+package com.lorely.event;
+
+import com.lorely.model.EdgeKind;
+
+import java.util.UUID;
+
+/**
+ * Published by RelationshipService and LinkService whenever a connection is written. Listeners run after
+ * commit ({@code @TransactionalEventListener}), except GraphIndexService, which collects a transaction's events
+ * as they are published and applies them together after commit.
+ */
+public record EdgeChangedEvent(
+        UUID projectId,
+        UUID edgeId,
+        EdgeKind kind,
+        UUID fromEntityId,
+        UUID toEntityId,
+        String relationType,
+        Action action
+) {
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,18 @@
+package com.lorely.event;
+
+import java.util.UUID;
+
+/**
+ * Published by EntityService whenever an entity is written. Listeners run after commit
+ * ({@code @TransactionalEventListener}), except GraphIndexService, which collects a transaction's events as they
+ * are published and applies them together after commit.
+ */
+public record EntityChangedEvent(UUID projectId, UUID entityId, Action action) {
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RESTORED
+    }
+}
@@ -0,0 +1,10 @@
+package com.lorely.event;
+
+import java.util.UUID;
+
+/**
+ * Published by TagService when a tag, and with it every assignment of the tag, is deleted;
+ * listeners run after commit.
+ */
+public record TagDeletedEvent(UUID projectId, UUID tagId) {
+}
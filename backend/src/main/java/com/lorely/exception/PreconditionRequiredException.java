@@ -0,0 +1,8 @@
+package com.lorely.exception;
+
+public class PreconditionRequiredException extends RuntimeException {
+
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.lorely.filter;
+
+import com.lorely.model.EntityType;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Boolean tag filter combined with an optional type: entities must carry every tag in {@code allOf},
+ * at least one tag in {@code anyOf} (when not empty) and none of the tags in {@code noneOf}.
+ */
+public record EntityFilter(EntityType type, Set<UUID> allOf, Set<UUID> anyOf, Set<UUID> noneOf) {
+
+    public EntityFilter {
+        allOf = allOf != null ? Set.copyOf(allOf) : Set.of();
+        anyOf = anyOf != null ? Set.copyOf(anyOf) : Set.of();
+        noneOf = noneOf != null ? Set.copyOf(noneOf) : Set.of();
+    }
+}
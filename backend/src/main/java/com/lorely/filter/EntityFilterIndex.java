@@ -0,0 +1,201 @@
+package com.lorely.filter;
+
+import com.lorely.model.EntityType;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * In-memory filter index of one project's entities: one bitmap per type and per tag over dense entity
+ * ordinals, plus the columns list endpoints sort by.
+ * <p>
+ * A tag filter is a handful of word-wise AND/OR/ANDNOT operations over bitmaps of {@code n / 64} words,
+ * and a page is the top {@code offset + size} matches selected with a bounded heap, so neither touches
+ * the database. Ordinals of removed entities are not reused; their bits are simply cleared.
+ * Not thread-safe: callers synchronize on the instance.
+ */
+public final class EntityFilterIndex {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private UUID[] ids = new UUID[16];
+    private EntityType[] types = new EntityType[16];
+    // Titles are kept as collation keys, see page()
+    private final Collator collator = Collator.getInstance(Locale.ROOT);
+    private CollationKey[] titles = new CollationKey[16];
+    private long[] createdAt = new long[16];
+    private long[] updatedAt = new long[16];
+    private int size;
+
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Map<EntityType, BitSet> byType = new EnumMap<>(EntityType.class);
+    private final Map<UUID, BitSet> byTag = new HashMap<>();
+
+    /**
+     * Inserts an entity or replaces everything indexed about it.
+     */
+    public void put(UUID id, EntityType type, String title, Instant created, Instant updated, Collection<UUID> tagIds) {
+        Integer existing = ordinals.get(id);
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            clearMemberships(ordinal);
+        } else {
+            ordinal = size++;
+            if (ordinal == ids.length) {
+                grow();
+            }
+            ids[ordinal] = id;
+            ordinals.put(id, ordinal);
+        }
+        types[ordinal] = type;
+        titles[ordinal] = collator.getCollationKey(title != null ? title : "");
+        createdAt[ordinal] = toNanos(created);
+        updatedAt[ordinal] = toNanos(updated);
+        live.set(ordinal);
+        byType.computeIfAbsent(type, t -> new BitSet()).set(ordinal);
+        for (UUID tagId : tagIds) {
+            byTag.computeIfAbsent(tagId, t -> new BitSet()).set(ordinal);
+        }
+    }
+
+    public void remove(UUID id) {
+        Integer ordinal = ordinals.get(id);
+        if (ordinal != null) {
+            clearMemberships(ordinal);
+        }
+    }
+
+    /**
+     * Returns the ordinals of entities of the given type (any type if null) that carry every tag in
+     * {@code allOf}, at least one tag in {@code anyOf} (if not empty) and no tag in {@code noneOf}.
+     */
+    public BitSet match(EntityType type, Collection<UUID> allOf, Collection<UUID> anyOf, Collection<UUID> noneOf) {
+        BitSet result = (BitSet) live.clone();
+        if (type != null) {
+            result.and(byType.getOrDefault(type, EMPTY));
+        }
+        for (UUID tagId : allOf) {
+            result.and(byTag.getOrDefault(tagId, EMPTY));
+        }
+        if (!anyOf.isEmpty()) {
+            BitSet any = new BitSet();
+            for (UUID tagId : anyOf) {
+                any.or(byTag.getOrDefault(tagId, EMPTY));
+            }
+            result.and(any);
+        }
+        for (UUID tagId : noneOf) {
+            result.andNot(byTag.getOrDefault(tagId, EMPTY));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ids of matches {@code offset} to {@code offset + limit} in the given order, with the id
+     * as tiebreak in the same direction, as the SQL listings order them. Titles are compared with a root-locale
+     * {@link Collator}, which matches databases with a linguistic collation but not ones using {@code C}.
+     *
+     * @param sortField one of {@code title}, {@code type}, {@code createdAt}, {@code updatedAt}
+     */
+    public List<UUID> page(BitSet matches, String sortField, boolean ascending, int offset, int limit) {
+        Comparator<Integer> order = ascending ? comparator(sortField) : comparator(sortField).reversed();
+        int wanted = offset + limit;
+        List<Integer> top;
+        if (wanted >= matches.cardinality()) {
+            top = new ArrayList<>(matches.cardinality());
+            matches.stream().forEach(top::add);
+            top.sort(order);
+        } else {
+            // Keeps the best `wanted` matches; the head is the worst of them
+            PriorityQueue<Integer> heap = new PriorityQueue<>(wanted + 1, order.reversed());
+            matches.stream().forEach(ordinal -> {
+                if (heap.size() < wanted) {
+                    heap.add(ordinal);
+                } else if (order.compare(ordinal, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(ordinal);
+                }
+            });
+            top = new ArrayList<>(heap);
+            top.sort(order);
+        }
+
+        List<UUID> page = new ArrayList<>(Math.max(0, Math.min(limit, top.size() - offset)));
+        for (int i = offset; i < Math.min(top.size(), wanted); i++) {
+            page.add(ids[top.get(i)]);
+        }
+        return page;
+    }
+
+    public int entityCount() {
+        return live.cardinality();
+    }
+
+    /**
+     * Rough heap footprint, used to keep the per-project cache within its memory budget.
+     */
+    public long estimatedBytes() {
+        long titleBytes = 0;
+        for (int i = 0; i < size; i++) {
+            // The key keeps the title and its collation elements
+            titleBytes += titles[i] != null ? 56L + 6L * titles[i].getSourceString().length() : 0;
+        }
+        // UUID + map entry + columns per entity; one bit per entity and tag or type
+        return 256L + size * 120L + titleBytes + (byTag.size() + byType.size()) * (64L + size / 8);
+    }
+
+    private void clearMemberships(int ordinal) {
+        live.clear(ordinal);
+        for (BitSet members : byType.values()) {
+            members.clear(ordinal);
+        }
+        for (BitSet members : byTag.values()) {
+            members.clear(ordinal);
+        }
+    }
+
+    private Comparator<Integer> comparator(String sortField) {
+        Comparator<Integer> primary = switch (sortField) {
+            case "title" -> Comparator.comparing(ordinal -> titles[ordinal]);
+            case "type" -> Comparator.comparing(ordinal -> types[ordinal].name());
+            case "createdAt" -> (a, b) -> Long.compare(createdAt[a], createdAt[b]);
+            case "updatedAt" -> (a, b) -> Long.compare(updatedAt[a], updatedAt[b]);
+            default -> throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        };
+        return primary.thenComparing(this::compareIds);
+    }
+
+    // Unsigned, byte-wise order, the way PostgreSQL compares uuid values
+    private int compareIds(int a, int b) {
+        int high = Long.compareUnsigned(ids[a].getMostSignificantBits(), ids[b].getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(ids[a].getLeastSignificantBits(), ids[b].getLeastSignificantBits());
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        types = Arrays.copyOf(types, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant == null ? Long.MIN_VALUE : instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+}
@@ -0,0 +1,275 @@
+package com.lorely.graph;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Fruchterman-Reingold style force-directed layout over a {@link ProjectGraph}.
+ * <p>
+ * Node-node repulsion is approximated with a Barnes-Hut quadtree (O(n log n) per iteration) and
+ * evaluated in parallel on the common fork-join pool for large graphs. Nodes marked as pinned
+ * still repel and attract their neighbours but never move, which lets callers settle only the
+ * neighbourhood of a change while the rest of the drawing stays put.
+ */
+public final class ForceLayout {
+
+    /** Preferred distance between two connected nodes, in layout units. */
+    public static final double EDGE_LENGTH = 60.0;
+
+    // Cells whose size / distance ratio is below theta are treated as a single body
+    private static final double THETA = 0.8;
+    // Weak pull towards the origin keeps disconnected components from drifting apart indefinitely
+    private static final double GRAVITY = 0.5;
+    private static final double MIN_DISTANCE = 0.01;
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    private ForceLayout() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Runs {@code iterations} simulation steps, updating {@code x} and {@code y} in place. The maximum
+     * displacement per step starts at {@code temperature} and cools linearly to zero.
+     *
+     * @param pinned nodes that must keep their position, or null to let every node move
+     */
+    public static void run(ProjectGraph graph, double[] x, double[] y, boolean[] pinned,
+                           int iterations, double temperature) {
+        int n = graph.nodeCount();
+        if (n < 2) {
+            return;
+        }
+        double k2 = EDGE_LENGTH * EDGE_LENGTH;
+        double[] dx = new double[n];
+        double[] dy = new double[n];
+
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            QuadTree tree = QuadTree.build(x, y);
+            IntStream nodes = IntStream.range(0, n);
+            if (n >= PARALLEL_THRESHOLD) {
+                nodes = nodes.parallel();
+            }
+            // Each task only writes its own slots of dx/dy
+            nodes.forEach(node -> {
+                if (pinned != null && pinned[node]) {
+                    dx[node] = 0;
+                    dy[node] = 0;
+                    return;
+                }
+                double[] force = new double[2];
+                tree.repulse(node, x[node], y[node], k2, force);
+                dx[node] = force[0] - x[node] * GRAVITY;
+                dy[node] = force[1] - y[node] * GRAVITY;
+            });
+
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                int source = graph.edgeSource(edge);
+                int target = graph.edgeTarget(edge);
+                if (source == target) {
+                    continue;
+                }
+                double ex = x[source] - x[target];
+                double ey = y[source] - y[target];
+                double distance = Math.max(Math.sqrt(ex * ex + ey * ey), MIN_DISTANCE);
+                // Attraction d^2 / k along the edge, applied as (d / k) * unit vector * d
+                double pull = distance / EDGE_LENGTH;
+                dx[source] -= ex * pull;
+                dy[source] -= ey * pull;
+                dx[target] += ex * pull;
+                dy[target] += ey * pull;
+            }
+
+            double limit = temperature * (1.0 - (double) iteration / iterations);
+            for (int node = 0; node < n; node++) {
+                if (pinned != null && pinned[node]) {
+                    continue;
+                }
+                double length = Math.sqrt(dx[node] * dx[node] + dy[node] * dy[node]);
+                if (length > 0) {
+                    double step = Math.min(length, limit) / length;
+                    x[node] += dx[node] * step;
+                    y[node] += dy[node] * step;
+                }
+            }
+        }
+    }
+
+    /**
+     * Radius of the disc that initial random positions are drawn from, so that density is roughly
+     * independent of graph size.
+     */
+    public static double initialRadius(int nodeCount) {
+        return EDGE_LENGTH * Math.sqrt(Math.max(nodeCount, 1));
+    }
+
+    /**
+     * Array-backed point-region quadtree storing, per cell, the total mass and centre of mass.
+     */
+    static final class QuadTree {
+
+        private static final int MAX_DEPTH = 48;
+
+        private final double[] px;
+        private final double[] py;
+
+        private double[] minX;
+        private double[] minY;
+        private double[] size;
+        private double[] mass;
+        private double[] massX;
+        private double[] massY;
+        // First of four consecutive children, or -1 for a leaf
+        private int[] firstChild;
+        // Point held by a leaf, or -1 when empty (or when it holds several coincident points)
+        private int[] point;
+        private int cellCount;
+
+        private QuadTree(double[] px, double[] py, int capacity) {
+            this.px = px;
+            this.py = py;
+            minX = new double[capacity];
+            minY = new double[capacity];
+            size = new double[capacity];
+            mass = new double[capacity];
+            massX = new double[capacity];
+            massY = new double[capacity];
+            firstChild = new int[capacity];
+            point = new int[capacity];
+        }
+
+        static QuadTree build(double[] x, double[] y) {
+            double lowX = Double.POSITIVE_INFINITY;
+            double lowY = Double.POSITIVE_INFINITY;
+            double highX = Double.NEGATIVE_INFINITY;
+            double highY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < x.length; i++) {
+                lowX = Math.min(lowX, x[i]);
+                lowY = Math.min(lowY, y[i]);
+                highX = Math.max(highX, x[i]);
+                highY = Math.max(highY, y[i]);
+            }
+
+            QuadTree tree = new QuadTree(x, y, Math.max(16, x.length * 4));
+            tree.newCell(lowX, lowY, Math.max(Math.max(highX - lowX, highY - lowY), 1.0) * 1.0001);
+            for (int i = 0; i < x.length; i++) {
+                tree.insert(i);
+            }
+            return tree;
+        }
+
+        void repulse(int node, double nx, double ny, double k2, double[] force) {
+            int[] stack = new int[64];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int cell = stack[--top];
+                if (mass[cell] == 0 || point[cell] == node && mass[cell] == 1) {
+                    continue;
+                }
+                double cx = massX[cell] / mass[cell];
+                double cy = massY[cell] / mass[cell];
+                double ex = nx - cx;
+                double ey = ny - cy;
+                double distance2 = ex * ex + ey * ey;
+
+                if (firstChild[cell] < 0 || size[cell] * size[cell] < THETA * THETA * distance2) {
+                    double cellMass = mass[cell];
+                    if (firstChild[cell] < 0 && point[cell] < 0) {
+                        // Leaf of coincident points that includes this node: don't repel itself
+                        cellMass -= (px[node] == cx && py[node] == cy) ? 1 : 0;
+                    }
+                    if (distance2 < MIN_DISTANCE * MIN_DISTANCE) {
+                        // Coincident bodies: push apart in a direction derived from the node ordinal
+                        double angle = node * 2.399963;
+                        force[0] += Math.cos(angle) * EDGE_LENGTH * cellMass;
+                        force[1] += Math.sin(angle) * EDGE_LENGTH * cellMass;
+                        continue;
+                    }
+                    // Repulsion k^2 / d, applied as k^2 / d^2 * displacement vector
+                    double push = k2 * cellMass / distance2;
+                    force[0] += ex * push;
+                    force[1] += ey * push;
+                } else {
+                    if (top + 4 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    for (int child = firstChild[cell]; child < firstChild[cell] + 4; child++) {
+                        stack[top++] = child;
+                    }
+                }
+            }
+        }
+
+        private void insert(int node) {
+            int cell = 0;
+            int depth = 0;
+            while (true) {
+                mass[cell] += 1;
+                massX[cell] += px[node];
+                massY[cell] += py[node];
+
+                if (firstChild[cell] >= 0) {
+                    cell = childFor(cell, px[node], py[node]);
+                    depth++;
+                    continue;
+                }
+                if (mass[cell] == 1) {
+                    point[cell] = node;
+                    return;
+                }
+                if (depth >= MAX_DEPTH || point[cell] < 0) {
+                    // Coincident points pile up in one leaf
+                    point[cell] = -1;
+                    return;
+                }
+
+                int existing = point[cell];
+                point[cell] = -1;
+                split(cell);
+                int child = childFor(cell, px[existing], py[existing]);
+                mass[child] = 1;
+                massX[child] = px[existing];
+                massY[child] = py[existing];
+                point[child] = existing;
+
+                cell = childFor(cell, px[node], py[node]);
+                depth++;
+            }
+        }
+
+        private void split(int cell) {
+            double half = size[cell] / 2;
+            firstChild[cell] = newCell(minX[cell], minY[cell], half);
+            newCell(minX[cell] + half, minY[cell], half);
+            newCell(minX[cell], minY[cell] + half, half);
+            newCell(minX[cell] + half, minY[cell] + half, half);
+        }
+
+        private int childFor(int cell, double x, double y) {
+            double half = size[cell] / 2;
+            int quadrant = (x >= minX[cell] + half ? 1 : 0) + (y >= minY[cell] + half ? 2 : 0);
+            return firstChild[cell] + quadrant;
+        }
+
+        private int newCell(double cellX, double cellY, double cellSize) {
+            if (cellCount == size.length) {
+                int capacity = cellCount * 2;
+                minX = Arrays.copyOf(minX, capacity);
+                minY = Arrays.copyOf(minY, capacity);
+                size = Arrays.copyOf(size, capacity);
+                mass = Arrays.copyOf(mass, capacity);
+                massX = Arrays.copyOf(massX, capacity);
+                massY = Arrays.copyOf(massY, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                point = Arrays.copyOf(point, capacity);
+            }
+            int cell = cellCount++;
+            minX[cell] = cellX;
+            minY[cell] = cellY;
+            size[cell] = cellSize;
+            firstChild[cell] = -1;
+            point[cell] = -1;
+            return cell;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.lorely.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Traversals over a {@link ProjectGraph}. Edges are followed in both directions, so a relationship
+ * connects its endpoints regardless of which side it was created from.
+ */
+public final class GraphTraversal {
+
+    private GraphTraversal() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Collects every node within {@code depth} hops of {@code start} (breadth-first, each node visited once),
+     * stopping once {@code maxNodes} nodes are reached, plus the allowed edges between collected nodes.
+     */
+    public static Subgraph neighborhood(ProjectGraph graph, int start, int depth, boolean[] typeMask, int maxNodes) {
+        int[] hops = new int[graph.nodeCount()];
+        Arrays.fill(hops, -1);
+        int[] queue = new int[Math.min(graph.nodeCount(), maxNodes)];
+        int head = 0;
+        int tail = 0;
+        boolean truncated = false;
+
+        hops[start] = 0;
+        queue[tail++] = start;
+        while (head < tail && !truncated) {
+            int node = queue[head++];
+            if (hops[node] == depth) {
+                continue;
+            }
+            for (int slot = graph.outStart(node); slot < graph.outEnd(node) && !truncated; slot++) {
+                int edge = graph.outEdge(slot);
+                if (graph.allows(typeMask, edge) && hops[graph.edgeTarget(edge)] < 0) {
+                    if (tail == queue.length) {
+                        truncated = true;
+                    } else {
+                        hops[graph.edgeTarget(edge)] = hops[node] + 1;
+                        queue[tail++] = graph.edgeTarget(edge);
+                    }
+                }
+            }
+            for (int slot = graph.inStart(node); slot < graph.inEnd(node) && !truncated; slot++) {
+                int edge = graph.inEdge(slot);
+                if (graph.allows(typeMask, edge) && hops[graph.edgeSource(edge)] < 0) {
+                    if (tail == queue.length) {
+                        truncated = true;
+                    } else {
+                        hops[graph.edgeSource(edge)] = hops[node] + 1;
+                        queue[tail++] = graph.edgeSource(edge);
+                    }
+                }
+            }
+        }
+
+        // Every allowed edge between two collected nodes appears exactly once among their out-slices
+        int[] edges = new int[16];
+        int edgeCount = 0;
+        for (int i = 0; i < tail; i++) {
+            int node = queue[i];
+            for (int slot = graph.outStart(node); slot < graph.outEnd(node); slot++) {
+                int edge = graph.outEdge(slot);
+                if (graph.allows(typeMask, edge) && hops[graph.edgeTarget(edge)] >= 0) {
+                    if (edgeCount == edges.length) {
+                        edges = Arrays.copyOf(edges, edgeCount * 2);
+                    }
+                    edges[edgeCount++] = edge;
+                }
+            }
+        }
+
+        return new Subgraph(Arrays.copyOf(queue, tail), Arrays.copyOf(edges, edgeCount), truncated);
+    }
+
+    /**
+     * Finds up to {@code limit} shortest paths between two nodes with at most {@code maxDepth} edges,
+     * using a bidirectional breadth-first search that always grows the smaller frontier by one full level.
+     * Every predecessor on a shortest route is kept, so all equally short paths can be enumerated.
+     */
+    public static List<Path> shortestPaths(ProjectGraph graph, int source, int target, boolean[] typeMask,
+                                           int maxDepth, int limit) {
+        if (source == target) {
+            return List.of(new Path(new int[]{source}, new int[0]));
+        }
+
+        Side forward = new Side(graph.nodeCount(), source);
+        Side backward = new Side(graph.nodeCount(), target);
+        List<int[]> meetings = new ArrayList<>();
+        int shortest = Integer.MAX_VALUE;
+
+        while (meetings.isEmpty() && forward.size > 0 && backward.size > 0
+                && forward.radius + backward.radius < maxDepth) {
+            boolean expandForward = forward.size <= backward.size;
+            Side side = expandForward ? forward : backward;
+            Side other = expandForward ? backward : forward;
+
+            int[] next = new int[16];
+            int nextSize = 0;
+            for (int i = 0; i < side.size; i++) {
+                int node = side.frontier[i];
+                int hops = side.distance[node];
+                for (int pass = 0; pass < 2; pass++) {
+                    int start = pass == 0 ? graph.outStart(node) : graph.inStart(node);
+                    int end = pass == 0 ? graph.outEnd(node) : graph.inEnd(node);
+                    for (int slot = start; slot < end; slot++) {
+                        int edge = pass == 0 ? graph.outEdge(slot) : graph.inEdge(slot);
+                        if (!graph.allows(typeMask, edge)) {
+                            continue;
+                        }
+                        int neighbor = pass == 0 ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+                        if (other.distance[neighbor] >= 0) {
+                            int length = hops + 1 + other.distance[neighbor];
+                            if (length < shortest) {
+                                shortest = length;
+                                meetings.clear();
+                            }
+                            if (length == shortest) {
+                                meetings.add(expandForward
+                                        ? new int[]{node, edge, neighbor}
+                                        : new int[]{neighbor, edge, node});
+                            }
+                        }
+                        if (side.distance[neighbor] < 0) {
+                            side.distance[neighbor] = hops + 1;
+                            side.addPredecessor(neighbor, node, edge);
+                            if (nextSize == next.length) {
+                                next = Arrays.copyOf(next, nextSize * 2);
+                            }
+                            next[nextSize++] = neighbor;
+                        } else if (side.distance[neighbor] == hops + 1) {
+                            side.addPredecessor(neighbor, node, edge);
+                        }
+                    }
+                }
+            }
+            side.frontier = next;
+            side.size = nextSize;
+            side.radius++;
+        }
+
+        List<Path> paths = new ArrayList<>();
+        if (shortest > maxDepth) {
+            return paths;
+        }
+        for (int[] meeting : meetings) {
+            List<int[]> heads = new ArrayList<>();
+            forward.collectChains(meeting[0], new int[0], heads, limit - paths.size());
+            List<int[]> tails = new ArrayList<>();
+            backward.collectChains(meeting[2], new int[0], tails, limit - paths.size());
+            for (int[] head : heads) {
+                for (int[] tail : tails) {
+                    if (paths.size() == limit) {
+                        return paths;
+                    }
+                    paths.add(join(graph, source, head, meeting[1], tail));
+                }
+            }
+        }
+        return paths;
+    }
+
+    // head holds edges from source to the meeting node, tail holds edges from the meeting node to target
+    private static Path join(ProjectGraph graph, int source, int[] head, int bridge, int[] tail) {
+        int[] edges = new int[head.length + 1 + tail.length];
+        for (int i = 0; i < head.length; i++) {
+            edges[i] = head[head.length - 1 - i];
+        }
+        edges[head.length] = bridge;
+        System.arraycopy(tail, 0, edges, head.length + 1, tail.length);
+
+        int[] nodes = new int[edges.length + 1];
+        nodes[0] = source;
+        for (int i = 0; i < edges.length; i++) {
+            int previous = nodes[i];
+            nodes[i + 1] = graph.edgeSource(edges[i]) == previous ? graph.edgeTarget(edges[i]) : graph.edgeSource(edges[i]);
+        }
+        return new Path(nodes, edges);
+    }
+
+    public record Subgraph(int[] nodes, int[] edges, boolean truncated) {
+    }
+
+    public record Path(int[] nodes, int[] edges) {
+    }
+
+    private static final class Side {
+
+        private final int[] distance;
+        private final int[] predecessorHead;
+        private int[] predecessorNode = new int[16];
+        private int[] predecessorEdge = new int[16];
+        private int[] predecessorNext = new int[16];
+        private int predecessorCount;
+
+        private int[] frontier;
+        private int size;
+        private int radius;
+
+        private Side(int nodeCount, int origin) {
+            distance = new int[nodeCount];
+            Arrays.fill(distance, -1);
+            predecessorHead = new int[nodeCount];
+            Arrays.fill(predecessorHead, -1);
+            distance[origin] = 0;
+            frontier = new int[]{origin};
+            size = 1;
+        }
+
+        private void addPredecessor(int node, int predecessor, int edge) {
+            if (predecessorCount == predecessorNode.length) {
+                predecessorNode = Arrays.copyOf(predecessorNode, predecessorCount * 2);
+                predecessorEdge = Arrays.copyOf(predecessorEdge, predecessorCount * 2);
+                predecessorNext = Arrays.copyOf(predecessorNext, predecessorCount * 2);
+            }
+            predecessorNode[predecessorCount] = predecessor;
+            predecessorEdge[predecessorCount] = edge;
+            predecessorNext[predecessorCount] = predecessorHead[node];
+            predecessorHead[node] = predecessorCount++;
+        }
+
+        // Walks predecessors back to the origin; each chain lists edges starting next to node
+        private void collectChains(int node, int[] chain, List<int[]> chains, int limit) {
+            if (chains.size() >= limit) {
+                return;
+            }
+            if (distance[node] == 0) {
+                chains.add(chain);
+                return;
+            }
+            for (int p = predecessorHead[node]; p >= 0 && chains.size() < limit; p = predecessorNext[p]) {
+                int[] extended = Arrays.copyOf(chain, chain.length + 1);
+                extended[chain.length] = predecessorEdge[p];
+                collectChains(predecessorNode[p], extended, chains, limit);
+            }
+        }
+    }
+}
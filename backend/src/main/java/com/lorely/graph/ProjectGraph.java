@@ -0,0 +1,315 @@
+package com.lorely.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable adjacency snapshot of one project's entities, relationships and links.
+ * <p>
+ * Entity ids are interned to dense int ordinals and edges are stored in CSR form: for every
+ * node, its outgoing (and incoming) edge ordinals sit in one contiguous slice, grouped by
+ * relation type. Links share the graph with relationships under the reserved type code {@link #LINK_CODE},
+ * which has no name, so a relationship whose free-text type happens to read "LINK" is never taken for one.
+ * Mutations return a new snapshot so readers never need locking.
+ */
+public final class ProjectGraph {
+
+    public static final int LINK_CODE = 0;
+
+    private final UUID[] nodeIds;
+    private final Map<UUID, Integer> ordinals;
+
+    private final String[] typeNames;
+    private final Map<String, Integer> typeCodes;
+
+    private final UUID[] edgeIds;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final int[] edgeTypes;
+
+    private final int[] outOffsets;
+    private final int[] outEdges;
+    private final int[] inOffsets;
+    private final int[] inEdges;
+
+    private ProjectGraph(UUID[] nodeIds, String[] typeNames,
+                         UUID[] edgeIds, int[] edgeSources, int[] edgeTargets, int[] edgeTypes) {
+        this.nodeIds = nodeIds;
+        this.ordinals = new HashMap<>(nodeIds.length * 2);
+        for (int i = 0; i < nodeIds.length; i++) {
+            ordinals.put(nodeIds[i], i);
+        }
+        this.typeNames = typeNames;
+        this.typeCodes = new HashMap<>(typeNames.length * 2);
+        for (int i = LINK_CODE + 1; i < typeNames.length; i++) {
+            typeCodes.put(typeNames[i], i);
+        }
+        this.edgeIds = edgeIds;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeTypes = edgeTypes;
+
+        this.outOffsets = new int[nodeIds.length + 1];
+        this.outEdges = new int[edgeIds.length];
+        index(edgeSources, outOffsets, outEdges);
+        this.inOffsets = new int[nodeIds.length + 1];
+        this.inEdges = new int[edgeIds.length];
+        index(edgeTargets, inOffsets, inEdges);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return edgeIds.length;
+    }
+
+    /**
+     * Returns the ordinal of an entity, or -1 if it is not part of the graph.
+     */
+    public int ordinal(UUID entityId) {
+        Integer ordinal = ordinals.get(entityId);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public UUID nodeId(int node) {
+        return nodeIds[node];
+    }
+
+    public int outStart(int node) {
+        return outOffsets[node];
+    }
+
+    public int outEnd(int node) {
+        return outOffsets[node + 1];
+    }
+
+    public int outEdge(int slot) {
+        return outEdges[slot];
+    }
+
+    public int inStart(int node) {
+        return inOffsets[node];
+    }
+
+    public int inEnd(int node) {
+        return inOffsets[node + 1];
+    }
+
+    public int inEdge(int slot) {
+        return inEdges[slot];
+    }
+
+    public int degree(int node) {
+        return outEnd(node) - outStart(node) + inEnd(node) - inStart(node);
+    }
+
+    public UUID edgeId(int edge) {
+        return edgeIds[edge];
+    }
+
+    public int edgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public int edgeType(int edge) {
+        return edgeTypes[edge];
+    }
+
+    /**
+     * Returns the relation type name of a type code, or null for {@link #LINK_CODE}.
+     */
+    public String typeName(int type) {
+        return typeNames[type];
+    }
+
+    public boolean isLink(int edge) {
+        return edgeTypes[edge] == LINK_CODE;
+    }
+
+    /**
+     * Builds a lookup table of allowed type codes, or returns null when every edge is allowed. Links are
+     * allowed when {@code links} says so, or by default only when no relation types are given. Unknown
+     * type names are ignored.
+     */
+    public boolean[] typeMask(Collection<String> types, Boolean links) {
+        boolean anyType = types == null || types.isEmpty();
+        boolean withLinks = links != null ? links : anyType;
+        if (anyType && withLinks) {
+            return null;
+        }
+        boolean[] mask = new boolean[typeNames.length];
+        mask[LINK_CODE] = withLinks;
+        if (anyType) {
+            Arrays.fill(mask, LINK_CODE + 1, mask.length, true);
+            return mask;
+        }
+        for (String type : types) {
+            Integer code = typeCodes.get(type);
+            if (code != null) {
+                mask[code] = true;
+            }
+        }
+        return mask;
+    }
+
+    public boolean allows(boolean[] typeMask, int edge) {
+        return typeMask == null || typeMask[edgeTypes[edge]];
+    }
+
+    public ProjectGraph withNode(UUID entityId) {
+        if (ordinals.containsKey(entityId)) {
+            return this;
+        }
+        return toBuilder(Set.of()).addNode(entityId).build();
+    }
+
+    public ProjectGraph withEdge(UUID edgeId, UUID fromEntityId, UUID toEntityId, String type) {
+        return toBuilder(Set.of(edgeId)).addEdge(edgeId, fromEntityId, toEntityId, type).build();
+    }
+
+    public ProjectGraph withoutEdge(UUID edgeId) {
+        return toBuilder(Set.of(edgeId)).build();
+    }
+
+    /**
+     * Returns a builder holding this snapshot minus the given edges, so several changes cost one rebuild.
+     */
+    public Builder toBuilder(Set<UUID> withoutEdgeIds) {
+        Builder builder = new Builder();
+        for (UUID nodeId : nodeIds) {
+            builder.addNode(nodeId);
+        }
+        for (int edge = 0; edge < edgeIds.length; edge++) {
+            if (!withoutEdgeIds.contains(edgeIds[edge])) {
+                UUID from = nodeIds[edgeSources[edge]];
+                UUID to = nodeIds[edgeTargets[edge]];
+                if (isLink(edge)) {
+                    builder.addLink(edgeIds[edge], from, to);
+                } else {
+                    builder.addEdge(edgeIds[edge], from, to, typeNames[edgeTypes[edge]]);
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Rough heap footprint, used to keep the per-project cache within its memory budget.
+     */
+    public long estimatedBytes() {
+        // UUID object + map entry + boxed ordinal + CSR offsets per node; UUID + int columns + CSR slots per edge
+        return 128L + nodeIds.length * 120L + edgeIds.length * 72L;
+    }
+
+    // Two stable counting sorts (by type, then by endpoint) leave each node's slice grouped by type
+    private void index(int[] endpoints, int[] offsets, int[] slots) {
+        int[] byType = new int[edgeIds.length];
+        int[] typeOffsets = new int[typeNames.length + 1];
+        for (int type : edgeTypes) {
+            typeOffsets[type + 1]++;
+        }
+        for (int i = 0; i < typeNames.length; i++) {
+            typeOffsets[i + 1] += typeOffsets[i];
+        }
+        for (int edge = 0; edge < edgeIds.length; edge++) {
+            byType[typeOffsets[edgeTypes[edge]]++] = edge;
+        }
+
+        for (int endpoint : endpoints) {
+            offsets[endpoint + 1]++;
+        }
+        for (int i = 0; i < nodeIds.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] cursor = Arrays.copyOf(offsets, nodeIds.length);
+        for (int edge : byType) {
+            slots[cursor[endpoints[edge]]++] = edge;
+        }
+    }
+
+    public static final class Builder {
+
+        private final List<UUID> nodeIds = new ArrayList<>();
+        private final Map<UUID, Integer> ordinals = new HashMap<>();
+        // LINK_CODE has no name and is never looked up
+        private final List<String> typeNames = new ArrayList<>(Collections.singletonList(null));
+        private final Map<String, Integer> typeCodes = new HashMap<>();
+
+        private final List<UUID> edgeIds = new ArrayList<>();
+        private int[] edgeSources = new int[16];
+        private int[] edgeTargets = new int[16];
+        private int[] edgeTypes = new int[16];
+
+        private Builder() {
+        }
+
+        public Builder addNode(UUID entityId) {
+            if (!ordinals.containsKey(entityId)) {
+                ordinals.put(entityId, nodeIds.size());
+                nodeIds.add(entityId);
+            }
+            return this;
+        }
+
+        /**
+         * Adds an edge between two known nodes; edges touching unknown (e.g. soft-deleted) entities are skipped.
+         */
+        public Builder addEdge(UUID edgeId, UUID fromEntityId, UUID toEntityId, String type) {
+            return addEdge(edgeId, fromEntityId, toEntityId, typeCodes.computeIfAbsent(type, name -> {
+                typeNames.add(name);
+                return typeNames.size() - 1;
+            }));
+        }
+
+        public Builder addLink(UUID linkId, UUID fromEntityId, UUID toEntityId) {
+            return addEdge(linkId, fromEntityId, toEntityId, LINK_CODE);
+        }
+
+        private Builder addEdge(UUID edgeId, UUID fromEntityId, UUID toEntityId, int type) {
+            Integer source = ordinals.get(fromEntityId);
+            Integer target = ordinals.get(toEntityId);
+            if (source == null || target == null) {
+                return this;
+            }
+            int edge = edgeIds.size();
+            if (edge == edgeSources.length) {
+                edgeSources = Arrays.copyOf(edgeSources, edge * 2);
+                edgeTargets = Arrays.copyOf(edgeTargets, edge * 2);
+                edgeTypes = Arrays.copyOf(edgeTypes, edge * 2);
+            }
+            edgeIds.add(edgeId);
+            edgeSources[edge] = source;
+            edgeTargets[edge] = target;
+            edgeTypes[edge] = type;
+            return this;
+        }
+
+        public ProjectGraph build() {
+            int edgeCount = edgeIds.size();
+            return new ProjectGraph(
+                    nodeIds.toArray(new UUID[0]),
+                    typeNames.toArray(new String[0]),
+                    edgeIds.toArray(new UUID[0]),
+                    Arrays.copyOf(edgeSources, edgeCount),
+                    Arrays.copyOf(edgeTargets, edgeCount),
+                    Arrays.copyOf(edgeTypes, edgeCount));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.lorely.model;
+
+public enum EdgeKind {
+    RELATIONSHIP,
+    LINK
+}
@@ -0,0 +1,63 @@
+package com.lorely.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "entity_layouts")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityLayout implements Persistable<UUID> {
+
+    @Id
+    @Column(name = "entity_id")
+    private UUID entityId;
+
+    @Column(name = "project_id", nullable = false)
+    private UUID projectId;
+
+    @Column(name = "x", nullable = false)
+    private double x;
+
+    @Column(name = "y", nullable = false)
+    private double y;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // The id is assigned by the caller, so tell Spring Data whether to persist or merge
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public UUID getId() {
+        return entityId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = Instant.now();
+    }
+}
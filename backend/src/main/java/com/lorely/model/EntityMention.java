@@ -0,0 +1,65 @@
+package com.lorely.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Entity
+@Table(name = "entity_mentions")
+@IdClass(EntityMention.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityMention implements Persistable<EntityMention.Key> {
+
+    @Id
+    @Column(name = "source_id")
+    private UUID sourceId;
+
+    @Id
+    @Column(name = "target_id")
+    private UUID targetId;
+
+    @Column(name = "count", nullable = false)
+    private int mentionCount;
+
+    @Column(name = "first_offset", nullable = false)
+    private int firstOffset;
+
+    // The key is assigned by the caller, so tell Spring Data whether to persist or merge
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @Override
+    public Key getId() {
+        return new Key(sourceId, targetId);
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        isNew = false;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private UUID sourceId;
+        private UUID targetId;
+    }
+}
@@ -0,0 +1,30 @@
+package com.lorely.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An entity whose search vector is due to be rebuilt. Rows are written by the entities triggers (V22)
+ * and by reindex requests, and consumed by {@link com.lorely.service.SearchIndexService}.
+ */
+@Entity
+@Table(name = "search_index_queue")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchIndexQueueEntry {
+
+    @Id
+    @Column(name = "entity_id")
+    private UUID entityId;
+
+    @Column(name = "enqueued_at", nullable = false)
+    private Instant enqueuedAt;
+}
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -34,7 +36,10 @@ public class Tag {
     @Builder.Default
     private String color = "#808080";
 
+    // Excluded so hashing a tag never walks back into its entities' tag sets
     @ManyToMany(mappedBy = "tags")
     @Builder.Default
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<WorldEntity> entities = new HashSet<>();
 }
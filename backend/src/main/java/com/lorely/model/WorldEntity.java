@@ -1,10 +1,14 @@
 package com.lorely.model;
 
 import jakarta.persistence.*;
+import com.lorely.content.ContentCodec;
+import com.lorely.content.ContentStorageListener;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.type.SqlTypes;
@@ -18,6 +22,7 @@ import java.util.UUID;
 
 @jakarta.persistence.Entity
 @Table(name = "entities")
+@EntityListeners(ContentStorageListener.class)
 @SQLRestriction("deleted_at IS NULL")
 @Data
 @Builder
@@ -39,11 +44,29 @@ public class WorldEntity {
     @Column(nullable = false)
     private String title;
 
+    // Null while the content is stored compressed; use getContent() rather than reading the column
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     @Builder.Default
     private Map<String, Object> content = new HashMap<>();
 
+    // ContentCodec output, written by ContentStorageListener when compression applies to this entity
+    @Column(name = "content_compressed", columnDefinition = "bytea")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private byte[] compressedContent;
+
+    // Plain text of compressed content, read by the full-text search trigger instead of the JSON
+    @Column(name = "content_text", columnDefinition = "text")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String contentText;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Map<String, Object> decodedContent;
+
     @Column(name = "created_at")
     private Instant createdAt;
 
@@ -53,6 +76,10 @@ public class WorldEntity {
     @Column(name = "deleted_at")
     private Instant deletedAt;
 
+    @Version
+    @Column(name = "version")
+    private Long version;
+
     @ManyToMany
     @JoinTable(
             name = "entity_tags",
@@ -62,6 +89,36 @@ public class WorldEntity {
     @Builder.Default
     private Set<Tag> tags = new HashSet<>();
 
+    /**
+     * Returns the content, decompressing it on first access when it is stored compressed.
+     */
+    public Map<String, Object> getContent() {
+        if (compressedContent == null) {
+            return content;
+        }
+        if (decodedContent == null) {
+            decodedContent = ContentCodec.fromJson(ContentCodec.decode(compressedContent));
+        }
+        return decodedContent;
+    }
+
+    public void setContent(Map<String, Object> content) {
+        this.content = content;
+        this.compressedContent = null;
+        this.contentText = null;
+        this.decodedContent = null;
+    }
+
+    /**
+     * Moves the current content into compressed storage; {@link #getContent()} keeps returning it.
+     */
+    public void compressContent(byte[] compressed, String text) {
+        this.decodedContent = content;
+        this.content = null;
+        this.compressedContent = compressed;
+        this.contentText = text;
+    }
+
     @PrePersist
     protected void onCreate() {
         Instant now = Instant.now();
@@ -71,7 +128,7 @@ public class WorldEntity {
         if (updatedAt == null) {
             updatedAt = now;
         }
-        if (content == null) {
+        if (content == null && compressedContent == null) {
             content = new HashMap<>();
         }
     }
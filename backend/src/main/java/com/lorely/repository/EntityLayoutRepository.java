@@ -0,0 +1,14 @@
+package com.lorely.repository;
+
+import com.lorely.model.EntityLayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EntityLayoutRepository extends JpaRepository<EntityLayout, UUID> {
+
+    List<EntityLayout> findByProjectId(UUID projectId);
+}
@@ -0,0 +1,34 @@
+package com.lorely.repository;
+
+import com.lorely.model.EntityMention;
+import com.lorely.repository.projection.BacklinkView;
+import com.lorely.repository.projection.MentionCountView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EntityMentionRepository extends JpaRepository<EntityMention, EntityMention.Key> {
+
+    List<EntityMention> findBySourceIdIn(Collection<UUID> sourceIds);
+
+    // Served by idx_entity_mentions_target; soft-deleted sources are left out
+    @Query("SELECT m.sourceId AS sourceId, e.title AS title, e.type AS type, " +
+           "m.mentionCount AS mentionCount, m.firstOffset AS firstOffset " +
+           "FROM EntityMention m JOIN WorldEntity e ON e.id = m.sourceId " +
+           "WHERE m.targetId = :targetId AND e.deletedAt IS NULL " +
+           "ORDER BY m.mentionCount DESC, e.title ASC")
+    List<BacklinkView> findBacklinks(@Param("targetId") UUID targetId);
+
+    // How often each entity of a project is mentioned by live entities, for ranking autocomplete suggestions
+    @Query("SELECT m.targetId AS entityId, SUM(m.mentionCount) AS total " +
+           "FROM EntityMention m JOIN WorldEntity e ON e.id = m.sourceId " +
+           "WHERE e.projectId = :projectId AND e.deletedAt IS NULL " +
+           "GROUP BY m.targetId")
+    List<MentionCountView> countMentionsByProjectId(@Param("projectId") UUID projectId);
+}
@@ -2,14 +2,33 @@ package com.lorely.repository;
 
 import com.lorely.model.EntityType;
 import com.lorely.model.WorldEntity;
+import com.lorely.repository.projection.EntityHeadlineView;
+import com.lorely.repository.projection.EntityNodeView;
+import com.lorely.repository.projection.EntitySummaryView;
+import com.lorely.repository.projection.EntityTagDetailView;
+import com.lorely.repository.projection.EntityTagView;
+import com.lorely.repository.projection.EntityTextView;
+import com.lorely.repository.projection.EntityTitleView;
+import com.lorely.repository.projection.FacetCountView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -22,6 +41,11 @@ public interface EntityRepository extends JpaRepository<WorldEntity, UUID> {
     @Query("SELECT DISTINCT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId AND e.type = :type ORDER BY e.createdAt DESC")
     List<WorldEntity> findByProjectIdAndTypeOrderByCreatedAtDesc(@Param("projectId") UUID projectId, @Param("type") EntityType type);
 
+    List<WorldEntity> findByProjectIdAndIdIn(UUID projectId, Collection<UUID> ids);
+
+    @Query("SELECT e.id FROM WorldEntity e WHERE e.projectId = :projectId AND e.id IN :ids")
+    List<UUID> findIdsByProjectIdAndIdIn(@Param("projectId") UUID projectId, @Param("ids") Collection<UUID> ids);
+
     @Query("SELECT DISTINCT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.id = :id")
     Optional<WorldEntity> findByIdWithTags(@Param("id") UUID id);
 
@@ -31,32 +55,197 @@ public interface EntityRepository extends JpaRepository<WorldEntity, UUID> {
     @Query("SELECT DISTINCT e FROM WorldEntity e JOIN e.tags t LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId AND t.id = :tagId ORDER BY e.createdAt DESC")
     List<WorldEntity> findByProjectIdAndTagId(@Param("projectId") UUID projectId, @Param("tagId") UUID tagId);
 
-    // Paginated queries
-    @Query(value = "SELECT DISTINCT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId",
-            countQuery = "SELECT COUNT(DISTINCT e) FROM WorldEntity e WHERE e.projectId = :projectId")
-    Page<WorldEntity> findByProjectIdPaginated(@Param("projectId") UUID projectId, Pageable pageable);
+    // Paginated queries select ids only, so LIMIT/OFFSET is applied in SQL; tags are then fetched for that page
+    @Query(value = "SELECT e.id FROM WorldEntity e WHERE e.projectId = :projectId",
+            countQuery = "SELECT COUNT(e) FROM WorldEntity e WHERE e.projectId = :projectId")
+    Page<UUID> findIdsByProjectId(@Param("projectId") UUID projectId, Pageable pageable);
 
-    @Query(value = "SELECT DISTINCT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId AND e.type = :type",
-            countQuery = "SELECT COUNT(DISTINCT e) FROM WorldEntity e WHERE e.projectId = :projectId AND e.type = :type")
-    Page<WorldEntity> findByProjectIdAndTypePaginated(@Param("projectId") UUID projectId, @Param("type") EntityType type, Pageable pageable);
+    @Query(value = "SELECT e.id FROM WorldEntity e WHERE e.projectId = :projectId AND e.type = :type",
+            countQuery = "SELECT COUNT(e) FROM WorldEntity e WHERE e.projectId = :projectId AND e.type = :type")
+    Page<UUID> findIdsByProjectIdAndType(@Param("projectId") UUID projectId, @Param("type") EntityType type, Pageable pageable);
 
-    @Query(value = "SELECT DISTINCT e FROM WorldEntity e JOIN e.tags t LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId AND t.id = :tagId",
-            countQuery = "SELECT COUNT(DISTINCT e) FROM WorldEntity e JOIN e.tags t WHERE e.projectId = :projectId AND t.id = :tagId")
-    Page<WorldEntity> findByProjectIdAndTagIdPaginated(@Param("projectId") UUID projectId, @Param("tagId") UUID tagId, Pageable pageable);
+    @Query(value = "SELECT e.id FROM WorldEntity e JOIN e.tags t WHERE e.projectId = :projectId AND t.id = :tagId",
+            countQuery = "SELECT COUNT(e) FROM WorldEntity e JOIN e.tags t WHERE e.projectId = :projectId AND t.id = :tagId")
+    Page<UUID> findIdsByProjectIdAndTagId(@Param("projectId") UUID projectId, @Param("tagId") UUID tagId, Pageable pageable);
 
-    @Query("SELECT DISTINCT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId AND LOWER(e.title) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<WorldEntity> searchByTitlePaginated(@Param("projectId") UUID projectId, @Param("query") String query, Pageable pageable);
-
-    // Full-text search (native query for PostgreSQL tsvector)
-    @Query(value = "SELECT * FROM entities WHERE project_id = :projectId " +
-            "AND search_vector @@ plainto_tsquery('english', :query) " +
-            "ORDER BY ts_rank(search_vector, plainto_tsquery('english', :query)) DESC",
-            countQuery = "SELECT COUNT(*) FROM entities WHERE project_id = :projectId " +
-                    "AND search_vector @@ plainto_tsquery('english', :query)",
+    @Query(value = "SELECT e.id FROM WorldEntity e WHERE e.projectId = :projectId AND LOWER(e.title) LIKE LOWER(CONCAT('%', :query, '%'))",
+            countQuery = "SELECT COUNT(e) FROM WorldEntity e WHERE e.projectId = :projectId AND LOWER(e.title) LIKE LOWER(CONCAT('%', :query, '%'))")
+    Page<UUID> searchIdsByTitle(@Param("projectId") UUID projectId, @Param("query") String query, Pageable pageable);
+
+    // Keyset (cursor) queries: the sort is extended with the id, so each page is a bounded index range scan
+    Window<WorldEntity> findByProjectId(UUID projectId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<WorldEntity> findByProjectIdAndType(UUID projectId, EntityType type, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<WorldEntity> findByProjectIdAndTags_Id(UUID projectId, UUID tagId, ScrollPosition position, Sort sort, Limit limit);
+
+    // Loads a page of entities with their tags in one query; also initializes tags of entities already loaded without them
+    @Query("SELECT DISTINCT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.id IN :ids")
+    List<WorldEntity> findAllWithTagsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Summary view of a page: everything a list row renders, without the content column
+    @Query("SELECT e.id AS id, e.projectId AS projectId, e.type AS type, e.title AS title, " +
+            "e.createdAt AS createdAt, e.updatedAt AS updatedAt, e.version AS version FROM WorldEntity e WHERE e.id IN :ids")
+    List<EntitySummaryView> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.id AS entityId, t.id AS tagId, t.projectId AS projectId, t.name AS name, t.color AS color " +
+            "FROM WorldEntity e JOIN e.tags t WHERE e.id IN :ids")
+    List<EntityTagDetailView> findTagsByEntityIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Partial update in one statement, guarded by the expected version. Content is merged in SQL
+    // (see V14 jsonb_merge_patch) so the document never leaves the database; '' means "leave unchanged"
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = "UPDATE entities SET " +
+            "title = COALESCE(NULLIF(:title, ''), title), " +
+            "type = COALESCE(NULLIF(:type, ''), type), " +
+            "content = CASE WHEN :patch = '' THEN content ELSE jsonb_merge_patch(content, CAST(NULLIF(:patch, '') AS jsonb)) END, " +
+            "version = version + 1, updated_at = :updatedAt " +
+            "WHERE id = :id AND version = :version AND deleted_at IS NULL", nativeQuery = true)
+    int applyPatch(@Param("id") UUID id, @Param("version") long version, @Param("title") String title,
+                   @Param("type") String type, @Param("patch") String patch, @Param("updatedAt") Instant updatedAt);
+
+    boolean existsByIdAndCompressedContentIsNotNull(UUID id);
+
+    // Trash: soft-deleted rows are only reachable through native SQL, which bypasses @SQLRestriction
+    @Query(value = "SELECT * FROM entities WHERE id = :id", nativeQuery = true)
+    Optional<WorldEntity> findByIdIncludingDeleted(@Param("id") UUID id);
+
+    @Query(value = "SELECT * FROM entities WHERE project_id = :projectId AND deleted_at IS NOT NULL ORDER BY deleted_at DESC, id",
+            countQuery = "SELECT COUNT(*) FROM entities WHERE project_id = :projectId AND deleted_at IS NOT NULL",
+            nativeQuery = true)
+    Page<WorldEntity> findTrashByProjectId(@Param("projectId") UUID projectId, Pageable pageable);
+
+    // Purge batches, oldest first. The outer deleted_at check is re-evaluated against rows restored concurrently
+    @Modifying
+    @Query(value = "DELETE FROM entities WHERE deleted_at < :cutoff AND id IN " +
+            "(SELECT id FROM entities WHERE deleted_at < :cutoff ORDER BY deleted_at LIMIT :limit)", nativeQuery = true)
+    int deleteTrashedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM entities WHERE id IN (SELECT e.id FROM entities e JOIN projects p ON p.id = e.project_id " +
+            "WHERE p.deleted_at < :cutoff LIMIT :limit)", nativeQuery = true)
+    int deleteOfProjectsTrashedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Query("SELECT e.version FROM WorldEntity e WHERE e.id = :id")
+    Optional<Long> findVersionById(@Param("id") UUID id);
+
+    // Full-text search (native query for PostgreSQL tsvector, see V21); native SQL bypasses @SQLRestriction.
+    // websearch_to_tsquery accepts user syntax ("quoted phrases", or, -excluded) and never fails to parse
+    @Query(value = "SELECT id FROM entities WHERE project_id = :projectId AND deleted_at IS NULL " +
+            "AND search_vector @@ websearch_to_tsquery('english', :query) " +
+            "ORDER BY ts_rank(search_vector, websearch_to_tsquery('english', :query)) DESC, id",
+            countQuery = "SELECT COUNT(*) FROM entities WHERE project_id = :projectId AND deleted_at IS NULL " +
+                    "AND search_vector @@ websearch_to_tsquery('english', :query)",
             nativeQuery = true)
-    Page<WorldEntity> fullTextSearch(@Param("projectId") UUID projectId, @Param("query") String query, Pageable pageable);
+    Page<UUID> fullTextSearchIds(@Param("projectId") UUID projectId, @Param("query") String query, Pageable pageable);
+
+    // Trigram title search (see V20): ILIKE and the word-similarity operator are both served by the GIN index.
+    // The threshold of <% is a setting, so it is set for the transaction before the search runs
+    @Query(value = "SELECT id FROM entities WHERE project_id = :projectId AND deleted_at IS NULL " +
+            "AND (title ILIKE CONCAT('%', :query, '%') OR :query <% title) " +
+            "ORDER BY word_similarity(:query, title) DESC, title, id",
+            countQuery = "SELECT COUNT(*) FROM entities WHERE project_id = :projectId AND deleted_at IS NULL " +
+                    "AND (title ILIKE CONCAT('%', :query, '%') OR :query <% title)",
+            nativeQuery = true)
+    Page<UUID> similarTitleIds(@Param("projectId") UUID projectId, @Param("query") String query, Pageable pageable);
+
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    @Transactional(readOnly = true)
+    default Page<UUID> similarTitleSearchIds(UUID projectId, String query, double threshold, Pageable pageable) {
+        setWordSimilarityThreshold(Double.toString(threshold));
+        return similarTitleIds(projectId, query, pageable);
+    }
+
+    // Highlighted excerpts of the body text, computed for one page of results only since ts_headline re-parses it.
+    // Matches are marked with Highlights.START/STOP (chr(2), chr(3)), not tags: the text is escaped in Java
+    @Query(value = "SELECT id AS id, ts_headline('english', COALESCE(content_text, entity_content_text(content), ''), " +
+            "websearch_to_tsquery('english', :query), " +
+            "'MaxFragments=2, MinWords=5, MaxWords=20, StartSel=' || chr(2) || ', StopSel=' || chr(3)) AS headline " +
+            "FROM entities WHERE id IN (:ids)", nativeQuery = true)
+    List<EntityHeadlineView> findHeadlines(@Param("ids") Collection<UUID> ids, @Param("query") String query);
+
+    // Facet counts in one statement: per type under the tag filter, per tag under the type filter, both under
+    // the search filter. '' means "no filter", as in applyPatch
+    @Query(value = "SELECT 'TYPE' AS facet, e.type AS label, COUNT(*) AS total FROM entities e " +
+            "WHERE e.project_id = :projectId AND e.deleted_at IS NULL " +
+            "AND (:q = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:tagId = '' OR EXISTS (SELECT 1 FROM entity_tags et WHERE et.entity_id = e.id " +
+            "AND et.tag_id = CAST(NULLIF(:tagId, '') AS uuid))) " +
+            "GROUP BY e.type " +
+            "UNION ALL " +
+            "SELECT 'TAG', CAST(et.tag_id AS varchar), COUNT(*) FROM entity_tags et JOIN entities e ON e.id = et.entity_id " +
+            "WHERE e.project_id = :projectId AND e.deleted_at IS NULL " +
+            "AND (:q = '' OR LOWER(e.title) LIKE LOWER(CONCAT('%', :q, '%'))) " +
+            "AND (:type = '' OR e.type = :type) " +
+            "GROUP BY et.tag_id", nativeQuery = true)
+    List<FacetCountView> countFacets(@Param("projectId") UUID projectId, @Param("type") String type,
+                                     @Param("tagId") String tagId, @Param("q") String q);
+
+    @Query(value = "SELECT 'TYPE' AS facet, e.type AS label, COUNT(*) AS total FROM entities e " +
+            "WHERE e.project_id = :projectId AND e.deleted_at IS NULL " +
+            "AND e.search_vector @@ websearch_to_tsquery('english', :q) " +
+            "AND (:tagId = '' OR EXISTS (SELECT 1 FROM entity_tags et WHERE et.entity_id = e.id " +
+            "AND et.tag_id = CAST(NULLIF(:tagId, '') AS uuid))) " +
+            "GROUP BY e.type " +
+            "UNION ALL " +
+            "SELECT 'TAG', CAST(et.tag_id AS varchar), COUNT(*) FROM entity_tags et JOIN entities e ON e.id = et.entity_id " +
+            "WHERE e.project_id = :projectId AND e.deleted_at IS NULL " +
+            "AND e.search_vector @@ websearch_to_tsquery('english', :q) " +
+            "AND (:type = '' OR e.type = :type) " +
+            "GROUP BY et.tag_id", nativeQuery = true)
+    List<FacetCountView> countFullTextFacets(@Param("projectId") UUID projectId, @Param("type") String type,
+                                             @Param("tagId") String tagId, @Param("q") String q);
 
     // For export: find all entities in a project
     @Query("SELECT e FROM WorldEntity e LEFT JOIN FETCH e.tags WHERE e.projectId = :projectId")
     List<WorldEntity> findAllByProjectIdWithTags(@Param("projectId") UUID projectId);
+
+    // Title lookups for relationship/link responses without hydrating content
+    @Query("SELECT e.id AS id, e.title AS title FROM WorldEntity e WHERE e.id IN :ids")
+    List<EntityTitleView> findTitlesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    default Map<UUID, String> findTitlesByIds(Collection<UUID> ids) {
+        // Chunked to keep IN lists well below the driver's bind parameter limit
+        int chunkSize = 1000;
+        Map<UUID, String> titles = new HashMap<>();
+        List<UUID> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            List<UUID> chunk = idList.subList(from, Math.min(from + chunkSize, idList.size()));
+            for (EntityTitleView view : findTitlesByIdIn(chunk)) {
+                titles.put(view.getId(), view.getTitle());
+            }
+        }
+        return titles;
+    }
+
+    // Graph snapshot: narrow projections that never touch the content column
+    @Query("SELECT e.id AS id, e.type AS type, e.title AS title FROM WorldEntity e WHERE e.projectId = :projectId")
+    List<EntityNodeView> findNodesByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("SELECT e.id AS id, e.projectId AS projectId, e.type AS type, e.title AS title, " +
+            "e.createdAt AS createdAt, e.updatedAt AS updatedAt, e.version AS version FROM WorldEntity e WHERE e.projectId = :projectId")
+    List<EntitySummaryView> findSummariesByProjectId(@Param("projectId") UUID projectId);
+
+    // Searchable text for the in-process search index, without the compressed content column
+    @Query("SELECT e.id AS id, e.title AS title, e.content AS content, e.contentText AS contentText " +
+            "FROM WorldEntity e WHERE e.projectId = :projectId")
+    List<EntityTextView> findTextsByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("SELECT e.id AS id, e.title AS title, e.content AS content, e.contentText AS contentText " +
+            "FROM WorldEntity e WHERE e.id IN :ids")
+    List<EntityTextView> findTextsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.id AS entityId, t.id AS tagId FROM WorldEntity e JOIN e.tags t WHERE e.projectId = :projectId")
+    List<EntityTagView> findTagIdsByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("SELECT e.id AS id, e.type AS type, e.title AS title FROM WorldEntity e WHERE e.id IN :ids")
+    List<EntityNodeView> findNodesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.id AS entityId, t.id AS tagId FROM WorldEntity e JOIN e.tags t WHERE e.id IN :ids")
+    List<EntityTagView> findTagIdsByEntityIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT e.projectId FROM WorldEntity e WHERE e.id = :id")
+    Optional<UUID> findProjectIdById(@Param("id") UUID id);
 }
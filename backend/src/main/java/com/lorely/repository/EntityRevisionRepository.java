@@ -0,0 +1,33 @@
+package com.lorely.repository;
+
+import com.lorely.model.EntityRevision;
+import com.lorely.repository.projection.EntityRevisionView;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EntityRevisionRepository extends JpaRepository<EntityRevision, UUID> {
+
+    // Metadata only; bodies stay in the table until a revision is actually reconstructed
+    @Query("SELECT r.revisionNumber AS revisionNumber, r.title AS title, r.type AS type, r.snapshot AS snapshot, " +
+           "r.contentSize AS contentSize, r.createdAt AS createdAt, r.updatedAt AS updatedAt " +
+           "FROM EntityRevision r WHERE r.entityId = :entityId ORDER BY r.revisionNumber DESC")
+    List<EntityRevisionView> findViewsByEntityId(@Param("entityId") UUID entityId);
+
+    Optional<EntityRevision> findFirstByEntityIdOrderByRevisionNumberDesc(UUID entityId);
+
+    boolean existsByEntityId(UUID entityId);
+
+    @Query("SELECT MAX(r.revisionNumber) FROM EntityRevision r " +
+           "WHERE r.entityId = :entityId AND r.snapshot = true AND r.revisionNumber <= :revisionNumber")
+    Optional<Integer> findSnapshotNumberAtOrBefore(@Param("entityId") UUID entityId,
+                                                   @Param("revisionNumber") int revisionNumber);
+
+    List<EntityRevision> findByEntityIdAndRevisionNumberBetweenOrderByRevisionNumberAsc(UUID entityId, int from, int to);
+}
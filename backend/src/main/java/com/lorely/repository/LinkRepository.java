@@ -1,7 +1,10 @@
 package com.lorely.repository;
 
 import com.lorely.model.Link;
+import com.lorely.repository.projection.LinkEdgeView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +18,8 @@ public interface LinkRepository extends JpaRepository<Link, UUID> {
     List<Link> findByFromEntityIdOrToEntityIdOrderByCreatedAtDesc(UUID fromEntityId, UUID toEntityId);
 
     void deleteByProjectId(UUID projectId);
+
+    @Query("SELECT l.id AS id, l.fromEntityId AS fromEntityId, l.toEntityId AS toEntityId " +
+            "FROM Link l WHERE l.projectId = :projectId")
+    List<LinkEdgeView> findEdgesByProjectId(@Param("projectId") UUID projectId);
 }
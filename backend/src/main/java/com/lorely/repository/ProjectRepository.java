@@ -4,9 +4,14 @@ import com.lorely.model.Project;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +20,21 @@ public interface ProjectRepository extends JpaRepository<Project, UUID> {
     List<Project> findByOwnerIdOrderByCreatedAtDesc(UUID ownerId);
 
     Page<Project> findByOwnerId(UUID ownerId, Pageable pageable);
+
+    // Trash: soft-deleted rows are only reachable through native SQL, which bypasses @SQLRestriction
+    @Query(value = "SELECT * FROM projects WHERE id = :id", nativeQuery = true)
+    Optional<Project> findByIdIncludingDeleted(@Param("id") UUID id);
+
+    @Query(value = "SELECT * FROM projects WHERE owner_id = :ownerId AND deleted_at IS NOT NULL ORDER BY deleted_at DESC, id",
+            countQuery = "SELECT COUNT(*) FROM projects WHERE owner_id = :ownerId AND deleted_at IS NOT NULL",
+            nativeQuery = true)
+    Page<Project> findTrashByOwnerId(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    // Only projects whose entities have already been purged, so the cascade stays small
+    @Modifying
+    @Query(value = "DELETE FROM projects WHERE deleted_at < :cutoff AND id IN " +
+            "(SELECT p.id FROM projects p WHERE p.deleted_at < :cutoff " +
+            "AND NOT EXISTS (SELECT 1 FROM entities e WHERE e.project_id = p.id) ORDER BY p.deleted_at LIMIT :limit)",
+            nativeQuery = true)
+    int deleteEmptyTrashedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
 }
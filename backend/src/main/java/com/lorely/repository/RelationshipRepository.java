@@ -1,7 +1,10 @@
 package com.lorely.repository;
 
 import com.lorely.model.Relationship;
+import com.lorely.repository.projection.RelationshipEdgeView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,4 +26,8 @@ public interface RelationshipRepository extends JpaRepository<Relationship, UUID
     List<Relationship> findByContextEntityIdOrderByCreatedAtDesc(UUID contextEntityId);
 
     void deleteByProjectId(UUID projectId);
+
+    @Query("SELECT r.id AS id, r.fromEntityId AS fromEntityId, r.toEntityId AS toEntityId, r.relationType AS relationType " +
+            "FROM Relationship r WHERE r.projectId = :projectId")
+    List<RelationshipEdgeView> findEdgesByProjectId(@Param("projectId") UUID projectId);
 }
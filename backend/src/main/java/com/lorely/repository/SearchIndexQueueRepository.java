@@ -0,0 +1,50 @@
+package com.lorely.repository;
+
+import com.lorely.model.SearchIndexQueueEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SearchIndexQueueRepository extends JpaRepository<SearchIndexQueueEntry, UUID> {
+
+    // Entities already queued keep their earlier enqueue time
+    @Modifying
+    @Query(value = "INSERT INTO search_index_queue (entity_id, enqueued_at) " +
+            "SELECT id, :now FROM entities WHERE project_id = :projectId ON CONFLICT DO NOTHING", nativeQuery = true)
+    int enqueueProject(@Param("projectId") UUID projectId, @Param("now") Instant now);
+
+    // The oldest entries whose entities could be locked. Only entity rows are locked, never queue rows: entities
+    // a concurrent save holds are skipped rather than waited for, and that save's enqueue trigger never waits on
+    // the worker, so the two cannot deadlock. SKIP LOCKED also lets several instances drain the queue at once
+    @Query(value = "SELECT q.* FROM search_index_queue q JOIN entities e ON e.id = q.entity_id " +
+            "ORDER BY q.enqueued_at LIMIT :limit FOR UPDATE OF e SKIP LOCKED", nativeQuery = true)
+    List<SearchIndexQueueEntry> lockBatch(@Param("limit") int limit);
+
+    // See V22 entity_search_vector
+    @Modifying
+    @Query(value = "UPDATE entities SET search_vector = entity_search_vector(title, content_text, content) " +
+            "WHERE id IN (:ids)", nativeQuery = true)
+    int updateSearchVectors(@Param("ids") Collection<UUID> ids);
+
+    // Entries enqueued after the batch was read stay queued
+    @Modifying
+    @Query("DELETE FROM SearchIndexQueueEntry q WHERE q.entityId IN :ids AND q.enqueuedAt <= :enqueuedAt")
+    int deleteDequeued(@Param("ids") Collection<UUID> ids, @Param("enqueuedAt") Instant enqueuedAt);
+
+    @Query("SELECT MIN(q.enqueuedAt) FROM SearchIndexQueueEntry q")
+    Instant findOldestEnqueuedAt();
+
+    @Query("SELECT COUNT(q) FROM SearchIndexQueueEntry q, WorldEntity e WHERE e.id = q.entityId AND e.projectId = :projectId")
+    long countByProjectId(@Param("projectId") UUID projectId);
+
+    @Query("SELECT MIN(q.enqueuedAt) FROM SearchIndexQueueEntry q, WorldEntity e WHERE e.id = q.entityId AND e.projectId = :projectId")
+    Instant findOldestEnqueuedAtByProjectId(@Param("projectId") UUID projectId);
+}
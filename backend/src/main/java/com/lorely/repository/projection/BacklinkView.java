@@ -0,0 +1,18 @@
+package com.lorely.repository.projection;
+
+import com.lorely.model.EntityType;
+
+import java.util.UUID;
+
+public interface BacklinkView {
+
+    UUID getSourceId();
+
+    String getTitle();
+
+    EntityType getType();
+
+    int getMentionCount();
+
+    int getFirstOffset();
+}
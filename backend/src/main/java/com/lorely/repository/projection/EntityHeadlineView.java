@@ -0,0 +1,10 @@
+package com.lorely.repository.projection;
+
+import java.util.UUID;
+
+public interface EntityHeadlineView {
+
+    UUID getId();
+
+    String getHeadline();
+}
@@ -0,0 +1,14 @@
+package com.lorely.repository.projection;
+
+import com.lorely.model.EntityType;
+
+import java.util.UUID;
+
+public interface EntityNodeView {
+
+    UUID getId();
+
+    EntityType getType();
+
+    String getTitle();
+}
@@ -0,0 +1,22 @@
+package com.lorely.repository.projection;
+
+import com.lorely.model.EntityType;
+
+import java.time.Instant;
+
+public interface EntityRevisionView {
+
+    int getRevisionNumber();
+
+    String getTitle();
+
+    EntityType getType();
+
+    boolean isSnapshot();
+
+    int getContentSize();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,23 @@
+package com.lorely.repository.projection;
+
+import com.lorely.model.EntityType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface EntitySummaryView {
+
+    UUID getId();
+
+    UUID getProjectId();
+
+    EntityType getType();
+
+    String getTitle();
+
+    Instant getCreatedAt();
+
+    Instant getUpdatedAt();
+
+    Long getVersion();
+}
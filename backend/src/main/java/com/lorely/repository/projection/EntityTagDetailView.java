@@ -0,0 +1,16 @@
+package com.lorely.repository.projection;
+
+import java.util.UUID;
+
+public interface EntityTagDetailView {
+
+    UUID getEntityId();
+
+    UUID getTagId();
+
+    UUID getProjectId();
+
+    String getName();
+
+    String getColor();
+}
@@ -0,0 +1,10 @@
+package com.lorely.repository.projection;
+
+import java.util.UUID;
+
+public interface EntityTagView {
+
+    UUID getEntityId();
+
+    UUID getTagId();
+}
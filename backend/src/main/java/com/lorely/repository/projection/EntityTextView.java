@@ -0,0 +1,16 @@
+package com.lorely.repository.projection;
+
+import java.util.Map;
+import java.util.UUID;
+
+public interface EntityTextView {
+
+    UUID getId();
+
+    String getTitle();
+
+    // Null while the content is stored compressed; getContentText() then holds its text
+    Map<String, Object> getContent();
+
+    String getContentText();
+}
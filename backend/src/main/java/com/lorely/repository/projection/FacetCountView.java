@@ -0,0 +1,12 @@
+package com.lorely.repository.projection;
+
+public interface FacetCountView {
+
+    // "TYPE" or "TAG"
+    String getFacet();
+
+    // Entity type name or tag id
+    String getLabel();
+
+    long getTotal();
+}
@@ -0,0 +1,12 @@
+package com.lorely.repository.projection;
+
+import java.util.UUID;
+
+public interface LinkEdgeView {
+
+    UUID getId();
+
+    UUID getFromEntityId();
+
+    UUID getToEntityId();
+}
@@ -0,0 +1,14 @@
+package com.lorely.repository.projection;
+
+import java.util.UUID;
+
+public interface RelationshipEdgeView {
+
+    UUID getId();
+
+    UUID getFromEntityId();
+
+    UUID getToEntityId();
+
+    String getRelationType();
+}
@@ -0,0 +1,63 @@
+package com.lorely.search;
+
+/**
+ * The highlight contract shared by the search engines: excerpts are HTML-escaped text in which matching
+ * words, and nothing else, are wrapped in {@code <b>}, so clients can render them as markup.
+ * <p>
+ * The database marks matches with the {@link #START} and {@link #STOP} control characters rather than with
+ * tags, since it cannot escape the text around them; {@link #fromMarked} escapes and swaps them in Java.
+ */
+public final class Highlights {
+
+    public static final char START = '\u0002';
+    public static final char STOP = '\u0003';
+
+    private Highlights() {
+    }
+
+    /**
+     * Escapes marked text and turns its markers into {@code <b>} tags. Stray markers that would unbalance
+     * the tags are dropped.
+     */
+    public static String fromMarked(String marked) {
+        if (marked == null) {
+            return null;
+        }
+        StringBuilder out = new StringBuilder(marked.length() + 16);
+        boolean open = false;
+        int copied = 0;
+        for (int i = 0; i < marked.length(); i++) {
+            char c = marked.charAt(i);
+            if (c != START && c != STOP) {
+                continue;
+            }
+            escape(marked.substring(copied, i), out);
+            copied = i + 1;
+            if (c == START && !open) {
+                out.append("<b>");
+                open = true;
+            } else if (c == STOP && open) {
+                out.append("</b>");
+                open = false;
+            }
+        }
+        escape(marked.substring(copied), out);
+        if (open) {
+            out.append("</b>");
+        }
+        return out.toString();
+    }
+
+    public static void escape(String text, StringBuilder out) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
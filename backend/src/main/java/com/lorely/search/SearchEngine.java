@@ -0,0 +1,29 @@
+package com.lorely.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Entity search within one project. The implementation is chosen with {@code app.search.engine}:
+ * {@code postgres} (tsvector and trigram queries, the default) or {@code memory} (an in-process BM25 index).
+ */
+public interface SearchEngine {
+
+    /**
+     * Returns one page of matching entity ids, best first, with highlighted excerpts for some or all of them.
+     *
+     * @param similarity whether to match by spelling similarity rather than by words
+     */
+    Result search(UUID projectId, String query, boolean similarity, Pageable pageable);
+
+    /**
+     * Rebuilds the project's index from the database, e.g. to bootstrap a new node or repair drift.
+     */
+    void rebuild(UUID projectId);
+
+    record Result(Page<UUID> ids, Map<UUID, String> highlights) {
+    }
+}
@@ -0,0 +1,581 @@
+package com.lorely.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over one project's entity titles and body text, ranked with BM25.
+ * <p>
+ * Text is split into letter/digit tokens, lower-cased, accent-folded and stripped of English stop words;
+ * token positions are kept (stop words leave gaps) so quoted phrases match exactly. Queries follow web search
+ * syntax: every word or {@code "quoted phrase"} must match, {@code -word} excludes. A word missing from the
+ * index matches terms within one or two edits instead, and words under three characters match as prefixes.
+ * Title matches weigh {@value #TITLE_BOOST} times body matches. Titles and bodies are kept, like stored fields,
+ * to build highlighted excerpts.
+ * <p>
+ * Each document also reads as a sparse vector of BM25 term weights, for "more like this" queries by cosine
+ * similarity. Vector norms are computed in parallel on the first such query and for each document put afterwards;
+ * since term weights depend on collection statistics, all are recomputed once the document count has drifted by
+ * more than a tenth from the count they were computed with. Not thread-safe: callers synchronize on the instance.
+ * <p>
+ * Hand-rolled rather than built on Lucene because no lucene-core jar is available to the offline build; the
+ * structures mirror Lucene's (postings with positions, a sorted term dictionary) on a much smaller scale.
+ */
+public final class TextIndex {
+
+    static final double TITLE_BOOST = 3.0;
+    private static final double BODY_BOOST = 1.0;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Expanded terms count for less than the word the user typed
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double ONE_EDIT_WEIGHT = 0.5;
+    private static final double TWO_EDITS_WEIGHT = 0.3;
+    private static final int EXCERPT_TOKENS = 20;
+    // Like Lucene's MoreLikeThis, similarity queries use only the source document's highest-weighted terms
+    private static final int SIMILAR_QUERY_TERMS = 25;
+    private static final double NORM_DRIFT = 0.1;
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final Pattern QUERY_PART = Pattern.compile("(-?)\"([^\"]*)\"?|(-?)(\\S+)");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with");
+
+    private final Map<UUID, Doc> docs = new HashMap<>();
+    private final Field title = new Field(TITLE_BOOST);
+    private final Field body = new Field(BODY_BOOST);
+    // Every indexed term with the number of fields holding it, kept as documents come and go: sorted for prefix
+    // lookups and bucketed by length for fuzzy ones, so a query only visits terms that can match
+    private final NavigableMap<String, Integer> dictionary = new TreeMap<>();
+    private final Map<Integer, Set<String>> termsByLength = new HashMap<>();
+    // Document count the vector norms were last computed with; -1 until the first similarity query
+    private int normedDocuments = -1;
+
+    public record Token(String term, int position, int start, int end) {
+    }
+
+    /**
+     * One page of matches, best first, with the total number of matches and the index terms that matched
+     * (including fuzzy and prefix expansions), for {@link #excerpt}.
+     */
+    public record Hits(List<UUID> ids, int total, Set<String> terms) {
+    }
+
+    public record Similar(UUID id, double score) {
+    }
+
+    /**
+     * Inserts a document or replaces everything indexed about it.
+     */
+    public void put(UUID id, String titleText, String bodyText) {
+        remove(id);
+        Doc doc = new Doc(id, titleText != null ? titleText : "", bodyText != null ? bodyText : "");
+        doc.titleTerms = title.add(doc, analyze(doc.title));
+        doc.bodyTerms = body.add(doc, analyze(doc.body));
+        docs.put(id, doc);
+        if (normedDocuments >= 0) {
+            doc.norm = norm(doc);
+        }
+    }
+
+    public void remove(UUID id) {
+        Doc doc = docs.remove(id);
+        if (doc != null) {
+            title.remove(doc, doc.titleTerms);
+            body.remove(doc, doc.bodyTerms);
+        }
+    }
+
+    /**
+     * Returns matches {@code offset} to {@code offset + limit} of the query, best first, ties by title and id.
+     *
+     * @param fuzzy whether words found in the index also match their misspellings
+     */
+    public Hits search(String query, boolean fuzzy, int offset, int limit) {
+        Map<Doc, Double> scores = null;
+        List<List<Token>> negated = new ArrayList<>();
+        Set<String> matchedTerms = new HashSet<>();
+
+        Matcher part = QUERY_PART.matcher(query != null ? query : "");
+        while (part.find()) {
+            boolean phrase = part.group(2) != null;
+            boolean exclude = !(phrase ? part.group(1) : part.group(3)).isEmpty();
+            List<Token> tokens = analyze(phrase ? part.group(2) : part.group(4));
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            if (exclude) {
+                negated.add(tokens);
+                continue;
+            }
+            Map<Doc, Double> clause = new HashMap<>();
+            Map<String, Double> expansions = match(tokens, fuzzy);
+            if (tokens.size() == 1) {
+                scoreTerms(expansions, clause);
+            } else {
+                scorePhrase(tokens, clause);
+            }
+            matchedTerms.addAll(expansions.keySet());
+            if (scores == null) {
+                scores = clause;
+            } else {
+                scores.keySet().retainAll(clause.keySet());
+                scores.replaceAll((doc, score) -> score + clause.get(doc));
+            }
+        }
+        if (scores == null) {
+            return new Hits(List.of(), 0, Set.of());
+        }
+        // Exclusions match exactly, never by expansion
+        for (List<Token> tokens : negated) {
+            if (tokens.size() == 1) {
+                scores.keySet().removeAll(title.docs(tokens.get(0).term()));
+                scores.keySet().removeAll(body.docs(tokens.get(0).term()));
+            } else {
+                Map<Doc, Double> excluded = new HashMap<>();
+                scorePhrase(tokens, excluded);
+                scores.keySet().removeAll(excluded.keySet());
+            }
+        }
+
+        Map<Doc, Double> ranked = scores;
+        List<Doc> matches = new ArrayList<>(ranked.keySet());
+        matches.sort(Comparator.<Doc>comparingDouble(ranked::get).reversed()
+                .thenComparing(doc -> doc.title)
+                .thenComparing(doc -> doc.id));
+        List<UUID> page = new ArrayList<>();
+        for (int i = offset; i < Math.min(matches.size(), (long) offset + limit); i++) {
+            page.add(matches.get(i).id);
+        }
+        return new Hits(page, matches.size(), matchedTerms);
+    }
+
+    /**
+     * Returns about {@value #EXCERPT_TOKENS} words of the document's body around its first matching term, HTML
+     * escaped, with matching words in {@code <b>}; the start of the body if no term matches there.
+     */
+    public String excerpt(UUID id, Set<String> terms) {
+        Doc doc = docs.get(id);
+        if (doc == null || doc.body.isBlank()) {
+            return null;
+        }
+        List<Token> tokens = new ArrayList<>();
+        Matcher word = WORD.matcher(doc.body);
+        int first = -1;
+        while (word.find()) {
+            String term = fold(word.group());
+            if (first < 0 && terms.contains(term)) {
+                first = tokens.size();
+            }
+            tokens.add(new Token(term, tokens.size(), word.start(), word.end()));
+        }
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int from = Math.max(0, Math.min(first - EXCERPT_TOKENS / 4, tokens.size() - EXCERPT_TOKENS));
+        int to = Math.min(tokens.size(), from + EXCERPT_TOKENS);
+
+        StringBuilder excerpt = new StringBuilder(from > 0 ? "… " : "");
+        int copied = tokens.get(from).start();
+        for (int i = from; i < to; i++) {
+            Token token = tokens.get(i);
+            Highlights.escape(doc.body.substring(copied, token.start()), excerpt);
+            boolean match = terms.contains(token.term());
+            excerpt.append(match ? "<b>" : "");
+            Highlights.escape(doc.body.substring(token.start(), token.end()), excerpt);
+            excerpt.append(match ? "</b>" : "");
+            copied = token.end();
+        }
+        if (to < tokens.size()) {
+            return excerpt.append(" …").toString();
+        }
+        Highlights.escape(doc.body.substring(copied), excerpt);
+        return excerpt.toString();
+    }
+
+    /**
+     * Returns up to {@code limit} other documents by descending cosine similarity of their term vectors to the
+     * document's, skipping {@code excluded} ids; empty if the document is not indexed or has no terms.
+     */
+    public List<Similar> similar(UUID id, Set<UUID> excluded, int limit) {
+        Doc source = docs.get(id);
+        if (source == null || limit <= 0) {
+            return List.of();
+        }
+        refreshNorms();
+        if (source.norm == 0) {
+            return List.of();
+        }
+
+        Map<String, Double> vector = new HashMap<>();
+        for (String term : terms(source)) {
+            vector.put(term, weight(source, term));
+        }
+        List<Map.Entry<String, Double>> queryTerms = vector.entrySet().stream()
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(SIMILAR_QUERY_TERMS)
+                .toList();
+
+        // Dot products through the postings, so only documents sharing a query term are visited
+        Map<Doc, Double> dots = new HashMap<>();
+        for (Map.Entry<String, Double> term : queryTerms) {
+            for (Field field : List.of(title, body)) {
+                Map<Doc, int[]> postings = field.postings.get(term.getKey());
+                if (postings == null) {
+                    continue;
+                }
+                for (Map.Entry<Doc, int[]> posting : postings.entrySet()) {
+                    Doc doc = posting.getKey();
+                    if (doc == source || excluded.contains(doc.id)) {
+                        continue;
+                    }
+                    double weight = field.score(posting.getValue().length, postings.size(), field.length(doc),
+                            docs.size());
+                    dots.merge(doc, term.getValue() * weight, Double::sum);
+                }
+            }
+        }
+
+        Map<Doc, Double> scores = new HashMap<>();
+        dots.forEach((doc, dot) -> scores.put(doc, doc.norm > 0 ? dot / (source.norm * doc.norm) : 0));
+        Comparator<Doc> order = Comparator.<Doc>comparingDouble(scores::get).reversed()
+                .thenComparing(doc -> doc.title)
+                .thenComparing(doc -> doc.id);
+        // Keeps the best `limit` documents; the head is the worst of them
+        PriorityQueue<Doc> top = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Doc doc : scores.keySet()) {
+            top.add(doc);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Doc> best = new ArrayList<>(top);
+        best.sort(order);
+        return best.stream()
+                .map(doc -> new Similar(doc.id, scores.get(doc)))
+                .toList();
+    }
+
+    public int documentCount() {
+        return docs.size();
+    }
+
+    /**
+     * Rough heap footprint, used to keep the per-project cache within its memory budget.
+     */
+    public long estimatedBytes() {
+        long bytes = 256;
+        for (Doc doc : docs.values()) {
+            bytes += 96 + 2L * (doc.title.length() + doc.body.length())
+                    + 8L * (doc.titleTerms.size() + doc.bodyTerms.size());
+        }
+        // Dictionary entries share their strings with the postings
+        return bytes + title.estimatedBytes() + body.estimatedBytes() + 96L * dictionary.size();
+    }
+
+    /**
+     * Splits text into folded, non-stop-word tokens; stop words still advance the position.
+     */
+    public static List<Token> analyze(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        Matcher word = WORD.matcher(text);
+        int position = 0;
+        while (word.find()) {
+            String term = fold(word.group());
+            if (!STOP_WORDS.contains(term)) {
+                tokens.add(new Token(term, position, word.start(), word.end()));
+            }
+            position++;
+        }
+        return tokens;
+    }
+
+    private void refreshNorms() {
+        if (normedDocuments >= 0 && Math.abs(docs.size() - normedDocuments) <= NORM_DRIFT * normedDocuments) {
+            return;
+        }
+        // Reads only; each task writes its own document's norm
+        docs.values().parallelStream().forEach(doc -> doc.norm = norm(doc));
+        normedDocuments = docs.size();
+    }
+
+    private double norm(Doc doc) {
+        double sum = 0;
+        for (String term : terms(doc)) {
+            double weight = weight(doc, term);
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // The term's component of the document vector: its BM25 score in the document, summed over fields
+    private double weight(Doc doc, String term) {
+        double weight = 0;
+        for (Field field : List.of(title, body)) {
+            Map<Doc, int[]> postings = field.postings.get(term);
+            int[] positions = postings != null ? postings.get(doc) : null;
+            if (positions != null) {
+                weight += field.score(positions.length, postings.size(), field.length(doc), docs.size());
+            }
+        }
+        return weight;
+    }
+
+    private static Set<String> terms(Doc doc) {
+        Set<String> terms = new HashSet<>(doc.titleTerms);
+        terms.addAll(doc.bodyTerms);
+        return terms;
+    }
+
+    // Scores each document containing one of the terms, by its best-weighted term per field
+    private void scoreTerms(Map<String, Double> terms, Map<Doc, Double> scores) {
+        for (Map.Entry<String, Double> term : terms.entrySet()) {
+            for (Field field : List.of(title, body)) {
+                Map<Doc, int[]> postings = field.postings.get(term.getKey());
+                if (postings == null) {
+                    continue;
+                }
+                for (Map.Entry<Doc, int[]> posting : postings.entrySet()) {
+                    double score = term.getValue() * field.score(posting.getValue().length, postings.size(),
+                            field.length(posting.getKey()), docs.size());
+                    scores.merge(posting.getKey(), score, Double::sum);
+                }
+            }
+        }
+    }
+
+    // Documents with the phrase's terms at the same relative positions within one field
+    private void scorePhrase(List<Token> phrase, Map<Doc, Double> scores) {
+        for (Field field : List.of(title, body)) {
+            Map<Doc, int[]> first = field.postings.get(phrase.get(0).term());
+            if (first == null) {
+                continue;
+            }
+            for (Map.Entry<Doc, int[]> candidate : first.entrySet()) {
+                Doc doc = candidate.getKey();
+                if (!field.containsPhrase(doc, candidate.getValue(), phrase)) {
+                    continue;
+                }
+                double score = 0;
+                for (Token token : phrase) {
+                    Map<Doc, int[]> postings = field.postings.get(token.term());
+                    score += field.score(postings.get(doc).length, postings.size(), field.length(doc), docs.size());
+                }
+                scores.merge(doc, score, Double::sum);
+            }
+        }
+    }
+
+    // Index terms a query term matches, with their weights
+    private Map<String, Double> match(List<Token> tokens, boolean fuzzy) {
+        Map<String, Double> terms = new LinkedHashMap<>();
+        if (tokens.size() > 1) {
+            for (Token token : tokens) {
+                terms.put(token.term(), 1.0);
+            }
+            return terms;
+        }
+        String term = tokens.get(0).term();
+        boolean known = title.postings.containsKey(term) || body.postings.containsKey(term);
+        if (known) {
+            terms.put(term, 1.0);
+        }
+        if (term.length() < 3) {
+            for (String candidate : dictionary.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                terms.put(candidate, PREFIX_WEIGHT);
+            }
+        } else if (fuzzy || !known) {
+            int maxEdits = term.length() >= 8 ? 2 : term.length() >= 4 ? 1 : 0;
+            // Terms whose length differs by more than maxEdits are never within reach
+            for (int length = term.length() - maxEdits; maxEdits > 0 && length <= term.length() + maxEdits; length++) {
+                for (String candidate : termsByLength.getOrDefault(length, Set.of())) {
+                    int edits = editDistance(term, candidate, maxEdits);
+                    if (edits > 0 && edits <= maxEdits) {
+                        terms.put(candidate, edits == 1 ? ONE_EDIT_WEIGHT : TWO_EDITS_WEIGHT);
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+
+    private void addTerm(String term) {
+        if (dictionary.merge(term, 1, Integer::sum) == 1) {
+            termsByLength.computeIfAbsent(term.length(), length -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void removeTerm(String term) {
+        if (dictionary.merge(term, -1, Integer::sum) == 0) {
+            dictionary.remove(term);
+            Set<String> sameLength = termsByLength.get(term.length());
+            sameLength.remove(term);
+            if (sameLength.isEmpty()) {
+                termsByLength.remove(term.length());
+            }
+        }
+    }
+
+    // Levenshtein distance, or max + 1 as soon as it must exceed max
+    static int editDistance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static String fold(String word) {
+        return COMBINING_MARKS.matcher(Normalizer.normalize(word, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+    }
+
+    private static final class Doc {
+        private final UUID id;
+        private final String title;
+        private final String body;
+        private int titleLength;
+        private int bodyLength;
+        private Collection<String> titleTerms = List.of();
+        private Collection<String> bodyTerms = List.of();
+        private double norm;
+
+        private Doc(UUID id, String title, String body) {
+            this.id = id;
+            this.title = title;
+            this.body = body;
+        }
+    }
+
+    private final class Field {
+        private final double boost;
+        private final Map<String, Map<Doc, int[]>> postings = new HashMap<>();
+        private long totalLength;
+
+        private Field(double boost) {
+            this.boost = boost;
+        }
+
+        // Returns the distinct terms added
+        private Collection<String> add(Doc doc, List<Token> tokens) {
+            Map<String, List<Integer>> positions = new LinkedHashMap<>();
+            for (Token token : tokens) {
+                positions.computeIfAbsent(token.term(), t -> new ArrayList<>()).add(token.position());
+            }
+            for (Map.Entry<String, List<Integer>> term : positions.entrySet()) {
+                int[] termPositions = term.getValue().stream().mapToInt(Integer::intValue).toArray();
+                postings.computeIfAbsent(term.getKey(), t -> {
+                    addTerm(t);
+                    return new HashMap<>();
+                }).put(doc, termPositions);
+            }
+            if (this == title) {
+                doc.titleLength = tokens.size();
+            } else {
+                doc.bodyLength = tokens.size();
+            }
+            totalLength += tokens.size();
+            return new ArrayList<>(positions.keySet());
+        }
+
+        private void remove(Doc doc, Collection<String> terms) {
+            for (String term : terms) {
+                Map<Doc, int[]> termPostings = postings.get(term);
+                if (termPostings != null) {
+                    termPostings.remove(doc);
+                    if (termPostings.isEmpty()) {
+                        postings.remove(term);
+                        removeTerm(term);
+                    }
+                }
+            }
+            totalLength -= length(doc);
+        }
+
+        private int length(Doc doc) {
+            return this == title ? doc.titleLength : doc.bodyLength;
+        }
+
+        private Set<Doc> docs(String term) {
+            Map<Doc, int[]> termPostings = postings.get(term);
+            return termPostings != null ? termPostings.keySet() : Set.of();
+        }
+
+        private double score(int tf, int df, int length, int documents) {
+            double idf = Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+            double averageLength = documents > 0 ? Math.max(1.0, (double) totalLength / documents) : 1.0;
+            return boost * idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+        }
+
+        private boolean containsPhrase(Doc doc, int[] firstPositions, List<Token> phrase) {
+            int base = phrase.get(0).position();
+            for (int start : firstPositions) {
+                boolean all = true;
+                for (int i = 1; i < phrase.size() && all; i++) {
+                    Map<Doc, int[]> termPostings = postings.get(phrase.get(i).term());
+                    int[] positions = termPostings != null ? termPostings.get(doc) : null;
+                    all = positions != null && contains(positions, start + phrase.get(i).position() - base);
+                }
+                if (all) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long estimatedBytes() {
+            long bytes = 0;
+            for (Map.Entry<String, Map<Doc, int[]>> term : postings.entrySet()) {
+                bytes += 64 + 2L * term.getKey().length();
+                for (int[] positions : term.getValue().values()) {
+                    bytes += 48 + 4L * positions.length;
+                }
+            }
+            return bytes;
+        }
+    }
+
+    private static boolean contains(int[] sorted, int value) {
+        return Arrays.binarySearch(sorted, value) >= 0;
+    }
+}
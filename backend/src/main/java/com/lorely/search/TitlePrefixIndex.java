@@ -0,0 +1,212 @@
+package com.lorely.search;
+
+import com.lorely.model.EntityType;
+
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Prefix trie over the normalized title tokens of one project's entities, for autocomplete.
+ * <p>
+ * Titles are lower-cased, stripped of accents and split on anything that is not a letter or digit, so
+ * "Gandalf the Grey" is found by "gan", "grey" or "gandalf gr": every query token must be a prefix of
+ * some token of the title. Matches are ranked by how often the entity is mentioned, how recently it was
+ * updated and whether the title starts with the query. Not thread-safe: callers synchronize on the instance.
+ */
+public final class TitlePrefixIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final double RECENCY_HALF_LIFE_DAYS = 30;
+    private static final double NANOS_PER_DAY = 86_400_000_000_000d;
+
+    private final Node root = new Node();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+
+    public record Suggestion(UUID id, String title, EntityType type) {
+    }
+
+    /**
+     * Inserts an entity or replaces its indexed title, type and update time. Its mention count is kept.
+     */
+    public void put(UUID id, EntityType type, String title, Instant updated) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            entry = new Entry(id);
+            entries.put(id, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.type = type;
+        entry.title = title;
+        entry.updatedAt = toNanos(updated);
+        entry.tokens = tokenize(title);
+        for (String token : entry.tokens) {
+            Node node = root;
+            for (int i = 0; i < token.length(); i++) {
+                node = node.children.computeIfAbsent(token.charAt(i), c -> new Node());
+            }
+            node.entries.add(entry);
+        }
+    }
+
+    public void remove(UUID id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            unlink(entry);
+        }
+    }
+
+    /**
+     * Replaces every entity's mention count; entities missing from the map count as never mentioned.
+     */
+    public void setMentionCounts(Map<UUID, Long> counts) {
+        for (Entry entry : entries.values()) {
+            entry.mentions = counts.getOrDefault(entry.id, 0L);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entities whose title tokens cover the query's tokens as prefixes, best first.
+     */
+    public List<Suggestion> suggest(String query, int limit, Instant now) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Set<Entry> candidates = null;
+        for (String token : queryTokens) {
+            Set<Entry> matches = new HashSet<>();
+            Node node = find(token);
+            if (node != null) {
+                collect(node, matches);
+            }
+            if (candidates == null) {
+                candidates = matches;
+            } else {
+                candidates.retainAll(matches);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        long nowNanos = toNanos(now);
+        String leading = queryTokens.get(0);
+        Map<Entry, Double> scores = new HashMap<>();
+        for (Entry entry : candidates) {
+            scores.put(entry, score(entry, leading, nowNanos));
+        }
+        Comparator<Entry> order = Comparator.<Entry>comparingDouble(scores::get).reversed()
+                .thenComparing(entry -> entry.title)
+                .thenComparing(entry -> entry.id);
+
+        // Keeps the best `limit` candidates; the head is the worst of them
+        PriorityQueue<Entry> top = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Entry entry : candidates) {
+            top.add(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Entry> best = new ArrayList<>(top);
+        best.sort(order);
+        return best.stream()
+                .map(entry -> new Suggestion(entry.id, entry.title, entry.type))
+                .toList();
+    }
+
+    public int entityCount() {
+        return entries.size();
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(folded.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Mentions count logarithmically, so a handful of mentions matter and thousands do not drown out recency
+    private double score(Entry entry, String leadingToken, long nowNanos) {
+        double ageDays = Math.max(0, nowNanos - entry.updatedAt) / NANOS_PER_DAY;
+        double recency = Math.pow(0.5, ageDays / RECENCY_HALF_LIFE_DAYS);
+        double leading = !entry.tokens.isEmpty() && entry.tokens.get(0).startsWith(leadingToken) ? 1 : 0;
+        return Math.log1p(entry.mentions) + recency + leading;
+    }
+
+    private Node find(String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    private void collect(Node node, Set<Entry> matches) {
+        matches.addAll(node.entries);
+        for (Node child : node.children.values()) {
+            collect(child, matches);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        for (String token : entry.tokens) {
+            unlink(root, token, 0, entry);
+        }
+    }
+
+    // Removes the entry from the token's node and prunes nodes left empty; returns whether `node` is empty
+    private boolean unlink(Node node, String token, int depth, Entry entry) {
+        if (depth == token.length()) {
+            node.entries.remove(entry);
+        } else {
+            Node child = node.children.get(token.charAt(depth));
+            if (child != null && unlink(child, token, depth + 1, entry)) {
+                node.children.remove(token.charAt(depth));
+            }
+        }
+        return node.entries.isEmpty() && node.children.isEmpty();
+    }
+
+    private static long toNanos(Instant instant) {
+        return instant == null ? 0 : instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final List<Entry> entries = new ArrayList<>(1);
+    }
+
+    private static final class Entry {
+        private final UUID id;
+        private EntityType type;
+        private String title;
+        private List<String> tokens = List.of();
+        private long updatedAt;
+        private long mentions;
+
+        private Entry(UUID id) {
+            this.id = id;
+        }
+    }
+}
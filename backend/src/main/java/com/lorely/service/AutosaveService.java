@@ -0,0 +1,254 @@
+package com.lorely.service;
+
+import com.lorely.dto.request.UpdateEntityRequest;
+import com.lorely.dto.response.EntityResponse;
+import com.lorely.exception.PreconditionFailedException;
+import com.lorely.exception.ResourceNotFoundException;
+import com.lorely.exception.ValidationException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for editor autosaves.
+ * <p>
+ * The editor autosaves after every burst of typing. Each autosave only replaces the entity's pending draft
+ * in memory; a draft is written through {@link EntityService#updateEntity} once it has waited
+ * {@code flush-interval-ms}, or earlier on an explicit save, on a GET or PATCH of the entity, on a listing
+ * or restore of its revisions, and on shutdown. A PUT replaces title and content, so it discards the pending
+ * draft instead. Other endpoints (listings, search, the graph) read the last
+ * written state. Drafts live in this instance's memory only, so a crash loses at most one flush interval of typing.
+ * When {@code max-entries} entities already have pending drafts, further autosaves are written through directly.
+ * A draft whose write fails {@code max-flush-attempts} times in a row is dropped and logged.
+ * <p>
+ * Every draft carries the entity version the editor based it on (its If-Match) and is written with that version
+ * expected, so a draft never overwrites a change it has not seen: the write fails and the draft is dropped.
+ * An autosave based on another version than the pending draft is rejected outright. Once a draft is written,
+ * autosaves and updates still based on the version it replaced are taken to be based on the version it wrote,
+ * since the editor is not told about background writes.
+ */
+@Service
+@Slf4j
+public class AutosaveService {
+
+    private static final int LOCK_STRIPES = 64;
+    private static final Duration WRITTEN_RETENTION = Duration.ofMinutes(30);
+
+    private final EntityService entityService;
+
+    private final Map<UUID, Draft> drafts = new ConcurrentHashMap<>();
+    // The last draft written per entity, to rebase requests still carrying the version it replaced
+    private final Map<UUID, Written> written = new ConcurrentHashMap<>();
+    // Serializes flushes of one entity, so an older draft can never be written after a newer one
+    private final Object[] flushLocks = new Object[LOCK_STRIPES];
+
+    @Value("${app.autosave.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${app.autosave.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.autosave.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    public AutosaveService(EntityService entityService) {
+        this.entityService = entityService;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            flushLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Buffers the latest title and content of an entity, edited from {@code baseVersion}. Returns false, having
+     * buffered nothing, when the buffer is full; the caller should then {@link #saveNow save} directly.
+     *
+     * @throws PreconditionFailedException if a pending draft is based on another version
+     */
+    public boolean buffer(UUID entityId, long baseVersion, String title, Map<String, Object> content) {
+        if (title != null && title.isBlank()) {
+            throw new ValidationException("Title must not be blank");
+        }
+        if (drafts.size() >= maxEntries && !drafts.containsKey(entityId)) {
+            log.debug("Autosave buffer full, writing entity {} through", entityId);
+            return false;
+        }
+        long base = rebase(entityId, baseVersion);
+        // Drafts of one base are one editing session: a draft without a title keeps the pending one's, and the
+        // first buffering time is kept so continuous typing still flushes every interval
+        drafts.compute(entityId, (id, pending) -> {
+            if (pending == null) {
+                return new Draft(title, content, base, Instant.now(), 0);
+            }
+            if (pending.baseVersion() != base) {
+                throw new PreconditionFailedException(
+                        "Entity has a pending autosave based on version " + pending.baseVersion());
+            }
+            return new Draft(title != null ? title : pending.title(), content, base, pending.bufferedAt(), 0);
+        });
+        return true;
+    }
+
+    /**
+     * Writes the given title and content immediately, superseding any pending draft of the entity.
+     */
+    public EntityResponse saveNow(UUID entityId, long baseVersion, String title, Map<String, Object> content) {
+        buffer(entityId, baseVersion, title, content);
+        synchronized (lockFor(entityId)) {
+            Draft draft = drafts.remove(entityId);
+            if (draft == null) {
+                draft = new Draft(title, content, rebase(entityId, baseVersion), Instant.now(), 0);
+            }
+            return write(entityId, draft);
+        }
+    }
+
+    /**
+     * Returns the version a request based on {@code expectedVersion} should expect: the version written by this
+     * service's last write of the entity when that write replaced {@code expectedVersion}, else
+     * {@code expectedVersion} itself. Null (any version) stays null.
+     */
+    public Long rebase(UUID entityId, Long expectedVersion) {
+        Written last = expectedVersion != null ? written.get(entityId) : null;
+        if (last != null && last.baseVersion() == expectedVersion) {
+            return last.version();
+        }
+        return expectedVersion;
+    }
+
+    /**
+     * Writes the entity's pending draft, if any. Called by the entity GET and PATCH endpoints and the revision
+     * list and restore endpoints, so those never observe (or overwrite) state older than what the editor last sent.
+     *
+     * @throws PreconditionFailedException if the entity changed after the draft's base version; the draft is dropped
+     */
+    public Optional<EntityResponse> flush(UUID entityId) {
+        if (!drafts.containsKey(entityId)) {
+            return Optional.empty();
+        }
+        synchronized (lockFor(entityId)) {
+            Draft draft = drafts.remove(entityId);
+            if (draft == null) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(write(entityId, draft));
+            } catch (ResourceNotFoundException e) {
+                throw e;
+            } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+                // Retrying cannot help: the entity changed after the version the draft was based on
+                log.warn("Dropped autosave of entity {} based on version {}: the entity was modified meanwhile",
+                        entityId, draft.baseVersion());
+                throw e;
+            } catch (RuntimeException e) {
+                // Kept for the next attempt unless a newer draft arrived meanwhile or it keeps failing
+                if (draft.failures() + 1 < maxFlushAttempts) {
+                    drafts.putIfAbsent(entityId, draft.failed());
+                } else {
+                    log.error("Dropped autosave of entity {} after {} failed writes", entityId, maxFlushAttempts);
+                }
+                throw e;
+            }
+        }
+    }
+
+    public void discard(UUID entityId) {
+        drafts.remove(entityId);
+    }
+
+    /**
+     * Like {@link #flush}, but a conflicting draft is only dropped: reads go on with the stored state.
+     */
+    public void flushBeforeRead(UUID entityId) {
+        try {
+            flush(entityId);
+        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+            // Already logged by flush
+        }
+    }
+
+    /**
+     * Writes the entity's pending draft, if any, and returns the version a write based on
+     * {@code expectedVersion} should now expect (see {@link #rebase}).
+     */
+    public Long flushBefore(UUID entityId, Long expectedVersion) {
+        flush(entityId);
+        return rebase(entityId, expectedVersion);
+    }
+
+    @Scheduled(fixedDelayString = "${app.autosave.check-interval-ms:1000}")
+    public void flushDue() {
+        Instant due = Instant.now().minusMillis(flushIntervalMs);
+        Instant expired = Instant.now().minus(WRITTEN_RETENTION);
+        written.values().removeIf(last -> last.writtenAt().isBefore(expired));
+        int flushed = 0;
+        for (Map.Entry<UUID, Draft> entry : new ArrayList<>(drafts.entrySet())) {
+            if (entry.getValue().bufferedAt().isAfter(due)) {
+                continue;
+            }
+            try {
+                if (flush(entry.getKey()).isPresent()) {
+                    flushed++;
+                }
+            } catch (ResourceNotFoundException e) {
+                log.debug("Dropped autosave of deleted entity {}", entry.getKey());
+            } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+                // Already logged by flush
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush autosave of entity {}", entry.getKey(), e);
+            }
+        }
+        if (flushed > 0) {
+            log.debug("Flushed {} autosaves", flushed);
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        if (drafts.isEmpty()) {
+            return;
+        }
+        log.info("Flushing {} pending autosaves before shutdown", drafts.size());
+        for (UUID entityId : new ArrayList<>(drafts.keySet())) {
+            try {
+                flush(entityId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush autosave of entity {} on shutdown", entityId, e);
+            }
+        }
+    }
+
+    private EntityResponse write(UUID entityId, Draft draft) {
+        EntityResponse response = entityService.updateEntity(entityId, UpdateEntityRequest.builder()
+                .title(draft.title())
+                .content(draft.content())
+                .build(), draft.baseVersion());
+        written.put(entityId, new Written(draft.baseVersion(), response.getVersion(), Instant.now()));
+        return response;
+    }
+
+    private Object lockFor(UUID entityId) {
+        return flushLocks[Math.floorMod(entityId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private record Draft(String title, Map<String, Object> content, long baseVersion, Instant bufferedAt,
+                         int failures) {
+
+        private Draft failed() {
+            return new Draft(title, content, baseVersion, bufferedAt, failures + 1);
+        }
+    }
+
+    private record Written(long baseVersion, long version, Instant writtenAt) {
+    }
+}
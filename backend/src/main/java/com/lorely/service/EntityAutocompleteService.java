@@ -0,0 +1,183 @@
+package com.lorely.service;
+
+import com.lorely.dto.response.EntitySuggestionResponse;
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.exception.ValidationException;
+import com.lorely.repository.EntityMentionRepository;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.EntitySummaryView;
+import com.lorely.repository.projection.MentionCountView;
+import com.lorely.search.TitlePrefixIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Title autocomplete for {@code @mentions}, answered from per-project {@link TitlePrefixIndex} tries.
+ * <p>
+ * A trie is loaded lazily from narrow projections. Entities written afterwards (created, renamed, deleted or
+ * restored) are marked dirty and re-read in one query before the next suggestion. Mention counts only rank
+ * suggestions, so they are reloaded at most every {@code mention-counts-refresh-ms} after a write.
+ * The most recently used {@code cache-max-projects} tries are kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityAutocompleteService {
+
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private final EntityRepository entityRepository;
+    private final EntityMentionRepository entityMentionRepository;
+
+    @Value("${app.autocomplete.cache-max-projects:1000}")
+    private int maxProjects;
+
+    @Value("${app.autocomplete.mention-counts-refresh-ms:60000}")
+    private long mentionCountsRefreshMs;
+
+    private final LinkedHashMap<UUID, ProjectIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped on every change so a trie loaded concurrently with a write is not cached
+    private final Map<UUID, Long> generations = new HashMap<>();
+
+    public List<EntitySuggestionResponse> suggest(UUID projectId, String query, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        ProjectIndex project = getIndex(projectId);
+        synchronized (project) {
+            refreshDirty(projectId, project);
+            return project.index.suggest(query, limit, Instant.now())
+                    .stream()
+                    .map(EntitySuggestionResponse::fromSuggestion)
+                    .toList();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        markDirty(event.projectId(), event.entityId());
+    }
+
+    private ProjectIndex getIndex(UUID projectId) {
+        long generation;
+        synchronized (this) {
+            ProjectIndex cached = indexes.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = generations.getOrDefault(projectId, 0L);
+        }
+
+        ProjectIndex loaded = load(projectId);
+
+        synchronized (this) {
+            ProjectIndex cached = indexes.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            if (maxProjects > 0 && generation == generations.getOrDefault(projectId, 0L)) {
+                indexes.put(projectId, loaded);
+                evictEldest();
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void markDirty(UUID projectId, UUID entityId) {
+        generations.merge(projectId, 1L, Long::sum);
+        ProjectIndex project = indexes.get(projectId);
+        if (project != null) {
+            project.dirty.add(entityId);
+            project.mentionCountsStale = true;
+        }
+    }
+
+    // Called with the project's index locked
+    private void refreshDirty(UUID projectId, ProjectIndex project) {
+        Set<UUID> dirty;
+        boolean reloadMentionCounts;
+        synchronized (this) {
+            dirty = project.dirty;
+            project.dirty = new HashSet<>();
+            reloadMentionCounts = project.mentionCountsStale
+                    && System.currentTimeMillis() - project.mentionCountsLoadedAt >= mentionCountsRefreshMs;
+            if (reloadMentionCounts) {
+                project.mentionCountsStale = false;
+            }
+        }
+
+        try {
+            if (!dirty.isEmpty()) {
+                Set<UUID> missing = new HashSet<>(dirty);
+                for (EntitySummaryView entity : entityRepository.findSummariesByIdIn(dirty)) {
+                    missing.remove(entity.getId());
+                    project.index.put(entity.getId(), entity.getType(), entity.getTitle(), entity.getUpdatedAt());
+                }
+                for (UUID entityId : missing) {
+                    project.index.remove(entityId);
+                }
+            }
+            if (reloadMentionCounts) {
+                loadMentionCounts(projectId, project);
+            }
+        } catch (RuntimeException e) {
+            // Put back what was taken, so the next request retries it; re-putting an entity is harmless
+            synchronized (this) {
+                project.dirty.addAll(dirty);
+                project.mentionCountsStale |= reloadMentionCounts;
+            }
+            throw e;
+        }
+    }
+
+    private ProjectIndex load(UUID projectId) {
+        long started = System.nanoTime();
+        ProjectIndex project = new ProjectIndex();
+        for (EntitySummaryView entity : entityRepository.findSummariesByProjectId(projectId)) {
+            project.index.put(entity.getId(), entity.getType(), entity.getTitle(), entity.getUpdatedAt());
+        }
+        loadMentionCounts(projectId, project);
+
+        log.debug("Loaded title index for project {}: {} entities in {} ms",
+                projectId, project.index.entityCount(), (System.nanoTime() - started) / 1_000_000);
+        return project;
+    }
+
+    private void loadMentionCounts(UUID projectId, ProjectIndex project) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (MentionCountView count : entityMentionRepository.countMentionsByProjectId(projectId)) {
+            counts.put(count.getEntityId(), count.getTotal());
+        }
+        project.index.setMentionCounts(counts);
+        project.mentionCountsLoadedAt = System.currentTimeMillis();
+    }
+
+    private void evictEldest() {
+        Iterator<UUID> eldest = indexes.keySet().iterator();
+        while (indexes.size() > maxProjects && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static final class ProjectIndex {
+        private final TitlePrefixIndex index = new TitlePrefixIndex();
+        // Guarded by the service, not by the project's index
+        private Set<UUID> dirty = new HashSet<>();
+        private boolean mentionCountsStale;
+        private volatile long mentionCountsLoadedAt;
+    }
+}
@@ -0,0 +1,137 @@
+package com.lorely.service;
+
+import com.lorely.dto.response.EntityFacetsResponse;
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.event.TagDeletedEvent;
+import com.lorely.model.EntityType;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.FacetCountView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-type and per-tag entity counts for the list sidebar.
+ * <p>
+ * Counts are computed by one aggregate query. Results without a search term are cached per project
+ * until the next entity write or tag deletion in that project; the most recently used
+ * {@code cache-max-projects} projects are kept.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityFacetService {
+
+    private final EntityRepository entityRepository;
+
+    @Value("${app.facets.cache-max-projects:1000}")
+    private int maxProjects;
+
+    private final LinkedHashMap<UUID, Map<FacetKey, EntityFacetsResponse>> cache = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped on every change so counts loaded concurrently with a write are not cached
+    private final Map<UUID, Long> generations = new HashMap<>();
+
+    // Not transactional: a failed full-text query must not doom the transaction its fallback runs in
+    public EntityFacetsResponse getFacets(UUID projectId, EntityType type, UUID tagId, String query) {
+        String q = query != null ? query.trim() : "";
+        FacetKey key = new FacetKey(type, tagId);
+        long generation;
+        synchronized (this) {
+            Map<FacetKey, EntityFacetsResponse> cached = cache.get(projectId);
+            if (q.isEmpty() && cached != null && cached.containsKey(key)) {
+                return cached.get(key);
+            }
+            generation = generations.getOrDefault(projectId, 0L);
+        }
+
+        EntityFacetsResponse facets = toResponse(count(projectId, type, tagId, q), type);
+
+        if (q.isEmpty() && maxProjects > 0) {
+            synchronized (this) {
+                if (generation == generations.getOrDefault(projectId, 0L)) {
+                    cache.computeIfAbsent(projectId, id -> new HashMap<>()).put(key, facets);
+                    evictEldest();
+                }
+            }
+        }
+        return facets;
+    }
+
+    @TransactionalEventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        invalidate(event.projectId());
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        invalidate(event.projectId());
+    }
+
+    public synchronized void invalidate(UUID projectId) {
+        generations.merge(projectId, 1L, Long::sum);
+        cache.remove(projectId);
+    }
+
+    private List<FacetCountView> count(UUID projectId, EntityType type, UUID tagId, String q) {
+        String typeFilter = type != null ? type.name() : "";
+        String tagFilter = tagId != null ? tagId.toString() : "";
+        // Same rule as search: substring match on titles for short terms, full-text for longer ones
+        if (q.length() >= 3) {
+            try {
+                return entityRepository.countFullTextFacets(projectId, typeFilter, tagFilter, q);
+            } catch (Exception e) {
+                log.warn("Full-text facet count failed, falling back to ILIKE: {}", e.getMessage());
+            }
+        }
+        return entityRepository.countFacets(projectId, typeFilter, tagFilter, q);
+    }
+
+    private EntityFacetsResponse toResponse(List<FacetCountView> counts, EntityType type) {
+        Map<EntityType, Long> types = new EnumMap<>(EntityType.class);
+        Map<UUID, Long> tags = new HashMap<>();
+        for (FacetCountView count : counts) {
+            if ("TYPE".equals(count.getFacet())) {
+                types.put(EntityType.valueOf(count.getLabel()), count.getTotal());
+            } else {
+                tags.put(UUID.fromString(count.getLabel()), count.getTotal());
+            }
+        }
+        // Type counts already apply every filter but the type, so the total follows from them
+        long total = type != null
+                ? types.getOrDefault(type, 0L)
+                : types.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<UUID, Long> sortedTags = new LinkedHashMap<>();
+        tags.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> sortedTags.put(entry.getKey(), entry.getValue()));
+
+        return EntityFacetsResponse.builder()
+                .total(total)
+                .types(types)
+                .tags(sortedTags)
+                .build();
+    }
+
+    private void evictEldest() {
+        Iterator<Map.Entry<UUID, Map<FacetKey, EntityFacetsResponse>>> eldest = cache.entrySet().iterator();
+        while (cache.size() > maxProjects && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private record FacetKey(EntityType type, UUID tagId) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.lorely.service;
+
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.event.TagDeletedEvent;
+import com.lorely.filter.EntityFilter;
+import com.lorely.filter.EntityFilterIndex;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.EntitySummaryView;
+import com.lorely.repository.projection.EntityTagView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Answers combined type and boolean tag filters from per-project {@link EntityFilterIndex} bitmaps.
+ * <p>
+ * An index is loaded lazily from narrow projections. Entities created or updated (including tag
+ * assignments) after it was loaded are marked dirty and re-read in one query before the next filter;
+ * deletes, restores and tag deletions drop the index. Indexes are evicted least-recently-used once
+ * their estimated footprint exceeds the budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityFilterService {
+
+    private final EntityRepository entityRepository;
+
+    @Value("${app.filter-index.cache-max-bytes:33554432}")
+    private long maxBytes;
+
+    private final LinkedHashMap<UUID, EntityFilterIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Long> generations = new HashMap<>();
+    private final Map<UUID, Set<UUID>> dirtyEntities = new HashMap<>();
+    private final Map<UUID, Long> indexBytes = new HashMap<>();
+    private long cachedBytes;
+
+    /**
+     * Returns one page of matching entity ids, ordered by the pageable's first sort order and then by id.
+     */
+    public Page<UUID> findIds(UUID projectId, EntityFilter filter, Pageable pageable) {
+        EntityFilterIndex index = getIndex(projectId);
+        Sort.Order order = pageable.getSort().iterator().next();
+        synchronized (index) {
+            refreshDirty(projectId, index);
+            BitSet matches = index.match(filter.type(), filter.allOf(), filter.anyOf(), filter.noneOf());
+            List<UUID> ids = index.page(matches, order.getProperty(), order.isAscending(),
+                    (int) pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(ids, pageable, matches.cardinality());
+        }
+    }
+
+    public synchronized void invalidate(UUID projectId) {
+        generations.merge(projectId, 1L, Long::sum);
+        dirtyEntities.remove(projectId);
+        if (indexes.remove(projectId) != null) {
+            cachedBytes -= indexBytes.remove(projectId);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        switch (event.action()) {
+            case CREATED, UPDATED -> markDirty(event.projectId(), event.entityId());
+            case DELETED, RESTORED -> invalidate(event.projectId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        invalidate(event.projectId());
+    }
+
+    private EntityFilterIndex getIndex(UUID projectId) {
+        long generation;
+        synchronized (this) {
+            EntityFilterIndex cached = indexes.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = generations.getOrDefault(projectId, 0L);
+        }
+
+        EntityFilterIndex loaded = load(projectId);
+
+        synchronized (this) {
+            EntityFilterIndex cached = indexes.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            if (generation == generations.getOrDefault(projectId, 0L)) {
+                put(projectId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void markDirty(UUID projectId, UUID entityId) {
+        // A load running concurrently may have missed the change, so it must not be cached
+        generations.merge(projectId, 1L, Long::sum);
+        if (indexes.containsKey(projectId)) {
+            dirtyEntities.computeIfAbsent(projectId, id -> new HashSet<>()).add(entityId);
+        }
+    }
+
+    private synchronized Set<UUID> drainDirty(UUID projectId) {
+        Set<UUID> dirty = dirtyEntities.remove(projectId);
+        return dirty != null ? dirty : Set.of();
+    }
+
+    private synchronized void restoreDirty(UUID projectId, Set<UUID> dirty) {
+        if (indexes.containsKey(projectId)) {
+            dirtyEntities.computeIfAbsent(projectId, id -> new HashSet<>()).addAll(dirty);
+        }
+    }
+
+    private void refreshDirty(UUID projectId, EntityFilterIndex index) {
+        Set<UUID> dirty = drainDirty(projectId);
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<UUID>> tags;
+        List<EntitySummaryView> entities;
+        try {
+            tags = tagsOf(entityRepository.findTagIdsByEntityIdIn(dirty));
+            entities = entityRepository.findSummariesByIdIn(dirty);
+        } catch (RuntimeException e) {
+            // Still dirty, so the next request retries them
+            restoreDirty(projectId, dirty);
+            throw e;
+        }
+        Set<UUID> missing = new HashSet<>(dirty);
+        for (EntitySummaryView entity : entities) {
+            missing.remove(entity.getId());
+            index.put(entity.getId(), entity.getType(), entity.getTitle(), entity.getCreatedAt(), entity.getUpdatedAt(),
+                    tags.getOrDefault(entity.getId(), List.of()));
+        }
+        for (UUID entityId : missing) {
+            index.remove(entityId);
+        }
+    }
+
+    private void put(UUID projectId, EntityFilterIndex index) {
+        long bytes = index.estimatedBytes();
+        indexes.put(projectId, index);
+        indexBytes.put(projectId, bytes);
+        cachedBytes += bytes;
+
+        Iterator<Map.Entry<UUID, EntityFilterIndex>> eldest = indexes.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<UUID, EntityFilterIndex> entry = eldest.next();
+            if (entry.getKey().equals(projectId)) {
+                continue;
+            }
+            cachedBytes -= indexBytes.remove(entry.getKey());
+            dirtyEntities.remove(entry.getKey());
+            eldest.remove();
+            log.debug("Evicted filter index for project {}", entry.getKey());
+        }
+    }
+
+    private EntityFilterIndex load(UUID projectId) {
+        long started = System.nanoTime();
+        Map<UUID, List<UUID>> tags = tagsOf(entityRepository.findTagIdsByProjectId(projectId));
+        EntityFilterIndex index = new EntityFilterIndex();
+        for (EntitySummaryView entity : entityRepository.findSummariesByProjectId(projectId)) {
+            index.put(entity.getId(), entity.getType(), entity.getTitle(), entity.getCreatedAt(), entity.getUpdatedAt(),
+                    tags.getOrDefault(entity.getId(), List.of()));
+        }
+
+        log.debug("Loaded filter index for project {}: {} entities in {} ms",
+                projectId, index.entityCount(), (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+
+    private Map<UUID, List<UUID>> tagsOf(Collection<EntityTagView> entityTags) {
+        Map<UUID, List<UUID>> tags = new HashMap<>();
+        for (EntityTagView entityTag : entityTags) {
+            tags.computeIfAbsent(entityTag.getEntityId(), id -> new ArrayList<>()).add(entityTag.getTagId());
+        }
+        return tags;
+    }
+}
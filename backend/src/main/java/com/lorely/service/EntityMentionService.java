@@ -0,0 +1,108 @@
+package com.lorely.service;
+
+import com.lorely.content.MentionExtractor;
+import com.lorely.dto.response.BacklinkResponse;
+import com.lorely.model.EntityMention;
+import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityMentionRepository;
+import com.lorely.repository.EntityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code entity_mentions} index from entity content and answers backlink queries from it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityMentionService {
+
+    private final EntityMentionRepository entityMentionRepository;
+    private final EntityRepository entityRepository;
+
+    @Transactional
+    public void syncMentions(WorldEntity entity) {
+        syncMentions(entity.getProjectId(), List.of(entity));
+    }
+
+    /**
+     * Re-extracts mentions from the given entities' content and writes only the difference to the stored
+     * mention sets. Mentions of ids that are not entities of the same project are dropped.
+     */
+    @Transactional
+    public void syncMentions(UUID projectId, Collection<WorldEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        Map<UUID, Map<UUID, MentionExtractor.Mention>> extracted = new HashMap<>();
+        Set<UUID> targetIds = new HashSet<>();
+        for (WorldEntity entity : entities) {
+            Map<UUID, MentionExtractor.Mention> mentions = MentionExtractor.extract(entity.getContent());
+            mentions.remove(entity.getId());
+            extracted.put(entity.getId(), mentions);
+            targetIds.addAll(mentions.keySet());
+        }
+        Set<UUID> knownTargets = targetIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(entityRepository.findIdsByProjectIdAndIdIn(projectId, targetIds));
+
+        Map<EntityMention.Key, EntityMention> stored = new HashMap<>();
+        for (EntityMention mention : entityMentionRepository.findBySourceIdIn(extracted.keySet())) {
+            stored.put(mention.getId(), mention);
+        }
+
+        List<EntityMention> changed = new ArrayList<>();
+        for (Map.Entry<UUID, Map<UUID, MentionExtractor.Mention>> source : extracted.entrySet()) {
+            for (Map.Entry<UUID, MentionExtractor.Mention> target : source.getValue().entrySet()) {
+                if (!knownTargets.contains(target.getKey())) {
+                    continue;
+                }
+                EntityMention.Key key = new EntityMention.Key(source.getKey(), target.getKey());
+                EntityMention mention = stored.remove(key);
+                if (mention == null) {
+                    mention = EntityMention.builder()
+                            .sourceId(source.getKey())
+                            .targetId(target.getKey())
+                            .build();
+                } else if (mention.getMentionCount() == target.getValue().count()
+                        && mention.getFirstOffset() == target.getValue().firstOffset()) {
+                    continue;
+                }
+                mention.setMentionCount(target.getValue().count());
+                mention.setFirstOffset(target.getValue().firstOffset());
+                changed.add(mention);
+            }
+        }
+
+        // Whatever is left in stored is no longer mentioned
+        if (!stored.isEmpty()) {
+            entityMentionRepository.deleteAll(stored.values());
+        }
+        if (!changed.isEmpty()) {
+            entityMentionRepository.saveAll(changed);
+        }
+        if (!stored.isEmpty() || !changed.isEmpty()) {
+            log.debug("Synced mentions of {} entities: {} written, {} removed", entities.size(), changed.size(), stored.size());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<BacklinkResponse> getBacklinks(UUID entityId) {
+        return entityMentionRepository.findBacklinks(entityId)
+                .stream()
+                .map(BacklinkResponse::fromView)
+                .collect(Collectors.toList());
+    }
+}
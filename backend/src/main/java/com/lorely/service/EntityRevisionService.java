@@ -0,0 +1,227 @@
+package com.lorely.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lorely.content.JsonDelta;
+import com.lorely.dto.response.EntityRevisionResponse;
+import com.lorely.dto.response.RevisionDiffResponse;
+import com.lorely.exception.ResourceNotFoundException;
+import com.lorely.exception.ValidationException;
+import com.lorely.model.EntityRevision;
+import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityRevisionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Revision history of entity content.
+ * <p>
+ * Every {@code snapshot-interval} revisions (or whenever a delta would be at least half the size of the
+ * content) the full content is stored; revisions in between store a {@link JsonDelta} from their
+ * predecessor, so any revision is rebuilt from at most one snapshot plus a bounded number of deltas.
+ * Saves arriving within the coalescing window of the latest revision replace it instead of adding one.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityRevisionService {
+
+    private static final TypeReference<Map<String, Object>> BODY_TYPE = new TypeReference<>() {
+    };
+
+    private final EntityRevisionRepository entityRevisionRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.revisions.snapshot-interval:20}")
+    private int snapshotInterval;
+
+    @Value("${app.revisions.coalesce-window-ms:300000}")
+    private long coalesceWindowMs;
+
+    @Transactional(readOnly = true)
+    public boolean hasRevisions(UUID entityId) {
+        return entityRevisionRepository.existsByEntityId(entityId);
+    }
+
+    /**
+     * Stores the entity's current state as revision 1 if it has no history yet, so the content it had
+     * before its first tracked update can be recovered. Must be called before the entity is modified.
+     */
+    @Transactional
+    public void ensureBaseline(WorldEntity entity) {
+        if (entityRevisionRepository.findFirstByEntityIdOrderByRevisionNumberDesc(entity.getId()).isPresent()) {
+            return;
+        }
+        JsonNode content = objectMapper.valueToTree(entity.getContent());
+        entityRevisionRepository.save(EntityRevision.builder()
+                .entityId(entity.getId())
+                .revisionNumber(1)
+                .title(entity.getTitle())
+                .type(entity.getType())
+                .snapshot(true)
+                .body(toBody(content))
+                .contentSize(sizeOf(content))
+                .createdAt(entity.getUpdatedAt())
+                .build());
+    }
+
+    /**
+     * Records the entity's current state, folding it into the latest revision when {@code coalesce} is set
+     * and that revision is still within the coalescing window. Callers hold the entity row lock (the update
+     * was just flushed), so revisions of one entity are never recorded concurrently.
+     */
+    @Transactional
+    public void recordRevision(WorldEntity entity, boolean coalesce) {
+        EntityRevision latest = entityRevisionRepository.findFirstByEntityIdOrderByRevisionNumberDesc(entity.getId())
+                .orElse(null);
+        if (latest == null) {
+            ensureBaseline(entity);
+            return;
+        }
+        JsonNode content = objectMapper.valueToTree(entity.getContent());
+
+        // The baseline is never coalesced into: it is the only copy of the pre-edit content
+        coalesce = coalesce && latest.getRevisionNumber() > 1
+                && latest.getCreatedAt() != null
+                && latest.getCreatedAt().isAfter(Instant.now().minusMillis(coalesceWindowMs));
+        int revisionNumber = coalesce ? latest.getRevisionNumber() : latest.getRevisionNumber() + 1;
+        RevisionState previous = getRevisionState(entity.getId(), revisionNumber - 1);
+
+        if (!coalesce && previous.revision().getTitle().equals(entity.getTitle())
+                && previous.revision().getType() == entity.getType() && previous.content().equals(content)) {
+            return;
+        }
+
+        JsonNode delta = JsonDelta.diff(previous.content(), content);
+        int contentSize = sizeOf(content);
+        boolean snapshot = revisionNumber - previous.snapshotNumber() >= snapshotInterval
+                || delta != null && 2 * sizeOf(delta) >= contentSize;
+
+        EntityRevision revision = coalesce ? latest : EntityRevision.builder()
+                .entityId(entity.getId())
+                .revisionNumber(revisionNumber)
+                .build();
+        revision.setTitle(entity.getTitle());
+        revision.setType(entity.getType());
+        revision.setSnapshot(snapshot);
+        revision.setBody(toBody(snapshot ? content : Objects.requireNonNullElseGet(delta, JsonDelta::unchanged)));
+        revision.setContentSize(contentSize);
+        entityRevisionRepository.save(revision);
+
+        log.debug("{} revision {} of entity {} ({})", coalesce ? "Coalesced" : "Recorded",
+                revisionNumber, entity.getId(), snapshot ? "snapshot" : "delta");
+    }
+
+    @Transactional(readOnly = true)
+    public List<EntityRevisionResponse> getRevisions(UUID entityId) {
+        return entityRevisionRepository.findViewsByEntityId(entityId)
+                .stream()
+                .map(EntityRevisionResponse::fromView)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public EntityRevisionResponse getRevision(UUID entityId, int revisionNumber) {
+        RevisionState state = getRevisionState(entityId, revisionNumber);
+        return EntityRevisionResponse.builder()
+                .revision(revisionNumber)
+                .title(state.revision().getTitle())
+                .type(state.revision().getType())
+                .contentSize(state.revision().getContentSize())
+                .createdAt(state.revision().getCreatedAt())
+                .updatedAt(state.revision().getUpdatedAt())
+                .content(objectMapper.convertValue(state.content(), BODY_TYPE))
+                .build();
+    }
+
+    /**
+     * Returns the content delta between two revisions. Adjacent revisions are answered from the stored
+     * delta without rebuilding either side.
+     */
+    @Transactional(readOnly = true)
+    public RevisionDiffResponse diffRevisions(UUID entityId, int fromRevision, int toRevision) {
+        if (fromRevision < 1 || toRevision < 1) {
+            throw new ValidationException("Revision numbers start at 1");
+        }
+
+        JsonNode delta;
+        EntityRevision from;
+        EntityRevision to;
+        List<EntityRevision> adjacent = toRevision == fromRevision + 1
+                ? entityRevisionRepository.findByEntityIdAndRevisionNumberBetweenOrderByRevisionNumberAsc(entityId, fromRevision, toRevision)
+                : List.of();
+        if (adjacent.size() == 2 && !adjacent.get(1).isSnapshot()) {
+            from = adjacent.get(0);
+            to = adjacent.get(1);
+            delta = objectMapper.valueToTree(to.getBody());
+            if (delta.equals(JsonDelta.unchanged())) {
+                delta = null;
+            }
+        } else {
+            RevisionState fromState = getRevisionState(entityId, fromRevision);
+            RevisionState toState = getRevisionState(entityId, toRevision);
+            from = fromState.revision();
+            to = toState.revision();
+            delta = JsonDelta.diff(fromState.content(), toState.content());
+        }
+
+        return RevisionDiffResponse.builder()
+                .entityId(entityId)
+                .fromRevision(fromRevision)
+                .toRevision(toRevision)
+                .fromTitle(from.getTitle())
+                .toTitle(to.getTitle())
+                .fromType(from.getType())
+                .toType(to.getType())
+                .contentDelta(delta)
+                .build();
+    }
+
+    /**
+     * Rebuilds a revision by replaying deltas forward from the nearest snapshot at or before it.
+     */
+    @Transactional(readOnly = true)
+    public RevisionState getRevisionState(UUID entityId, int revisionNumber) {
+        int snapshotNumber = entityRevisionRepository.findSnapshotNumberAtOrBefore(entityId, revisionNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Revision not found"));
+        List<EntityRevision> chain = entityRevisionRepository
+                .findByEntityIdAndRevisionNumberBetweenOrderByRevisionNumberAsc(entityId, snapshotNumber, revisionNumber);
+        if (chain.isEmpty() || chain.get(chain.size() - 1).getRevisionNumber() != revisionNumber) {
+            throw new ResourceNotFoundException("Revision not found");
+        }
+
+        JsonNode content = null;
+        for (EntityRevision revision : chain) {
+            JsonNode body = objectMapper.valueToTree(revision.getBody());
+            content = revision.isSnapshot() ? body : JsonDelta.apply(content, body);
+        }
+        return new RevisionState(chain.get(chain.size() - 1), content, snapshotNumber);
+    }
+
+    private Map<String, Object> toBody(JsonNode node) {
+        return objectMapper.convertValue(node, BODY_TYPE);
+    }
+
+    private int sizeOf(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsBytes(node).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Content cannot be serialized", e);
+        }
+    }
+
+    public record RevisionState(EntityRevision revision, JsonNode content, int snapshotNumber) {
+    }
+}
@@ -1,27 +1,57 @@
 package com.lorely.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lorely.dto.request.BulkEntityOperation;
+import com.lorely.dto.request.BulkEntityRequest;
 import com.lorely.dto.request.CreateEntityRequest;
 import com.lorely.dto.request.UpdateEntityRequest;
+import com.lorely.dto.response.BulkEntityResponse;
+import com.lorely.dto.response.BulkEntityResult;
+import com.lorely.dto.response.CursorPaginatedResponse;
 import com.lorely.dto.response.EntityResponse;
 import com.lorely.dto.response.PaginatedResponse;
+import com.lorely.dto.response.TagResponse;
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.exception.PreconditionFailedException;
 import com.lorely.exception.ResourceNotFoundException;
+import com.lorely.exception.ValidationException;
+import com.lorely.filter.EntityFilter;
 import com.lorely.model.EntityType;
 import com.lorely.model.Tag;
 import com.lorely.model.WorldEntity;
 import com.lorely.repository.EntityRepository;
 import com.lorely.repository.TagRepository;
+import com.lorely.repository.projection.EntitySummaryView;
+import com.lorely.repository.projection.EntityTagDetailView;
+import com.lorely.search.SearchEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,8 +60,18 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EntityService {
 
+    public static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private static final Set<String> PATCHABLE_MEMBERS = Set.of("title", "type", "content");
+
     private final EntityRepository entityRepository;
     private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final EntityRevisionService entityRevisionService;
+    private final EntityMentionService entityMentionService;
+    private final EntityFilterService entityFilterService;
+    private final SearchEngine searchEngine;
 
     @Transactional
     public EntityResponse createEntity(UUID projectId, CreateEntityRequest request) {
@@ -45,7 +85,9 @@ public class EntityService {
                 .build();
 
         WorldEntity savedEntity = entityRepository.save(entity);
+        entityMentionService.syncMentions(savedEntity);
         log.info("Entity created: {}", savedEntity.getId());
+        publishChange(savedEntity, EntityChangedEvent.Action.CREATED);
 
         return EntityResponse.fromEntity(savedEntity);
     }
@@ -61,30 +103,89 @@ public class EntityService {
     }
 
     @Transactional(readOnly = true)
-    public PaginatedResponse<EntityResponse> getEntitiesByProjectPaginated(UUID projectId, int page, int size, String sort, String direction) {
+    public PaginatedResponse<EntityResponse> getEntitiesByProjectPaginated(UUID projectId, int page, int size, String sort, String direction, boolean summary) {
         log.debug("Fetching paginated entities for project {}", projectId);
 
         Pageable pageable = createPageable(page, size, sort, direction);
-        Page<WorldEntity> entityPage = entityRepository.findByProjectIdPaginated(projectId, pageable);
-        return PaginatedResponse.from(entityPage.map(EntityResponse::fromEntity));
+        Page<UUID> idPage = entityRepository.findIdsByProjectId(projectId, pageable);
+        return PaginatedResponse.from(loadPage(idPage, summary));
     }
 
     @Transactional(readOnly = true)
-    public PaginatedResponse<EntityResponse> getEntitiesByProjectAndTypePaginated(UUID projectId, EntityType type, int page, int size, String sort, String direction) {
+    public PaginatedResponse<EntityResponse> getEntitiesByProjectAndTypePaginated(UUID projectId, EntityType type, int page, int size, String sort, String direction, boolean summary) {
         log.debug("Fetching paginated entities of type {} for project {}", type, projectId);
 
         Pageable pageable = createPageable(page, size, sort, direction);
-        Page<WorldEntity> entityPage = entityRepository.findByProjectIdAndTypePaginated(projectId, type, pageable);
-        return PaginatedResponse.from(entityPage.map(EntityResponse::fromEntity));
+        Page<UUID> idPage = entityRepository.findIdsByProjectIdAndType(projectId, type, pageable);
+        return PaginatedResponse.from(loadPage(idPage, summary));
     }
 
     @Transactional(readOnly = true)
-    public PaginatedResponse<EntityResponse> getEntitiesByProjectAndTagPaginated(UUID projectId, UUID tagId, int page, int size, String sort, String direction) {
+    public PaginatedResponse<EntityResponse> getEntitiesByProjectAndTagPaginated(UUID projectId, UUID tagId, int page, int size, String sort, String direction, boolean summary) {
         log.debug("Fetching paginated entities with tag {} in project {}", tagId, projectId);
 
         Pageable pageable = createPageable(page, size, sort, direction);
-        Page<WorldEntity> entityPage = entityRepository.findByProjectIdAndTagIdPaginated(projectId, tagId, pageable);
-        return PaginatedResponse.from(entityPage.map(EntityResponse::fromEntity));
+        Page<UUID> idPage = entityRepository.findIdsByProjectIdAndTagId(projectId, tagId, pageable);
+        return PaginatedResponse.from(loadPage(idPage, summary));
+    }
+
+    /**
+     * Lists entities matching a combined type and tag filter; the filter and the page order are evaluated
+     * in memory by {@link EntityFilterService}, only the page itself is loaded.
+     */
+    @Transactional(readOnly = true)
+    public PaginatedResponse<EntityResponse> getEntitiesByFilterPaginated(UUID projectId, EntityFilter filter, int page, int size,
+                                                                          String sort, String direction, boolean summary) {
+        log.debug("Fetching paginated entities matching {} in project {}", filter, projectId);
+
+        Pageable pageable = createPageable(page, size, sort, direction);
+        Page<UUID> idPage = entityFilterService.findIds(projectId, filter, pageable);
+        return PaginatedResponse.from(loadPage(idPage, summary));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPaginatedResponse<EntityResponse> getEntitiesByProjectCursor(UUID projectId, EntityType type, UUID tagId,
+                                                                               String cursor, int size, String sort, String direction) {
+        log.debug("Fetching entities for project {} by cursor", projectId);
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new ValidationException("Size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        String sortField = switch (sort) {
+            case "title" -> "title";
+            case "createdAt" -> "createdAt";
+            case "updatedAt" -> "updatedAt";
+            default -> throw new ValidationException("Cursor pagination supports sorting by updatedAt, title or createdAt");
+        };
+        Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort order = Sort.by(sortDirection, sortField, "id");
+        KeysetScrollPosition position = cursor != null && !cursor.isBlank()
+                ? decodeCursor(cursor, sortField, sortDirection)
+                : ScrollPosition.keyset();
+
+        Window<WorldEntity> window;
+        if (tagId != null) {
+            window = entityRepository.findByProjectIdAndTags_Id(projectId, tagId, position, order, Limit.of(size));
+        } else if (type != null) {
+            window = entityRepository.findByProjectIdAndType(projectId, type, position, order, Limit.of(size));
+        } else {
+            window = entityRepository.findByProjectId(projectId, position, order, Limit.of(size));
+        }
+
+        List<WorldEntity> entities = window.getContent();
+        if (!entities.isEmpty()) {
+            // Fills the tag collections of the entities above instead of one lazy load per entity
+            entityRepository.findAllWithTagsByIdIn(entities.stream().map(WorldEntity::getId).toList());
+        }
+        String nextCursor = window.hasNext()
+                ? encodeCursor(sortField, sortDirection, entities.get(entities.size() - 1))
+                : null;
+
+        return new CursorPaginatedResponse<>(
+                entities.stream().map(EntityResponse::fromEntity).toList(),
+                entities.size(),
+                nextCursor,
+                !window.hasNext());
     }
 
     @Transactional(readOnly = true)
@@ -105,7 +206,7 @@ public class EntityService {
 
     @Transactional(readOnly = true)
     public WorldEntity getEntityByIdIncludeDeleted(UUID entityId) {
-        return entityRepository.findById(entityId)
+        return entityRepository.findByIdIncludingDeleted(entityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
     }
 
@@ -116,24 +217,237 @@ public class EntityService {
 
     @Transactional
     public EntityResponse updateEntity(UUID entityId, UpdateEntityRequest request) {
+        return updateEntity(entityId, request, null);
+    }
+
+    /**
+     * Replaces an entity's fields; when {@code expectedVersion} is given (from If-Match), the update only
+     * goes through if nobody else has changed the entity since that version was read.
+     */
+    @Transactional
+    public EntityResponse updateEntity(UUID entityId, UpdateEntityRequest request, Long expectedVersion) {
+        return applyUpdate(entityId, request, expectedVersion, true);
+    }
+
+    /**
+     * Brings an entity back to the title, type and content of an earlier revision. The restore is always
+     * recorded as a new revision, so the history after that revision is kept.
+     */
+    @Transactional
+    public EntityResponse restoreRevision(UUID entityId, int revisionNumber, Long expectedVersion) {
+        log.debug("Restoring entity {} to revision {}", entityId, revisionNumber);
+
+        EntityRevisionService.RevisionState state = entityRevisionService.getRevisionState(entityId, revisionNumber);
+        UpdateEntityRequest request = UpdateEntityRequest.builder()
+                .type(state.revision().getType())
+                .title(state.revision().getTitle())
+                .content(objectMapper.convertValue(state.content(), new TypeReference<Map<String, Object>>() {
+                }))
+                .build();
+        return applyUpdate(entityId, request, expectedVersion, false);
+    }
+
+    private EntityResponse applyUpdate(UUID entityId, UpdateEntityRequest request, Long expectedVersion, boolean coalesce) {
         log.debug("Updating entity {}", entityId);
 
         WorldEntity entity = getEntityById(entityId);
+        checkVersion(entity.getVersion(), expectedVersion);
+        entityRevisionService.ensureBaseline(entity);
 
         if (request.getType() != null) {
             entity.setType(request.getType());
         }
-        entity.setTitle(request.getTitle());
+        // Only internal callers (autosave) leave the title out; the API requires it
+        if (request.getTitle() != null) {
+            entity.setTitle(request.getTitle());
+        }
         if (request.getContent() != null) {
             entity.setContent(request.getContent());
         }
 
-        WorldEntity savedEntity = entityRepository.save(entity);
+        // Flushed here so the response carries the incremented version
+        WorldEntity savedEntity = entityRepository.saveAndFlush(entity);
+        entityRevisionService.recordRevision(savedEntity, coalesce);
+        if (request.getContent() != null) {
+            entityMentionService.syncMentions(savedEntity);
+        }
         log.info("Entity updated: {}", savedEntity.getId());
+        publishChange(savedEntity, EntityChangedEvent.Action.UPDATED);
 
         return EntityResponse.fromEntity(savedEntity);
     }
 
+    /**
+     * Applies create, update and soft-delete operations in one transaction. Invalid operations are
+     * reported per item and skipped; inserts and updates are flushed together using JDBC batching.
+     */
+    @Transactional
+    public BulkEntityResponse applyBulkOperations(UUID projectId, BulkEntityRequest request) {
+        List<BulkEntityOperation> operations = request.getOperations();
+        log.debug("Applying {} bulk entity operations in project {}", operations.size(), projectId);
+
+        Set<UUID> targetIds = operations.stream()
+                .filter(operation -> operation != null && operation.getAction() != BulkEntityOperation.Action.CREATE)
+                .map(BulkEntityOperation::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, WorldEntity> targets = new HashMap<>();
+        if (!targetIds.isEmpty()) {
+            for (WorldEntity entity : entityRepository.findByProjectIdAndIdIn(projectId, targetIds)) {
+                targets.put(entity.getId(), entity);
+            }
+        }
+
+        List<BulkEntityResult> results = new ArrayList<>(operations.size());
+        List<WorldEntity> contentChanged = new ArrayList<>();
+        Map<UUID, WorldEntity> updated = new LinkedHashMap<>();
+        int failed = 0;
+        for (int index = 0; index < operations.size(); index++) {
+            BulkEntityOperation operation = operations.get(index);
+            BulkEntityResult.BulkEntityResultBuilder result = BulkEntityResult.builder()
+                    .index(index)
+                    .action(operation != null ? operation.getAction() : null);
+            try {
+                WorldEntity entity = applyBulkOperation(projectId, operation, targets);
+                if (operation.getAction() != BulkEntityOperation.Action.DELETE
+                        && (operation.getAction() == BulkEntityOperation.Action.CREATE || operation.getContent() != null)) {
+                    contentChanged.add(entity);
+                }
+                if (operation.getAction() == BulkEntityOperation.Action.UPDATE) {
+                    updated.put(entity.getId(), entity);
+                }
+                results.add(result.id(entity.getId()).status(BulkEntityResult.Status.OK).build());
+            } catch (ValidationException | ResourceNotFoundException e) {
+                failed++;
+                results.add(result
+                        .id(operation != null ? operation.getId() : null)
+                        .status(BulkEntityResult.Status.ERROR)
+                        .error(e.getMessage())
+                        .build());
+            }
+        }
+
+        // Revisions are recorded once the updates are flushed and their rows locked
+        if (!updated.isEmpty()) {
+            entityRepository.flush();
+            for (WorldEntity entity : updated.values()) {
+                entityRevisionService.recordRevision(entity, true);
+            }
+        }
+        entityMentionService.syncMentions(projectId, contentChanged);
+
+        log.info("Bulk operations applied in project {}: {} succeeded, {} failed",
+                projectId, operations.size() - failed, failed);
+
+        return BulkEntityResponse.builder()
+                .succeeded(operations.size() - failed)
+                .failed(failed)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Applies an RFC 7396 merge patch to an entity. {@code title} and {@code type} are replaced when present;
+     * {@code content} is merged by the database, so the stored document is never re-serialized
+     * (except when it is stored compressed, see {@link com.lorely.content.ContentStorageListener}).
+     * The patched entity is read back once to record a revision, coalesced like autosaves.
+     * The statement is guarded by the entity version, which must match {@code expectedVersion} when given.
+     * Returns the entity without content.
+     */
+    @Transactional
+    public EntityResponse patchEntity(UUID entityId, Map<String, Object> patch, Long expectedVersion) {
+        log.debug("Patching entity {} ({} members)", entityId, patch.size());
+
+        for (String member : patch.keySet()) {
+            if (!PATCHABLE_MEMBERS.contains(member)) {
+                throw new ValidationException("Member '" + member + "' cannot be patched");
+            }
+        }
+        String title = null;
+        if (patch.containsKey("title")) {
+            if (!(patch.get("title") instanceof String value) || value.isBlank() || value.length() > 255) {
+                throw new ValidationException("Title must be between 1 and 255 characters");
+            }
+            title = value;
+        }
+        EntityType type = null;
+        if (patch.containsKey("type")) {
+            try {
+                type = EntityType.valueOf(String.valueOf(patch.get("type")));
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unknown entity type: " + patch.get("type"));
+            }
+        }
+        String contentPatch = null;
+        if (patch.containsKey("content")) {
+            if (!(patch.get("content") instanceof Map)) {
+                throw new ValidationException("Content patch must be a JSON object");
+            }
+            try {
+                contentPatch = objectMapper.writeValueAsString(patch.get("content"));
+            } catch (JsonProcessingException e) {
+                throw new ValidationException("Content patch is not valid JSON");
+            }
+        }
+
+        UUID projectId = getEntityProjectId(entityId);
+        long version = getEntityVersion(entityId);
+        checkVersion(version, expectedVersion);
+        if (title == null && type == null && contentPatch == null) {
+            return loadSummaries(List.of(entityId)).get(entityId);
+        }
+
+        if (contentPatch != null && entityRepository.existsByIdAndCompressedContentIsNotNull(entityId)) {
+            // Compressed content cannot be merged in SQL; merge in memory and let the entity be re-encoded
+            WorldEntity entity = getEntityById(entityId);
+            checkVersion(entity.getVersion(), version);
+            entityRevisionService.ensureBaseline(entity);
+            if (title != null) {
+                entity.setTitle(title);
+            }
+            if (type != null) {
+                entity.setType(type);
+            }
+            entity.setContent(mergePatch(entity.getContent(), castToMap(patch.get("content"))));
+            entityRepository.saveAndFlush(entity);
+        } else {
+            // The pre-edit state is only loaded for an entity's first tracked change
+            if (!entityRevisionService.hasRevisions(entityId)) {
+                entityRevisionService.ensureBaseline(getEntityById(entityId));
+            }
+            if (entityRepository.applyPatch(entityId, version,
+                    title != null ? title : "",
+                    type != null ? type.name() : "",
+                    contentPatch != null ? contentPatch : "",
+                    Instant.now()) == 0) {
+                throw new PreconditionFailedException("Entity was modified by another request");
+            }
+        }
+        // Re-read after the statement cleared the persistence context; the row stays locked by the update
+        WorldEntity patched = getEntityById(entityId);
+        entityRevisionService.recordRevision(patched, true);
+        if (contentPatch != null) {
+            entityMentionService.syncMentions(patched);
+        }
+
+        eventPublisher.publishEvent(new EntityChangedEvent(projectId, entityId, EntityChangedEvent.Action.UPDATED));
+        log.info("Entity patched: {}", entityId);
+
+        return loadSummaries(List.of(entityId)).get(entityId);
+    }
+
+    @Transactional(readOnly = true)
+    public long getEntityVersion(UUID entityId) {
+        return entityRepository.findVersionById(entityId)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public UUID getEntityProjectId(UUID entityId) {
+        return entityRepository.findProjectIdById(entityId)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+    }
+
     @Transactional
     public void deleteEntity(UUID entityId) {
         log.debug("Soft-deleting entity {}", entityId);
@@ -141,6 +455,7 @@ public class EntityService {
         WorldEntity entity = getEntityById(entityId);
         entity.setDeletedAt(Instant.now());
         entityRepository.save(entity);
+        publishChange(entity, EntityChangedEvent.Action.DELETED);
 
         log.info("Entity soft-deleted: {}", entityId);
     }
@@ -149,9 +464,10 @@ public class EntityService {
     public void permanentlyDeleteEntity(UUID entityId) {
         log.debug("Permanently deleting entity {}", entityId);
 
-        WorldEntity entity = entityRepository.findById(entityId)
+        WorldEntity entity = entityRepository.findByIdIncludingDeleted(entityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
         entityRepository.delete(entity);
+        publishChange(entity, EntityChangedEvent.Action.DELETED);
 
         log.info("Entity permanently deleted: {}", entityId);
     }
@@ -160,45 +476,38 @@ public class EntityService {
     public EntityResponse restoreEntity(UUID entityId) {
         log.debug("Restoring entity {}", entityId);
 
-        WorldEntity entity = entityRepository.findById(entityId)
+        WorldEntity entity = entityRepository.findByIdIncludingDeleted(entityId)
                 .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
         entity.setDeletedAt(null);
         WorldEntity savedEntity = entityRepository.save(entity);
+        publishChange(savedEntity, EntityChangedEvent.Action.RESTORED);
 
         log.info("Entity restored: {}", entityId);
         return EntityResponse.fromEntity(savedEntity);
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: search engines run each query in its own transaction, so a failed one can fall back
     public List<EntityResponse> searchEntities(UUID projectId, String query) {
         log.debug("Searching entities in project {} for '{}'", projectId, query);
 
-        return entityRepository.searchByTitle(projectId, query)
-                .stream()
-                .map(EntityResponse::fromEntity)
-                .collect(Collectors.toList());
+        return loadPage(searchEngine.search(projectId, query, true, Pageable.unpaged()).ids(), false).getContent();
     }
 
-    @Transactional(readOnly = true)
-    public PaginatedResponse<EntityResponse> searchEntitiesPaginated(UUID projectId, String query, EntityType type, int page, int size) {
+    /**
+     * Searches titles and content with the configured {@link SearchEngine}, best match first. Results carry the
+     * engine's highlighted excerpt of the matching text, where it has one.
+     */
+    public PaginatedResponse<EntityResponse> searchEntitiesPaginated(UUID projectId, String query, EntityType type,
+                                                                     boolean similarity, int page, int size,
+                                                                     boolean summary) {
         log.debug("Searching entities in project {} for '{}' (paginated)", projectId, query);
 
-        Pageable pageable = PageRequest.of(page, size);
-
-        // Use ILIKE fallback for short queries, full-text for longer ones
-        Page<WorldEntity> resultPage;
-        if (query.length() < 3) {
-            resultPage = entityRepository.searchByTitlePaginated(projectId, query, pageable);
-        } else {
-            try {
-                resultPage = entityRepository.fullTextSearch(projectId, query.trim(), pageable);
-            } catch (Exception e) {
-                log.warn("Full-text search failed, falling back to ILIKE: {}", e.getMessage());
-                resultPage = entityRepository.searchByTitlePaginated(projectId, query, pageable);
-            }
+        SearchEngine.Result result = searchEngine.search(projectId, query, similarity, PageRequest.of(page, size));
+        Page<EntityResponse> results = loadPage(result.ids(), summary);
+        for (EntityResponse response : results.getContent()) {
+            response.setHighlight(result.highlights().get(response.getId()));
         }
-
-        return PaginatedResponse.from(resultPage.map(EntityResponse::fromEntity));
+        return PaginatedResponse.from(results);
     }
 
     @Transactional(readOnly = true)
@@ -221,6 +530,7 @@ public class EntityService {
 
         entity.getTags().add(tag);
         WorldEntity savedEntity = entityRepository.save(entity);
+        publishChange(savedEntity, EntityChangedEvent.Action.UPDATED);
 
         log.info("Tag {} added to entity {}", tagId, entityId);
 
@@ -234,12 +544,165 @@ public class EntityService {
         WorldEntity entity = getEntityById(entityId);
         entity.getTags().removeIf(t -> t.getId().equals(tagId));
         WorldEntity savedEntity = entityRepository.save(entity);
+        publishChange(savedEntity, EntityChangedEvent.Action.UPDATED);
 
         log.info("Tag {} removed from entity {}", tagId, entityId);
 
         return EntityResponse.fromEntity(savedEntity);
     }
 
+    // Validates before touching the entity so a rejected operation leaves no dirty state behind
+    private WorldEntity applyBulkOperation(UUID projectId, BulkEntityOperation operation, Map<UUID, WorldEntity> targets) {
+        if (operation == null || operation.getAction() == null) {
+            throw new ValidationException("Action is required");
+        }
+        if (operation.getTitle() != null && (operation.getTitle().isBlank() || operation.getTitle().length() > 255)) {
+            throw new ValidationException("Title must be between 1 and 255 characters");
+        }
+
+        if (operation.getAction() == BulkEntityOperation.Action.CREATE) {
+            if (operation.getType() == null || operation.getTitle() == null) {
+                throw new ValidationException("Type and title are required to create an entity");
+            }
+            WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                    .projectId(projectId)
+                    .type(operation.getType())
+                    .title(operation.getTitle())
+                    .content(operation.getContent() != null ? operation.getContent() : new HashMap<>())
+                    .build());
+            publishChange(entity, EntityChangedEvent.Action.CREATED);
+            return entity;
+        }
+
+        if (operation.getId() == null) {
+            throw new ValidationException("Entity id is required");
+        }
+        WorldEntity entity = targets.get(operation.getId());
+        if (entity == null || entity.getDeletedAt() != null) {
+            throw new ResourceNotFoundException("Entity not found");
+        }
+
+        if (operation.getAction() == BulkEntityOperation.Action.DELETE) {
+            entity.setDeletedAt(Instant.now());
+            publishChange(entity, EntityChangedEvent.Action.DELETED);
+        } else {
+            entityRevisionService.ensureBaseline(entity);
+            if (operation.getType() != null) {
+                entity.setType(operation.getType());
+            }
+            if (operation.getTitle() != null) {
+                entity.setTitle(operation.getTitle());
+            }
+            if (operation.getContent() != null) {
+                entity.setContent(operation.getContent());
+            }
+            publishChange(entity, EntityChangedEvent.Action.UPDATED);
+        }
+        return entity;
+    }
+
+    // RFC 7396: null removes a member, objects merge recursively, anything else replaces
+    private Map<String, Object> mergePatch(Map<String, Object> target, Map<String, Object> patch) {
+        Map<String, Object> result = target != null ? new LinkedHashMap<>(target) : new LinkedHashMap<>();
+        for (Map.Entry<String, Object> member : patch.entrySet()) {
+            if (member.getValue() == null) {
+                result.remove(member.getKey());
+            } else if (member.getValue() instanceof Map) {
+                Object current = result.get(member.getKey());
+                result.put(member.getKey(), mergePatch(current instanceof Map ? castToMap(current) : null,
+                        castToMap(member.getValue())));
+            } else {
+                result.put(member.getKey(), member.getValue());
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> castToMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    private void checkVersion(long currentVersion, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new PreconditionFailedException("Entity has been modified (current version " + currentVersion + ")");
+        }
+    }
+
+    private void publishChange(WorldEntity entity, EntityChangedEvent.Action action) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity.getProjectId(), entity.getId(), action));
+    }
+
+    // Cursor format: base64url("sortField|direction|id|sortValue"); the value goes last since titles may contain '|'
+    private String encodeCursor(String sortField, Sort.Direction direction, WorldEntity last) {
+        String value = switch (sortField) {
+            case "title" -> last.getTitle();
+            case "createdAt" -> last.getCreatedAt().toString();
+            default -> last.getUpdatedAt().toString();
+        };
+        String raw = sortField + "|" + direction + "|" + last.getId() + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private KeysetScrollPosition decodeCursor(String cursor, String sortField, Sort.Direction direction) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4 || !parts[0].equals(sortField) || !parts[1].equals(direction.name())) {
+                throw new ValidationException("Cursor does not match the requested sort order");
+            }
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortField, sortField.equals("title") ? parts[3] : Instant.parse(parts[3]));
+            keys.put("id", UUID.fromString(parts[2]));
+            return ScrollPosition.forward(keys);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    // Second phase of paginated listings: hydrate just the page's ids, keeping the page order
+    private Page<EntityResponse> loadPage(Page<UUID> idPage, boolean summary) {
+        Map<UUID, EntityResponse> responses = new HashMap<>();
+        if (idPage.hasContent() && summary) {
+            responses = loadSummaries(idPage.getContent());
+        } else if (idPage.hasContent()) {
+            for (WorldEntity entity : entityRepository.findAllWithTagsByIdIn(idPage.getContent())) {
+                responses.put(entity.getId(), EntityResponse.fromEntity(entity));
+            }
+        }
+        List<EntityResponse> content = idPage.getContent().stream()
+                .map(responses::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    // Responses without content, built from narrow projections that never select the content column
+    private Map<UUID, EntityResponse> loadSummaries(List<UUID> ids) {
+        Map<UUID, List<TagResponse>> tags = new HashMap<>();
+        for (EntityTagDetailView entityTag : entityRepository.findTagsByEntityIdIn(ids)) {
+            tags.computeIfAbsent(entityTag.getEntityId(), id -> new ArrayList<>()).add(TagResponse.builder()
+                    .id(entityTag.getTagId())
+                    .projectId(entityTag.getProjectId())
+                    .name(entityTag.getName())
+                    .color(entityTag.getColor())
+                    .build());
+        }
+        Map<UUID, EntityResponse> responses = new HashMap<>();
+        for (EntitySummaryView view : entityRepository.findSummariesByIdIn(ids)) {
+            responses.put(view.getId(), EntityResponse.builder()
+                    .id(view.getId())
+                    .projectId(view.getProjectId())
+                    .type(view.getType())
+                    .title(view.getTitle())
+                    .tags(tags.getOrDefault(view.getId(), List.of()))
+                    .createdAt(view.getCreatedAt())
+                    .updatedAt(view.getUpdatedAt())
+                    .version(view.getVersion())
+                    .build());
+        }
+        return responses;
+    }
+
     private Pageable createPageable(int page, int size, String sort, String direction) {
         Sort.Direction sortDirection = "asc".equalsIgnoreCase(direction) ? Sort.Direction.ASC : Sort.Direction.DESC;
         String sortField = switch (sort) {
@@ -248,6 +711,7 @@ public class EntityService {
             case "createdAt" -> "createdAt";
             default -> "updatedAt";
         };
-        return PageRequest.of(page, size, Sort.by(sortDirection, sortField));
+        // The id tiebreak keeps rows with equal sort values from repeating or vanishing across pages
+        return PageRequest.of(page, size, Sort.by(sortDirection, sortField, "id"));
     }
 }
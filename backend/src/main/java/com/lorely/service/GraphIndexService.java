@@ -0,0 +1,227 @@
+package com.lorely.service;
+
+import com.lorely.event.EdgeChangedEvent;
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.graph.ProjectGraph;
+import com.lorely.model.EdgeKind;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.LinkRepository;
+import com.lorely.repository.RelationshipRepository;
+import com.lorely.repository.projection.EntityNodeView;
+import com.lorely.repository.projection.LinkEdgeView;
+import com.lorely.repository.projection.RelationshipEdgeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-project cache of {@link ProjectGraph} adjacency snapshots.
+ * <p>
+ * Graphs are loaded lazily from narrow projections, patched in memory after relationship and link
+ * writes commit (once per transaction, however many writes it made), and evicted least-recently-used
+ * once the estimated footprint exceeds the budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GraphIndexService {
+
+    private final EntityRepository entityRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final LinkRepository linkRepository;
+
+    @Value("${app.graph.cache-max-bytes:67108864}")
+    private long maxBytes;
+
+    private final LinkedHashMap<UUID, ProjectGraph> graphs = new LinkedHashMap<>(16, 0.75f, true);
+    // Bumped on every change so a load that raced with a write is not cached
+    private final Map<UUID, Long> generations = new HashMap<>();
+    private long cachedBytes;
+
+    public ProjectGraph getGraph(UUID projectId) {
+        long generation;
+        synchronized (this) {
+            ProjectGraph cached = graphs.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = generations.getOrDefault(projectId, 0L);
+        }
+
+        ProjectGraph loaded = load(projectId);
+
+        synchronized (this) {
+            if (generation == generations.getOrDefault(projectId, 0L) && !graphs.containsKey(projectId)) {
+                put(projectId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(UUID projectId) {
+        generations.merge(projectId, 1L, Long::sum);
+        ProjectGraph removed = graphs.remove(projectId);
+        if (removed != null) {
+            cachedBytes -= removed.estimatedBytes();
+        }
+    }
+
+    // Both listeners run inside the publishing transaction, unlike the rest, to batch its changes into one rebuild
+    @EventListener
+    public void onEdgeChanged(EdgeChangedEvent event) {
+        PendingChanges changes = pendingChanges(event.projectId());
+        // A later write of the same edge within the transaction replaces the earlier one
+        changes.edges.put(event.edgeId(), event.action() == EdgeChangedEvent.Action.DELETED ? null : event);
+        applyIfNoTransaction(event.projectId(), changes);
+    }
+
+    @EventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        switch (event.action()) {
+            case CREATED -> {
+                PendingChanges changes = pendingChanges(event.projectId());
+                changes.nodes.add(event.entityId());
+                applyIfNoTransaction(event.projectId(), changes);
+            }
+            // Deleting or restoring hides or reveals every edge touching the entity; reload lazily
+            case DELETED, RESTORED -> {
+                PendingChanges changes = pendingChanges(event.projectId());
+                changes.reload = true;
+                applyIfNoTransaction(event.projectId(), changes);
+            }
+            case UPDATED -> {
+                // Titles and content are not part of the adjacency structure
+            }
+        }
+    }
+
+    // Changes are collected per transaction and applied once after it commits, so a bulk write of thousands of
+    // entities rebuilds each touched graph once rather than once per entity
+    private PendingChanges pendingChanges(UUID projectId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingChanges();
+        }
+        @SuppressWarnings("unchecked")
+        Map<UUID, PendingChanges> pending = (Map<UUID, PendingChanges>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<UUID, PendingChanges> transactionChanges = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionChanges);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    transactionChanges.forEach(GraphIndexService.this::apply);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(GraphIndexService.this);
+                }
+            });
+            pending = transactionChanges;
+        }
+        return pending.computeIfAbsent(projectId, id -> new PendingChanges());
+    }
+
+    private void applyIfNoTransaction(UUID projectId, PendingChanges changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(projectId, changes);
+        }
+    }
+
+    // Rebuilds outside the monitor so other projects' reads are not blocked; a change racing this one reloads
+    private void apply(UUID projectId, PendingChanges changes) {
+        ProjectGraph current;
+        long generation;
+        synchronized (this) {
+            if (changes.reload) {
+                invalidate(projectId);
+                return;
+            }
+            generation = generations.merge(projectId, 1L, Long::sum);
+            current = graphs.get(projectId);
+            if (current == null) {
+                return;
+            }
+        }
+
+        ProjectGraph patched = changes.applyTo(current);
+
+        synchronized (this) {
+            if (generation != generations.getOrDefault(projectId, 0L) || graphs.get(projectId) != current) {
+                invalidate(projectId);
+                return;
+            }
+            graphs.remove(projectId);
+            cachedBytes -= current.estimatedBytes();
+            put(projectId, patched);
+        }
+    }
+
+    private void put(UUID projectId, ProjectGraph graph) {
+        graphs.put(projectId, graph);
+        cachedBytes += graph.estimatedBytes();
+
+        Iterator<Map.Entry<UUID, ProjectGraph>> eldest = graphs.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<UUID, ProjectGraph> entry = eldest.next();
+            if (entry.getKey().equals(projectId)) {
+                continue;
+            }
+            cachedBytes -= entry.getValue().estimatedBytes();
+            eldest.remove();
+            log.debug("Evicted graph index for project {}", entry.getKey());
+        }
+    }
+
+    private ProjectGraph load(UUID projectId) {
+        long started = System.nanoTime();
+        ProjectGraph.Builder builder = ProjectGraph.builder();
+        for (EntityNodeView node : entityRepository.findNodesByProjectId(projectId)) {
+            builder.addNode(node.getId());
+        }
+        for (RelationshipEdgeView relationship : relationshipRepository.findEdgesByProjectId(projectId)) {
+            builder.addEdge(relationship.getId(), relationship.getFromEntityId(), relationship.getToEntityId(),
+                    relationship.getRelationType());
+        }
+        for (LinkEdgeView link : linkRepository.findEdgesByProjectId(projectId)) {
+            builder.addLink(link.getId(), link.getFromEntityId(), link.getToEntityId());
+        }
+        ProjectGraph graph = builder.build();
+
+        log.debug("Loaded graph index for project {}: {} nodes, {} edges in {} ms",
+                projectId, graph.nodeCount(), graph.edgeCount(), (System.nanoTime() - started) / 1_000_000);
+        return graph;
+    }
+
+    private static final class PendingChanges {
+        private final Set<UUID> nodes = new LinkedHashSet<>();
+        // Null for edges deleted in the transaction
+        private final Map<UUID, EdgeChangedEvent> edges = new LinkedHashMap<>();
+        private boolean reload;
+
+        private ProjectGraph applyTo(ProjectGraph graph) {
+            ProjectGraph.Builder builder = graph.toBuilder(edges.keySet());
+            nodes.forEach(builder::addNode);
+            for (EdgeChangedEvent edge : edges.values()) {
+                if (edge != null && edge.kind() == EdgeKind.LINK) {
+                    builder.addLink(edge.edgeId(), edge.fromEntityId(), edge.toEntityId());
+                } else if (edge != null) {
+                    builder.addEdge(edge.edgeId(), edge.fromEntityId(), edge.toEntityId(), edge.relationType());
+                }
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.lorely.service;
+
+import com.lorely.event.EdgeChangedEvent;
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.graph.ForceLayout;
+import com.lorely.graph.GraphTraversal;
+import com.lorely.graph.ProjectGraph;
+import com.lorely.model.EntityLayout;
+import com.lorely.repository.EntityLayoutRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes and persists graph layout coordinates so clients can draw a project graph without
+ * running a force simulation themselves.
+ * <p>
+ * Reads only serve stored positions. Entities without one yet get a cheap seeded spot near their placed
+ * neighbours and are queued, like entities touched by relationship or link writes, for the background job.
+ * The job lays out a project's whole graph when nothing is placed yet; otherwise it only settles the queued
+ * entities' one-hop neighbourhood, with every other node pinned in place.
+ */
+@Service
+@Slf4j
+public class GraphLayoutService {
+
+    static final int FULL_ITERATIONS = 300;
+    static final int INCREMENTAL_ITERATIONS = 60;
+
+    private final EntityLayoutRepository entityLayoutRepository;
+    private final GraphIndexService graphIndexService;
+    private final TransactionTemplate writeTransaction;
+
+    private final Map<UUID, Set<UUID>> dirtyEntities = new ConcurrentHashMap<>();
+
+    public GraphLayoutService(EntityLayoutRepository entityLayoutRepository,
+                              GraphIndexService graphIndexService,
+                              PlatformTransactionManager transactionManager) {
+        this.entityLayoutRepository = entityLayoutRepository;
+        this.graphIndexService = graphIndexService;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns {x, y} per entity: the stored position, or a provisional one for entities the background job
+     * has not placed yet.
+     */
+    public Map<UUID, double[]> getPositions(UUID projectId) {
+        ProjectGraph graph = graphIndexService.getGraph(projectId);
+        Positions positions = loadPositions(projectId, graph);
+
+        int n = graph.nodeCount();
+        List<UUID> unplaced = new ArrayList<>();
+        for (int node = 0; node < n; node++) {
+            if (!positions.placed[node]) {
+                unplaced.add(graph.nodeId(node));
+            }
+        }
+        if (!unplaced.isEmpty()) {
+            markDirty(projectId, unplaced);
+            double[] x = positions.x.clone();
+            double[] y = positions.y.clone();
+            boolean[] placed = positions.placed.clone();
+            for (int node = 0; node < n; node++) {
+                if (!positions.placed[node]) {
+                    // Seeded by entity so the spot stays put until the job replaces it
+                    UUID entityId = graph.nodeId(node);
+                    SplittableRandom random = new SplittableRandom(
+                            projectId.getLeastSignificantBits() ^ entityId.getLeastSignificantBits());
+                    placeNearNeighbors(graph, node, x, y, placed, random);
+                }
+            }
+            positions = new Positions(x, y, placed);
+        }
+
+        Map<UUID, double[]> result = new HashMap<>(n * 2);
+        for (int node = 0; node < n; node++) {
+            result.put(graph.nodeId(node), new double[]{positions.x[node], positions.y[node]});
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onEdgeChanged(EdgeChangedEvent event) {
+        markDirty(event.projectId(), List.of(event.fromEntityId(), event.toEntityId()));
+    }
+
+    @TransactionalEventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        if (event.action() == EntityChangedEvent.Action.CREATED || event.action() == EntityChangedEvent.Action.RESTORED) {
+            markDirty(event.projectId(), List.of(event.entityId()));
+        }
+    }
+
+    // The only place layouts are computed and written, so requests never run the simulation
+    @Scheduled(fixedDelayString = "${app.graph.layout.settle-interval-ms:5000}")
+    public void settleDirtyProjects() {
+        for (UUID projectId : new ArrayList<>(dirtyEntities.keySet())) {
+            Set<UUID> dirty = dirtyEntities.remove(projectId);
+            if (dirty == null) {
+                continue;
+            }
+            try {
+                settle(projectId, dirty);
+            } catch (RuntimeException e) {
+                // Retried on the next run
+                markDirty(projectId, dirty);
+                log.warn("Failed to settle graph layout for project {}", projectId, e);
+            }
+        }
+    }
+
+    private void markDirty(UUID projectId, Collection<UUID> entityIds) {
+        dirtyEntities.computeIfAbsent(projectId, id -> ConcurrentHashMap.newKeySet()).addAll(entityIds);
+    }
+
+    private void settle(UUID projectId, Set<UUID> dirty) {
+        ProjectGraph graph = graphIndexService.getGraph(projectId);
+        Map<UUID, EntityLayout> stored = new HashMap<>();
+        for (EntityLayout layout : entityLayoutRepository.findByProjectId(projectId)) {
+            stored.put(layout.getEntityId(), layout);
+        }
+        Positions positions = positionsOf(graph, stored);
+        double[] x = positions.x;
+        double[] y = positions.y;
+        boolean[] placed = positions.placed;
+
+        int n = graph.nodeCount();
+        int placedCount = 0;
+        for (boolean isPlaced : placed) {
+            placedCount += isPlaced ? 1 : 0;
+        }
+
+        // Computed outside any transaction, so no connection is held while the simulation runs
+        boolean[] moved = new boolean[n];
+        if (placedCount == 0 && n > 0) {
+            long started = System.nanoTime();
+            SplittableRandom random = new SplittableRandom(projectId.getLeastSignificantBits());
+            double radius = ForceLayout.initialRadius(n);
+            for (int node = 0; node < n; node++) {
+                x[node] = (random.nextDouble() * 2 - 1) * radius;
+                y[node] = (random.nextDouble() * 2 - 1) * radius;
+                moved[node] = true;
+            }
+            ForceLayout.run(graph, x, y, null, FULL_ITERATIONS, radius / 4);
+            log.info("Computed graph layout for project {}: {} nodes in {} ms",
+                    projectId, n, (System.nanoTime() - started) / 1_000_000);
+        } else {
+            settleNeighborhoods(projectId, graph, x, y, placed, dirty, moved);
+        }
+
+        List<EntityLayout> changes = new ArrayList<>();
+        for (int node = 0; node < n; node++) {
+            if (!moved[node]) {
+                continue;
+            }
+            EntityLayout layout = stored.get(graph.nodeId(node));
+            if (layout == null) {
+                layout = EntityLayout.builder()
+                        .entityId(graph.nodeId(node))
+                        .projectId(projectId)
+                        .build();
+            }
+            layout.setX(x[node]);
+            layout.setY(y[node]);
+            changes.add(layout);
+        }
+        if (!changes.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> entityLayoutRepository.saveAll(changes));
+        }
+    }
+
+    private Positions loadPositions(UUID projectId, ProjectGraph graph) {
+        Map<UUID, EntityLayout> stored = new HashMap<>();
+        for (EntityLayout layout : entityLayoutRepository.findByProjectId(projectId)) {
+            stored.put(layout.getEntityId(), layout);
+        }
+        return positionsOf(graph, stored);
+    }
+
+    private static Positions positionsOf(ProjectGraph graph, Map<UUID, EntityLayout> stored) {
+        int n = graph.nodeCount();
+        Positions positions = new Positions(new double[n], new double[n], new boolean[n]);
+        for (int node = 0; node < n; node++) {
+            EntityLayout layout = stored.get(graph.nodeId(node));
+            if (layout != null) {
+                positions.x[node] = layout.getX();
+                positions.y[node] = layout.getY();
+                positions.placed[node] = true;
+            }
+        }
+        return positions;
+    }
+
+    // Pins everything except unplaced and dirty nodes plus their direct neighbours, then runs a short, cool simulation
+    private void settleNeighborhoods(UUID projectId, ProjectGraph graph, double[] x, double[] y,
+                                     boolean[] placed, Set<UUID> dirty, boolean[] moved) {
+        int n = graph.nodeCount();
+        List<Integer> seeds = new ArrayList<>();
+        for (int node = 0; node < n; node++) {
+            if (!placed[node] || dirty != null && dirty.contains(graph.nodeId(node))) {
+                seeds.add(node);
+            }
+        }
+        if (seeds.isEmpty()) {
+            return;
+        }
+
+        SplittableRandom random = new SplittableRandom(projectId.getLeastSignificantBits() ^ seeds.size());
+        for (int seed : seeds) {
+            if (!placed[seed]) {
+                placeNearNeighbors(graph, seed, x, y, placed, random);
+            }
+        }
+
+        boolean[] pinned = new boolean[n];
+        Arrays.fill(pinned, true);
+        for (int seed : seeds) {
+            for (int node : GraphTraversal.neighborhood(graph, seed, 1, null, n).nodes()) {
+                pinned[node] = false;
+                moved[node] = true;
+            }
+        }
+        ForceLayout.run(graph, x, y, pinned, INCREMENTAL_ITERATIONS, ForceLayout.EDGE_LENGTH);
+        log.debug("Settled graph layout for project {} around {} changed entities", projectId, seeds.size());
+    }
+
+    // New nodes start at the centroid of their placed neighbours, or at a random spot in the drawing
+    private void placeNearNeighbors(ProjectGraph graph, int node, double[] x, double[] y,
+                                    boolean[] placed, SplittableRandom random) {
+        double sumX = 0;
+        double sumY = 0;
+        int count = 0;
+        for (int neighbor : GraphTraversal.neighborhood(graph, node, 1, null, graph.nodeCount()).nodes()) {
+            if (neighbor != node && placed[neighbor]) {
+                sumX += x[neighbor];
+                sumY += y[neighbor];
+                count++;
+            }
+        }
+        double jitter = ForceLayout.EDGE_LENGTH;
+        if (count == 0) {
+            jitter = ForceLayout.initialRadius(graph.nodeCount());
+        }
+        x[node] = (count > 0 ? sumX / count : 0) + (random.nextDouble() * 2 - 1) * jitter;
+        y[node] = (count > 0 ? sumY / count : 0) + (random.nextDouble() * 2 - 1) * jitter;
+        placed[node] = true;
+    }
+
+    private record Positions(double[] x, double[] y, boolean[] placed) {
+    }
+}
@@ -0,0 +1,230 @@
+package com.lorely.service;
+
+import com.lorely.dto.response.GraphEdgeResponse;
+import com.lorely.dto.response.GraphNodeResponse;
+import com.lorely.dto.response.GraphPathResponse;
+import com.lorely.dto.response.GraphResponse;
+import com.lorely.dto.response.NeighborhoodResponse;
+import com.lorely.dto.response.ShortestPathResponse;
+import com.lorely.exception.ResourceNotFoundException;
+import com.lorely.exception.ValidationException;
+import com.lorely.graph.GraphTraversal;
+import com.lorely.graph.ProjectGraph;
+import com.lorely.model.EdgeKind;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.LinkRepository;
+import com.lorely.repository.RelationshipRepository;
+import com.lorely.repository.projection.EntityNodeView;
+import com.lorely.repository.projection.EntityTagView;
+import com.lorely.repository.projection.LinkEdgeView;
+import com.lorely.repository.projection.RelationshipEdgeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GraphService {
+
+    public static final int MAX_NEIGHBORHOOD_DEPTH = 5;
+    public static final int MAX_NEIGHBORHOOD_NODES = 1000;
+    public static final int MAX_PATH_DEPTH = 10;
+    public static final int MAX_PATHS = 50;
+
+    private final EntityRepository entityRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final LinkRepository linkRepository;
+    private final GraphIndexService graphIndexService;
+    private final GraphLayoutService graphLayoutService;
+
+    @Transactional(readOnly = true)
+    public GraphResponse getProjectGraph(UUID projectId) {
+        log.debug("Building graph snapshot for project {}", projectId);
+
+        Map<UUID, List<UUID>> tagIdsByEntity = new HashMap<>();
+        for (EntityTagView entityTag : entityRepository.findTagIdsByProjectId(projectId)) {
+            tagIdsByEntity.computeIfAbsent(entityTag.getEntityId(), id -> new ArrayList<>()).add(entityTag.getTagId());
+        }
+
+        Map<UUID, double[]> positions = graphLayoutService.getPositions(projectId);
+
+        List<EntityNodeView> nodeViews = entityRepository.findNodesByProjectId(projectId);
+        Map<UUID, GraphNodeResponse> nodes = new LinkedHashMap<>(nodeViews.size() * 2);
+        for (EntityNodeView node : nodeViews) {
+            double[] position = positions.get(node.getId());
+            nodes.put(node.getId(), GraphNodeResponse.builder()
+                    .id(node.getId())
+                    .type(node.getType())
+                    .title(node.getTitle())
+                    .tagIds(tagIdsByEntity.getOrDefault(node.getId(), List.of()))
+                    .x(position != null ? position[0] : null)
+                    .y(position != null ? position[1] : null)
+                    .build());
+        }
+
+        // Edges pointing at soft-deleted entities are dropped so every edge has both endpoints
+        List<GraphEdgeResponse> edges = new ArrayList<>();
+        for (RelationshipEdgeView relationship : relationshipRepository.findEdgesByProjectId(projectId)) {
+            if (nodes.containsKey(relationship.getFromEntityId()) && nodes.containsKey(relationship.getToEntityId())) {
+                edges.add(GraphEdgeResponse.builder()
+                        .id(relationship.getId())
+                        .kind(EdgeKind.RELATIONSHIP)
+                        .fromEntityId(relationship.getFromEntityId())
+                        .toEntityId(relationship.getToEntityId())
+                        .relationType(relationship.getRelationType())
+                        .build());
+            }
+        }
+        for (LinkEdgeView link : linkRepository.findEdgesByProjectId(projectId)) {
+            if (nodes.containsKey(link.getFromEntityId()) && nodes.containsKey(link.getToEntityId())) {
+                edges.add(GraphEdgeResponse.builder()
+                        .id(link.getId())
+                        .kind(EdgeKind.LINK)
+                        .fromEntityId(link.getFromEntityId())
+                        .toEntityId(link.getToEntityId())
+                        .build());
+            }
+        }
+
+        return GraphResponse.builder()
+                .projectId(projectId)
+                .nodes(new ArrayList<>(nodes.values()))
+                .edges(edges)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public UUID getEntityProjectId(UUID entityId) {
+        return entityRepository.findProjectIdById(entityId)
+                .orElseThrow(() -> new ResourceNotFoundException("Entity not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public NeighborhoodResponse getNeighborhood(UUID projectId, UUID entityId, int depth, List<String> types,
+                                                Boolean links, int limit) {
+        log.debug("Fetching {}-hop neighborhood of entity {}", depth, entityId);
+
+        if (depth < 1 || depth > MAX_NEIGHBORHOOD_DEPTH) {
+            throw new ValidationException("Depth must be between 1 and " + MAX_NEIGHBORHOOD_DEPTH);
+        }
+        if (limit < 1 || limit > MAX_NEIGHBORHOOD_NODES) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_NEIGHBORHOOD_NODES);
+        }
+
+        ProjectGraph graph = graphIndexService.getGraph(projectId);
+        int start = graph.ordinal(entityId);
+        if (start < 0) {
+            throw new ResourceNotFoundException("Entity not found");
+        }
+
+        GraphTraversal.Subgraph subgraph = GraphTraversal.neighborhood(graph, start, depth, graph.typeMask(types, links), limit);
+
+        return NeighborhoodResponse.builder()
+                .entityId(entityId)
+                .depth(depth)
+                .truncated(subgraph.truncated())
+                .nodes(toNodeResponses(graph, subgraph.nodes()))
+                .edges(Arrays.stream(subgraph.edges())
+                        .mapToObj(edge -> toEdgeResponse(graph, edge))
+                        .toList())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public ShortestPathResponse getShortestPaths(UUID projectId, UUID fromEntityId, UUID toEntityId,
+                                                 int maxDepth, List<String> types, Boolean links, int limit) {
+        log.debug("Finding shortest paths from {} to {}", fromEntityId, toEntityId);
+
+        if (maxDepth < 1 || maxDepth > MAX_PATH_DEPTH) {
+            throw new ValidationException("Max depth must be between 1 and " + MAX_PATH_DEPTH);
+        }
+        if (limit < 1 || limit > MAX_PATHS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_PATHS);
+        }
+        if (!projectId.equals(getEntityProjectId(toEntityId))) {
+            throw new ValidationException("Both entities must belong to the same project");
+        }
+
+        ProjectGraph graph = graphIndexService.getGraph(projectId);
+        int source = graph.ordinal(fromEntityId);
+        int target = graph.ordinal(toEntityId);
+        if (source < 0 || target < 0) {
+            throw new ResourceNotFoundException("Entity not found");
+        }
+
+        List<GraphTraversal.Path> paths = GraphTraversal.shortestPaths(
+                graph, source, target, graph.typeMask(types, links), maxDepth, limit);
+
+        Set<Integer> pathNodes = new LinkedHashSet<>();
+        List<GraphPathResponse> pathResponses = new ArrayList<>(paths.size());
+        for (GraphTraversal.Path path : paths) {
+            Arrays.stream(path.nodes()).forEach(pathNodes::add);
+            pathResponses.add(GraphPathResponse.builder()
+                    .entityIds(Arrays.stream(path.nodes()).mapToObj(graph::nodeId).toList())
+                    .edges(Arrays.stream(path.edges()).mapToObj(edge -> toEdgeResponse(graph, edge)).toList())
+                    .build());
+        }
+
+        return ShortestPathResponse.builder()
+                .fromEntityId(fromEntityId)
+                .toEntityId(toEntityId)
+                .length(paths.isEmpty() ? null : paths.get(0).edges().length)
+                .paths(pathResponses)
+                .nodes(toNodeResponses(graph, pathNodes.stream().mapToInt(Integer::intValue).toArray()))
+                .build();
+    }
+
+    // Hydrates node ordinals with one title/type lookup and one tag lookup, preserving traversal order
+    private List<GraphNodeResponse> toNodeResponses(ProjectGraph graph, int[] nodes) {
+        List<UUID> ids = Arrays.stream(nodes).mapToObj(graph::nodeId).toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<UUID>> tagIdsByEntity = new HashMap<>();
+        for (EntityTagView entityTag : entityRepository.findTagIdsByEntityIdIn(ids)) {
+            tagIdsByEntity.computeIfAbsent(entityTag.getEntityId(), id -> new ArrayList<>()).add(entityTag.getTagId());
+        }
+        Map<UUID, EntityNodeView> views = new HashMap<>();
+        for (EntityNodeView view : entityRepository.findNodesByIdIn(ids)) {
+            views.put(view.getId(), view);
+        }
+
+        List<GraphNodeResponse> responses = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            EntityNodeView view = views.get(id);
+            if (view != null) {
+                responses.add(GraphNodeResponse.builder()
+                        .id(id)
+                        .type(view.getType())
+                        .title(view.getTitle())
+                        .tagIds(tagIdsByEntity.getOrDefault(id, List.of()))
+                        .build());
+            }
+        }
+        return responses;
+    }
+
+    private GraphEdgeResponse toEdgeResponse(ProjectGraph graph, int edge) {
+        boolean link = graph.isLink(edge);
+        return GraphEdgeResponse.builder()
+                .id(graph.edgeId(edge))
+                .kind(link ? EdgeKind.LINK : EdgeKind.RELATIONSHIP)
+                .fromEntityId(graph.nodeId(graph.edgeSource(edge)))
+                .toEntityId(graph.nodeId(graph.edgeTarget(edge)))
+                .relationType(link ? null : graph.typeName(graph.edgeType(edge)))
+                .build();
+    }
+}
@@ -0,0 +1,36 @@
+package com.lorely.service;
+
+import com.lorely.search.SearchEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Searches with in-process BM25 indexes kept by {@link TextIndexService}, so queries never reach the database
+ * once a project is loaded. Supports phrases, exclusions and typo-tolerant words; {@code similarity} makes every
+ * word typo-tolerant. Every result carries a highlighted excerpt.
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemorySearchEngine implements SearchEngine {
+
+    private final TextIndexService textIndexService;
+
+    @Override
+    public Result search(UUID projectId, String query, boolean similarity, Pageable pageable) {
+        int offset = pageable.isPaged() ? (int) pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        TextIndexService.Page page = textIndexService.search(projectId, query, similarity, offset, limit);
+        return new Result(new PageImpl<>(page.ids(), pageable, page.total()), page.excerpts());
+    }
+
+    @Override
+    public void rebuild(UUID projectId) {
+        textIndexService.rebuild(projectId);
+    }
+}
@@ -2,17 +2,23 @@ package com.lorely.service;
 
 import com.lorely.dto.request.CreateLinkRequest;
 import com.lorely.dto.response.LinkResponse;
+import com.lorely.event.EdgeChangedEvent;
 import com.lorely.exception.ResourceNotFoundException;
+import com.lorely.model.EdgeKind;
 import com.lorely.model.Link;
 import com.lorely.model.WorldEntity;
 import com.lorely.repository.EntityRepository;
 import com.lorely.repository.LinkRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -23,6 +29,7 @@ public class LinkService {
 
     private final LinkRepository linkRepository;
     private final EntityRepository entityRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public LinkResponse createLink(UUID projectId, CreateLinkRequest request) {
@@ -51,6 +58,7 @@ public class LinkService {
 
         Link savedLink = linkRepository.save(link);
         log.info("Link created: {}", savedLink.getId());
+        publishChange(savedLink, EdgeChangedEvent.Action.CREATED);
 
         return LinkResponse.fromLinkWithTitles(
                 savedLink,
@@ -63,20 +71,14 @@ public class LinkService {
     public List<LinkResponse> getLinksByProject(UUID projectId) {
         log.debug("Fetching all links for project {}", projectId);
 
-        return linkRepository.findByProjectIdOrderByCreatedAtDesc(projectId)
-                .stream()
-                .map(this::toResponseWithTitles)
-                .collect(Collectors.toList());
+        return toResponsesWithTitles(linkRepository.findByProjectIdOrderByCreatedAtDesc(projectId));
     }
 
     @Transactional(readOnly = true)
     public List<LinkResponse> getLinksForEntity(UUID entityId) {
         log.debug("Fetching links for entity {}", entityId);
 
-        return linkRepository.findByFromEntityIdOrToEntityIdOrderByCreatedAtDesc(entityId, entityId)
-                .stream()
-                .map(this::toResponseWithTitles)
-                .collect(Collectors.toList());
+        return toResponsesWithTitles(linkRepository.findByFromEntityIdOrToEntityIdOrderByCreatedAtDesc(entityId, entityId));
     }
 
     @Transactional(readOnly = true)
@@ -97,22 +99,42 @@ public class LinkService {
 
         Link link = getLinkById(linkId);
         linkRepository.delete(link);
+        publishChange(link, EdgeChangedEvent.Action.DELETED);
 
         log.info("Link deleted: {}", linkId);
     }
 
+    private void publishChange(Link link, EdgeChangedEvent.Action action) {
+        eventPublisher.publishEvent(new EdgeChangedEvent(
+                link.getProjectId(),
+                link.getId(),
+                EdgeKind.LINK,
+                link.getFromEntityId(),
+                link.getToEntityId(),
+                null,
+                action
+        ));
+    }
+
     private LinkResponse toResponseWithTitles(Link link) {
-        String fromTitle = entityRepository.findById(link.getFromEntityId())
-                .map(WorldEntity::getTitle)
-                .orElse(null);
-        String toTitle = entityRepository.findById(link.getToEntityId())
-                .map(WorldEntity::getTitle)
-                .orElse(null);
+        return toResponsesWithTitles(List.of(link)).get(0);
+    }
 
-        return LinkResponse.fromLinkWithTitles(
-                link,
-                fromTitle,
-                toTitle
-        );
+    private List<LinkResponse> toResponsesWithTitles(List<Link> links) {
+        // Resolve every referenced title in one lookup instead of one query per endpoint
+        Set<UUID> entityIds = new HashSet<>();
+        for (Link link : links) {
+            entityIds.add(link.getFromEntityId());
+            entityIds.add(link.getToEntityId());
+        }
+        Map<UUID, String> titles = entityIds.isEmpty() ? Map.of() : entityRepository.findTitlesByIds(entityIds);
+
+        return links.stream()
+                .map(link -> LinkResponse.fromLinkWithTitles(
+                        link,
+                        titles.get(link.getFromEntityId()),
+                        titles.get(link.getToEntityId())
+                ))
+                .collect(Collectors.toList());
     }
 }
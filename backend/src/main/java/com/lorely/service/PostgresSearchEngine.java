@@ -0,0 +1,100 @@
+package com.lorely.service;
+
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.EntityHeadlineView;
+import com.lorely.search.Highlights;
+import com.lorely.search.SearchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Searches with the database: full-text queries against the search vector, ranked by relevance. Queries too
+ * short for full-text search, queries without any full-text match (such as misspelled names) and searches with
+ * {@code similarity} set are answered by a fuzzy title search ranked by word similarity instead.
+ * Full-text results carry a highlighted excerpt of the matching text, escaped as described in {@link Highlights}.
+ * <p>
+ * Not transactional: each query runs in its own transaction, so a failed one can fall back to the next.
+ */
+@Service
+@ConditionalOnProperty(name = "app.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PostgresSearchEngine implements SearchEngine {
+
+    private final EntityRepository entityRepository;
+    private final SearchIndexService searchIndexService;
+
+    // Minimum word similarity of a fuzzy title match, between 0 and 1
+    @Value("${app.search.similarity-threshold:0.4}")
+    private double similarityThreshold;
+
+    @Override
+    public Result search(UUID projectId, String query, boolean similarity, Pageable pageable) {
+        if (similarity || query.length() < 3) {
+            return new Result(similarTitleSearchIds(projectId, query, pageable), Map.of());
+        }
+
+        Page<UUID> idPage;
+        try {
+            idPage = entityRepository.fullTextSearchIds(projectId, query.trim(), pageable);
+        } catch (Exception e) {
+            log.warn("Full-text search failed, falling back to ILIKE: {}", e.getMessage());
+            idPage = entityRepository.searchIdsByTitle(projectId, query, titleOrder(pageable));
+            return new Result(idPage, Map.of());
+        }
+        if (idPage.getTotalElements() == 0) {
+            return new Result(similarTitleSearchIds(projectId, query, pageable), Map.of());
+        }
+        return new Result(idPage, highlights(idPage, query.trim()));
+    }
+
+    // Search vectors are rebuilt by the index worker, so this only queues the project
+    @Override
+    public void rebuild(UUID projectId) {
+        searchIndexService.reindexProject(projectId);
+    }
+
+    private Map<UUID, String> highlights(Page<UUID> idPage, String query) {
+        Map<UUID, String> highlights = new HashMap<>();
+        if (!idPage.hasContent()) {
+            return highlights;
+        }
+        try {
+            for (EntityHeadlineView headline : entityRepository.findHeadlines(idPage.getContent(), query)) {
+                highlights.put(headline.getId(), Highlights.fromMarked(headline.getHeadline()));
+            }
+        } catch (Exception e) {
+            // Results are still useful without excerpts
+            log.warn("Failed to compute search highlights: {}", e.getMessage());
+        }
+        return highlights;
+    }
+
+    private Page<UUID> similarTitleSearchIds(UUID projectId, String query, Pageable pageable) {
+        try {
+            return entityRepository.similarTitleSearchIds(projectId, query.trim(), similarityThreshold, pageable);
+        } catch (Exception e) {
+            // e.g. pg_trgm is not installed
+            log.warn("Trigram search failed, falling back to ILIKE: {}", e.getMessage());
+            return entityRepository.searchIdsByTitle(projectId, query, titleOrder(pageable));
+        }
+    }
+
+    private Pageable titleOrder(Pageable pageable) {
+        Sort order = Sort.by("title", "id");
+        return pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), order)
+                : Pageable.unpaged(order);
+    }
+}
@@ -76,7 +76,7 @@ public class ProjectService {
 
     @Transactional(readOnly = true)
     public Project getProjectByIdIncludeDeleted(UUID projectId) {
-        return projectRepository.findById(projectId)
+        return projectRepository.findByIdIncludingDeleted(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
     }
 
@@ -113,7 +113,7 @@ public class ProjectService {
     public void permanentlyDeleteProject(UUID projectId) {
         log.debug("Permanently deleting project {}", projectId);
 
-        Project project = projectRepository.findById(projectId)
+        Project project = projectRepository.findByIdIncludingDeleted(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
         projectRepository.delete(project);
 
@@ -124,7 +124,7 @@ public class ProjectService {
     public ProjectResponse restoreProject(UUID projectId) {
         log.debug("Restoring project {}", projectId);
 
-        Project project = projectRepository.findById(projectId)
+        Project project = projectRepository.findByIdIncludingDeleted(projectId)
                 .orElseThrow(() -> new ResourceNotFoundException("Project not found"));
         project.setDeletedAt(null);
         Project savedProject = projectRepository.save(project);
@@ -3,17 +3,23 @@ package com.lorely.service;
 import com.lorely.dto.request.CreateRelationshipRequest;
 import com.lorely.dto.request.UpdateRelationshipRequest;
 import com.lorely.dto.response.RelationshipResponse;
+import com.lorely.event.EdgeChangedEvent;
 import com.lorely.exception.ResourceNotFoundException;
+import com.lorely.model.EdgeKind;
 import com.lorely.model.Relationship;
 import com.lorely.model.WorldEntity;
 import com.lorely.repository.EntityRepository;
 import com.lorely.repository.RelationshipRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,6 +30,7 @@ public class RelationshipService {
 
     private final RelationshipRepository relationshipRepository;
     private final EntityRepository entityRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public RelationshipResponse createRelationship(UUID projectId, CreateRelationshipRequest request) {
@@ -64,6 +71,7 @@ public class RelationshipService {
 
         Relationship savedRelationship = relationshipRepository.save(relationship);
         log.info("Relationship created: {}", savedRelationship.getId());
+        publishChange(savedRelationship, EdgeChangedEvent.Action.CREATED);
 
         return RelationshipResponse.fromRelationshipWithTitles(
                 savedRelationship,
@@ -95,6 +103,7 @@ public class RelationshipService {
 
         Relationship savedRelationship = relationshipRepository.save(relationship);
         log.info("Relationship updated: {}", savedRelationship.getId());
+        publishChange(savedRelationship, EdgeChangedEvent.Action.UPDATED);
 
         return toResponseWithTitles(savedRelationship);
     }
@@ -103,30 +112,21 @@ public class RelationshipService {
     public List<RelationshipResponse> getRelationshipsByProject(UUID projectId) {
         log.debug("Fetching all relationships for project {}", projectId);
 
-        return relationshipRepository.findByProjectIdOrderByCreatedAtDesc(projectId)
-                .stream()
-                .map(this::toResponseWithTitles)
-                .collect(Collectors.toList());
+        return toResponsesWithTitles(relationshipRepository.findByProjectIdOrderByCreatedAtDesc(projectId));
     }
 
     @Transactional(readOnly = true)
     public List<RelationshipResponse> getRelationshipsByProjectAndType(UUID projectId, String relationType) {
         log.debug("Fetching relationships of type '{}' for project {}", relationType, projectId);
 
-        return relationshipRepository.findByProjectIdAndRelationTypeOrderByCreatedAtDesc(projectId, relationType)
-                .stream()
-                .map(this::toResponseWithTitles)
-                .collect(Collectors.toList());
+        return toResponsesWithTitles(relationshipRepository.findByProjectIdAndRelationTypeOrderByCreatedAtDesc(projectId, relationType));
     }
 
     @Transactional(readOnly = true)
     public List<RelationshipResponse> getRelationshipsForEntity(UUID entityId) {
         log.debug("Fetching relationships for entity {}", entityId);
 
-        return relationshipRepository.findByFromEntityIdOrToEntityIdOrderByCreatedAtDesc(entityId, entityId)
-                .stream()
-                .map(this::toResponseWithTitles)
-                .collect(Collectors.toList());
+        return toResponsesWithTitles(relationshipRepository.findByFromEntityIdOrToEntityIdOrderByCreatedAtDesc(entityId, entityId));
     }
 
     @Transactional(readOnly = true)
@@ -147,28 +147,48 @@ public class RelationshipService {
 
         Relationship relationship = getRelationshipById(relationshipId);
         relationshipRepository.delete(relationship);
+        publishChange(relationship, EdgeChangedEvent.Action.DELETED);
 
         log.info("Relationship deleted: {}", relationshipId);
     }
 
+    private void publishChange(Relationship relationship, EdgeChangedEvent.Action action) {
+        eventPublisher.publishEvent(new EdgeChangedEvent(
+                relationship.getProjectId(),
+                relationship.getId(),
+                EdgeKind.RELATIONSHIP,
+                relationship.getFromEntityId(),
+                relationship.getToEntityId(),
+                relationship.getRelationType(),
+                action
+        ));
+    }
+
     private RelationshipResponse toResponseWithTitles(Relationship relationship) {
-        String fromTitle = entityRepository.findById(relationship.getFromEntityId())
-                .map(WorldEntity::getTitle)
-                .orElse(null);
-        String toTitle = entityRepository.findById(relationship.getToEntityId())
-                .map(WorldEntity::getTitle)
-                .orElse(null);
-        String contextTitle = relationship.getContextEntityId() != null
-                ? entityRepository.findById(relationship.getContextEntityId())
-                        .map(WorldEntity::getTitle)
-                        .orElse(null)
-                : null;
+        return toResponsesWithTitles(List.of(relationship)).get(0);
+    }
 
-        return RelationshipResponse.fromRelationshipWithTitles(
-                relationship,
-                fromTitle,
-                toTitle,
-                contextTitle
-        );
+    private List<RelationshipResponse> toResponsesWithTitles(List<Relationship> relationships) {
+        // Resolve every referenced title in one lookup instead of one query per endpoint
+        Set<UUID> entityIds = new HashSet<>();
+        for (Relationship relationship : relationships) {
+            entityIds.add(relationship.getFromEntityId());
+            entityIds.add(relationship.getToEntityId());
+            if (relationship.getContextEntityId() != null) {
+                entityIds.add(relationship.getContextEntityId());
+            }
+        }
+        Map<UUID, String> titles = entityIds.isEmpty() ? Map.of() : entityRepository.findTitlesByIds(entityIds);
+
+        return relationships.stream()
+                .map(relationship -> RelationshipResponse.fromRelationshipWithTitles(
+                        relationship,
+                        titles.get(relationship.getFromEntityId()),
+                        titles.get(relationship.getToEntityId()),
+                        relationship.getContextEntityId() != null
+                                ? titles.get(relationship.getContextEntityId())
+                                : null
+                ))
+                .collect(Collectors.toList());
     }
 }
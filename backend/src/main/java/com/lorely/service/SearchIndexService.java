@@ -0,0 +1,124 @@
+package com.lorely.service;
+
+import com.lorely.dto.response.SearchIndexStatusResponse;
+import com.lorely.model.SearchIndexQueueEntry;
+import com.lorely.repository.SearchIndexQueueRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebuilds entity search vectors off the write path.
+ * <p>
+ * Writes that change an entity's title or content only enqueue its id (see V22); repeated writes before
+ * the worker runs collapse into one queue row. Every {@code poll-interval-ms} the worker drains the queue
+ * oldest first, {@code batch-size} entities per transaction. Search results therefore lag writes by about
+ * one poll interval; the lag and queue size are published as the {@code search.index.lag} and
+ * {@code search.index.queue.size} gauges.
+ */
+@Service
+@Slf4j
+public class SearchIndexService {
+
+    private final SearchIndexQueueRepository searchIndexQueueRepository;
+    private final TransactionTemplate batchTransaction;
+    private final Counter reindexed;
+
+    @Value("${app.search.index.batch-size:200}")
+    private int batchSize;
+
+    // Last observed by the worker, so scraping metrics never touches the database
+    private volatile long queueSize;
+    private volatile Instant oldestEnqueuedAt;
+
+    public SearchIndexService(SearchIndexQueueRepository searchIndexQueueRepository,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.searchIndexQueueRepository = searchIndexQueueRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.reindexed = Counter.builder("search.index.reindexed")
+                .description("Entities whose search vector was rebuilt")
+                .register(meterRegistry);
+        Gauge.builder("search.index.queue.size", this, service -> service.queueSize)
+                .description("Entities waiting for their search vector to be rebuilt")
+                .register(meterRegistry);
+        TimeGauge.builder("search.index.lag", this, TimeUnit.MILLISECONDS, service -> lagMs(service.oldestEnqueuedAt))
+                .description("Age of the oldest pending search index update")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.index.poll-interval-ms:1000}")
+    public void processQueue() {
+        try {
+            int total = 0;
+            int processed;
+            do {
+                processed = batchTransaction.execute(status -> reindexBatch());
+                total += processed;
+            } while (processed == batchSize);
+            if (total > 0) {
+                reindexed.increment(total);
+                log.debug("Rebuilt search vectors of {} entities", total);
+            }
+            queueSize = searchIndexQueueRepository.count();
+            oldestEnqueuedAt = searchIndexQueueRepository.findOldestEnqueuedAt();
+        } catch (RuntimeException e) {
+            log.warn("Failed to process the search index queue: {}", e.getMessage());
+        }
+    }
+
+    // Entities first, then vectors, then queue rows: see SearchIndexQueueRepository.lockBatch
+    private int reindexBatch() {
+        List<SearchIndexQueueEntry> batch = searchIndexQueueRepository.lockBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<UUID> ids = batch.stream().map(SearchIndexQueueEntry::getEntityId).toList();
+        Instant latest = batch.stream()
+                .map(SearchIndexQueueEntry::getEnqueuedAt)
+                .max(Comparator.naturalOrder())
+                .orElseThrow();
+        searchIndexQueueRepository.updateSearchVectors(ids);
+        searchIndexQueueRepository.deleteDequeued(ids, latest);
+        return batch.size();
+    }
+
+    /**
+     * Queues every entity of the project, including trashed ones, for a search vector rebuild.
+     */
+    @Transactional
+    public SearchIndexStatusResponse reindexProject(UUID projectId) {
+        int queued = searchIndexQueueRepository.enqueueProject(projectId, Instant.now());
+        log.info("Queued {} entities of project {} for reindexing", queued, projectId);
+        return getStatus(projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public SearchIndexStatusResponse getStatus(UUID projectId) {
+        Instant oldest = searchIndexQueueRepository.findOldestEnqueuedAtByProjectId(projectId);
+        return SearchIndexStatusResponse.builder()
+                .pending(searchIndexQueueRepository.countByProjectId(projectId))
+                .oldestEnqueuedAt(oldest)
+                .lagMs(oldest != null ? (long) lagMs(oldest) : null)
+                .build();
+    }
+
+    private static double lagMs(Instant oldest) {
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis());
+    }
+}
@@ -0,0 +1,79 @@
+package com.lorely.service;
+
+import com.lorely.dto.response.SimilarEntityResponse;
+import com.lorely.exception.ValidationException;
+import com.lorely.graph.ProjectGraph;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.EntitySummaryView;
+import com.lorely.search.TextIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Suggests entities whose text resembles an entity's but which are not yet connected to it by a relationship
+ * or link, ranked by the cosine similarity of their BM25 term vectors in the project's {@link TextIndex}.
+ */
+@Service
+@RequiredArgsConstructor
+public class SimilarEntityService {
+
+    public static final int MAX_SIMILAR = 50;
+
+    private final TextIndexService textIndexService;
+    private final GraphIndexService graphIndexService;
+    private final EntityRepository entityRepository;
+
+    public List<SimilarEntityResponse> findSimilar(UUID projectId, UUID entityId, int limit) {
+        if (limit < 1 || limit > MAX_SIMILAR) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_SIMILAR);
+        }
+        List<TextIndex.Similar> similar = textIndexService.similar(projectId, entityId,
+                connectedEntities(projectId, entityId), limit);
+        if (similar.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, EntitySummaryView> summaries = new HashMap<>();
+        for (EntitySummaryView summary : entityRepository.findSummariesByIdIn(
+                similar.stream().map(TextIndex.Similar::id).toList())) {
+            summaries.put(summary.getId(), summary);
+        }
+        return similar.stream()
+                .map(match -> {
+                    EntitySummaryView summary = summaries.get(match.id());
+                    return summary == null ? null : SimilarEntityResponse.builder()
+                            .id(summary.getId())
+                            .title(summary.getTitle())
+                            .type(summary.getType())
+                            .score(match.score())
+                            .build();
+                })
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Neighbours in either direction, through relationships of any type and links
+    private Set<UUID> connectedEntities(UUID projectId, UUID entityId) {
+        ProjectGraph graph = graphIndexService.getGraph(projectId);
+        Set<UUID> connected = new HashSet<>();
+        int node = graph.ordinal(entityId);
+        if (node < 0) {
+            return connected;
+        }
+        for (int slot = graph.outStart(node); slot < graph.outEnd(node); slot++) {
+            connected.add(graph.nodeId(graph.edgeTarget(graph.outEdge(slot))));
+        }
+        for (int slot = graph.inStart(node); slot < graph.inEnd(node); slot++) {
+            connected.add(graph.nodeId(graph.edgeSource(graph.inEdge(slot))));
+        }
+        return connected;
+    }
+}
@@ -3,12 +3,14 @@ package com.lorely.service;
 import com.lorely.dto.request.CreateTagRequest;
 import com.lorely.dto.request.UpdateTagRequest;
 import com.lorely.dto.response.TagResponse;
+import com.lorely.event.TagDeletedEvent;
 import com.lorely.exception.ResourceNotFoundException;
 import com.lorely.exception.ValidationException;
 import com.lorely.model.Tag;
 import com.lorely.repository.TagRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 public class TagService {
 
     private final TagRepository tagRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TagResponse createTag(UUID projectId, CreateTagRequest request) {
@@ -93,6 +96,7 @@ public class TagService {
 
         Tag tag = getTagById(tagId);
         tagRepository.delete(tag);
+        eventPublisher.publishEvent(new TagDeletedEvent(tag.getProjectId(), tagId));
 
         log.info("Tag deleted: {}", tagId);
     }
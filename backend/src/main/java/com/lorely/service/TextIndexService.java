@@ -0,0 +1,198 @@
+package com.lorely.service;
+
+import com.lorely.content.ContentStorageListener;
+import com.lorely.event.EntityChangedEvent;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.EntityTextView;
+import com.lorely.search.TextIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps per-project {@link TextIndex} instances for the in-process search engine and similar-entity suggestions.
+ * <p>
+ * An index is built lazily from the entities' titles and visible text. Entities written afterwards are marked
+ * dirty and re-read in one query before the next search; {@link #rebuild} drops and reloads an index.
+ * Indexes are evicted least-recently-used once their estimated footprint exceeds the budget.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TextIndexService {
+
+    private final EntityRepository entityRepository;
+
+    @Value("${app.search.text-index.cache-max-bytes:67108864}")
+    private long maxBytes;
+
+    private final LinkedHashMap<UUID, TextIndex> indexes = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<UUID, Long> generations = new HashMap<>();
+    private final Map<UUID, Set<UUID>> dirtyEntities = new HashMap<>();
+    private final Map<UUID, Long> indexBytes = new HashMap<>();
+    private long cachedBytes;
+
+    /**
+     * Returns matches {@code offset} to {@code offset + limit} of the query with an excerpt of each, best first.
+     */
+    public Page search(UUID projectId, String query, boolean fuzzy, int offset, int limit) {
+        TextIndex index = getIndex(projectId);
+        synchronized (index) {
+            refreshDirty(projectId, index);
+            TextIndex.Hits hits = index.search(query, fuzzy, offset, limit);
+            Map<UUID, String> excerpts = new HashMap<>();
+            for (UUID id : hits.ids()) {
+                excerpts.put(id, index.excerpt(id, hits.terms()));
+            }
+            return new Page(hits.ids(), hits.total(), excerpts);
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entities whose text is most similar to the entity's, skipping {@code excluded}.
+     */
+    public List<TextIndex.Similar> similar(UUID projectId, UUID entityId, Set<UUID> excluded, int limit) {
+        TextIndex index = getIndex(projectId);
+        synchronized (index) {
+            refreshDirty(projectId, index);
+            return index.similar(entityId, excluded, limit);
+        }
+    }
+
+    public void rebuild(UUID projectId) {
+        invalidate(projectId);
+        TextIndex index = getIndex(projectId);
+        log.info("Rebuilt text index for project {}: {} entities", projectId, index.documentCount());
+    }
+
+    public synchronized void invalidate(UUID projectId) {
+        generations.merge(projectId, 1L, Long::sum);
+        dirtyEntities.remove(projectId);
+        if (indexes.remove(projectId) != null) {
+            cachedBytes -= indexBytes.remove(projectId);
+        }
+    }
+
+    // Deleted and restored entities are re-read too: trashed ones are no longer found and so leave the index
+    @TransactionalEventListener
+    public void onEntityChanged(EntityChangedEvent event) {
+        markDirty(event.projectId(), event.entityId());
+    }
+
+    public record Page(List<UUID> ids, int total, Map<UUID, String> excerpts) {
+    }
+
+    private TextIndex getIndex(UUID projectId) {
+        long generation;
+        synchronized (this) {
+            TextIndex cached = indexes.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            generation = generations.getOrDefault(projectId, 0L);
+        }
+
+        TextIndex loaded = load(projectId);
+
+        synchronized (this) {
+            TextIndex cached = indexes.get(projectId);
+            if (cached != null) {
+                return cached;
+            }
+            if (generation == generations.getOrDefault(projectId, 0L)) {
+                put(projectId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private synchronized void markDirty(UUID projectId, UUID entityId) {
+        // A load running concurrently may have missed the change, so it must not be cached
+        generations.merge(projectId, 1L, Long::sum);
+        if (indexes.containsKey(projectId)) {
+            dirtyEntities.computeIfAbsent(projectId, id -> new HashSet<>()).add(entityId);
+        }
+    }
+
+    private synchronized Set<UUID> drainDirty(UUID projectId) {
+        Set<UUID> dirty = dirtyEntities.remove(projectId);
+        return dirty != null ? dirty : Set.of();
+    }
+
+    private synchronized void restoreDirty(UUID projectId, Set<UUID> dirty) {
+        if (indexes.containsKey(projectId)) {
+            dirtyEntities.computeIfAbsent(projectId, id -> new HashSet<>()).addAll(dirty);
+        }
+    }
+
+    private void refreshDirty(UUID projectId, TextIndex index) {
+        Set<UUID> dirty = drainDirty(projectId);
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<EntityTextView> entities;
+        try {
+            entities = entityRepository.findTextsByIdIn(dirty);
+        } catch (RuntimeException e) {
+            // Still dirty, so the next query retries them
+            restoreDirty(projectId, dirty);
+            throw e;
+        }
+        Set<UUID> missing = new HashSet<>(dirty);
+        for (EntityTextView entity : entities) {
+            missing.remove(entity.getId());
+            index.put(entity.getId(), entity.getTitle(), bodyOf(entity));
+        }
+        for (UUID entityId : missing) {
+            index.remove(entityId);
+        }
+    }
+
+    private void put(UUID projectId, TextIndex index) {
+        long bytes = index.estimatedBytes();
+        indexes.put(projectId, index);
+        indexBytes.put(projectId, bytes);
+        cachedBytes += bytes;
+
+        Iterator<Map.Entry<UUID, TextIndex>> eldest = indexes.entrySet().iterator();
+        while (cachedBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<UUID, TextIndex> entry = eldest.next();
+            if (entry.getKey().equals(projectId)) {
+                continue;
+            }
+            cachedBytes -= indexBytes.remove(entry.getKey());
+            dirtyEntities.remove(entry.getKey());
+            eldest.remove();
+            log.debug("Evicted text index for project {}", entry.getKey());
+        }
+    }
+
+    private TextIndex load(UUID projectId) {
+        long started = System.nanoTime();
+        TextIndex index = new TextIndex();
+        for (EntityTextView entity : entityRepository.findTextsByProjectId(projectId)) {
+            index.put(entity.getId(), entity.getTitle(), bodyOf(entity));
+        }
+
+        log.debug("Loaded text index for project {}: {} entities in {} ms",
+                projectId, index.documentCount(), (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+
+    private static String bodyOf(EntityTextView entity) {
+        return entity.getContentText() != null
+                ? entity.getContentText()
+                : ContentStorageListener.extractText(entity.getContent());
+    }
+}
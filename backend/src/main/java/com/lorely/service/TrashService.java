@@ -0,0 +1,105 @@
+package com.lorely.service;
+
+import com.lorely.dto.response.PaginatedResponse;
+import com.lorely.dto.response.TrashItemResponse;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.ProjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * Lists soft-deleted projects and entities and purges them once they have been in the trash longer than
+ * the retention period.
+ * <p>
+ * The purge deletes at most {@code batch-size} rows per statement, each in its own short transaction
+ * (rows of a deleted project's entities first, so deleting the project row itself cascades to little),
+ * and pauses between batches so live traffic is never queued behind it.
+ */
+@Service
+@Slf4j
+public class TrashService {
+
+    private final EntityRepository entityRepository;
+    private final ProjectRepository projectRepository;
+    private final TransactionTemplate batchTransaction;
+
+    @Value("${app.trash.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${app.trash.purge-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.trash.purge-pause-ms:200}")
+    private long pauseMs;
+
+    public TrashService(EntityRepository entityRepository,
+                        ProjectRepository projectRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.entityRepository = entityRepository;
+        this.projectRepository = projectRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<TrashItemResponse> getProjectTrash(UUID ownerId, int page, int size) {
+        return PaginatedResponse.from(projectRepository.findTrashByOwnerId(ownerId, PageRequest.of(page, size))
+                .map(project -> TrashItemResponse.fromProject(project, purgeAfter(project.getDeletedAt()))));
+    }
+
+    @Transactional(readOnly = true)
+    public PaginatedResponse<TrashItemResponse> getEntityTrash(UUID projectId, int page, int size) {
+        return PaginatedResponse.from(entityRepository.findTrashByProjectId(projectId, PageRequest.of(page, size))
+                .map(entity -> TrashItemResponse.fromEntity(entity, purgeAfter(entity.getDeletedAt()))));
+    }
+
+    @Scheduled(fixedDelayString = "${app.trash.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        purgeDeletedBefore(Instant.now().minus(Duration.ofDays(retentionDays)));
+    }
+
+    /**
+     * Permanently removes everything soft-deleted before {@code cutoff}. Returns the number of entity and
+     * project rows deleted.
+     */
+    public int purgeDeletedBefore(Instant cutoff) {
+        int entities = purgeInBatches(() -> entityRepository.deleteTrashedBefore(cutoff, batchSize))
+                + purgeInBatches(() -> entityRepository.deleteOfProjectsTrashedBefore(cutoff, batchSize));
+        int projects = purgeInBatches(() -> projectRepository.deleteEmptyTrashedBefore(cutoff, batchSize));
+        if (entities + projects > 0) {
+            log.info("Purged {} entities and {} projects deleted before {}", entities, projects, cutoff);
+        }
+        return entities + projects;
+    }
+
+    private int purgeInBatches(IntSupplier batch) {
+        int total = 0;
+        while (true) {
+            Integer deleted = batchTransaction.execute(status -> batch.getAsInt());
+            total += deleted != null ? deleted : 0;
+            if (deleted == null || deleted < batchSize) {
+                return total;
+            }
+            try {
+                Thread.sleep(pauseMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return total;
+            }
+        }
+    }
+
+    private Instant purgeAfter(Instant deletedAt) {
+        return deletedAt != null ? deletedAt.plus(Duration.ofDays(retentionDays)) : null;
+    }
+}
@@ -0,0 +1,10 @@
+-- Precomputed graph layout coordinates, one row per entity
+CREATE TABLE entity_layouts (
+    entity_id UUID PRIMARY KEY REFERENCES entities(id) ON DELETE CASCADE,
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    x DOUBLE PRECISION NOT NULL,
+    y DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+CREATE INDEX idx_entity_layouts_project ON entity_layouts(project_id);
@@ -0,0 +1,2 @@
+-- Keyset pagination by creation date; updated_at and title are covered by V7
+CREATE INDEX IF NOT EXISTS idx_entities_project_created_at ON entities(project_id, created_at);
@@ -0,0 +1,28 @@
+-- RFC 7396 JSON Merge Patch, so partial content edits are applied in the database
+-- instead of round-tripping the whole document through the application
+CREATE OR REPLACE FUNCTION jsonb_merge_patch(target jsonb, patch jsonb) RETURNS jsonb AS $$
+DECLARE
+    result jsonb;
+    member record;
+BEGIN
+    IF jsonb_typeof(patch) IS DISTINCT FROM 'object' THEN
+        RETURN patch;
+    END IF;
+
+    IF jsonb_typeof(target) IS DISTINCT FROM 'object' THEN
+        result := '{}'::jsonb;
+    ELSE
+        result := target;
+    END IF;
+
+    FOR member IN SELECT key, value FROM jsonb_each(patch) LOOP
+        IF jsonb_typeof(member.value) = 'null' THEN
+            result := result - member.key;
+        ELSE
+            result := jsonb_set(result, ARRAY[member.key], jsonb_merge_patch(result -> member.key, member.value));
+        END IF;
+    END LOOP;
+
+    RETURN result;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
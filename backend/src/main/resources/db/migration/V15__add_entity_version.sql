@@ -0,0 +1,2 @@
+-- Optimistic locking; exposed to clients as the entity ETag
+ALTER TABLE entities ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,15 @@
+-- Revision history: periodic full snapshots with structural deltas in between
+CREATE TABLE entity_revisions (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    entity_id UUID NOT NULL REFERENCES entities(id) ON DELETE CASCADE,
+    revision_number INTEGER NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    type VARCHAR(50) NOT NULL,
+    snapshot BOOLEAN NOT NULL,
+    -- Full content for snapshots, otherwise the delta from the previous revision
+    body JSONB NOT NULL,
+    content_size INTEGER NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    CONSTRAINT uq_entity_revisions_number UNIQUE (entity_id, revision_number)
+);
@@ -0,0 +1,15 @@
+-- Opt-in compressed storage for large content (see ContentStorageListener); content is NULL while compressed
+ALTER TABLE entities ADD COLUMN content_compressed BYTEA;
+ALTER TABLE entities ADD COLUMN content_text TEXT;
+
+-- Already deflated, so keep TOAST from trying to compress it again
+ALTER TABLE entities ALTER COLUMN content_compressed SET STORAGE EXTERNAL;
+
+-- Index the extracted text of compressed rows instead of the (absent) JSON
+CREATE OR REPLACE FUNCTION entities_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector := to_tsvector('english',
+        COALESCE(NEW.title, '') || ' ' || COALESCE(NEW.content_text, NEW.content::text, ''));
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,11 @@
+-- @mentions found in entity content, kept in sync on every content write
+CREATE TABLE entity_mentions (
+    source_id UUID NOT NULL REFERENCES entities(id) ON DELETE CASCADE,
+    target_id UUID NOT NULL REFERENCES entities(id) ON DELETE CASCADE,
+    count INTEGER NOT NULL,
+    first_offset INTEGER NOT NULL,
+    PRIMARY KEY (source_id, target_id)
+);
+
+-- Backlinks: who mentions a given entity
+CREATE INDEX idx_entity_mentions_target ON entity_mentions(target_id, source_id);
@@ -0,0 +1,6 @@
+-- Partial indexes over soft-deleted rows only: trash listings per project/owner and the purge job's
+-- oldest-first batches stay index range scans without adding weight to indexes on live rows
+CREATE INDEX IF NOT EXISTS idx_entities_trash ON entities(project_id, deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_entities_deleted_at ON entities(deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_projects_trash ON projects(owner_id, deleted_at) WHERE deleted_at IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_projects_deleted_at ON projects(deleted_at) WHERE deleted_at IS NOT NULL;
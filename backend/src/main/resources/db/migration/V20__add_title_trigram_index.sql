@@ -0,0 +1,5 @@
+-- Trigram index on titles, serving both substring (ILIKE) and fuzzy (word similarity) title search,
+-- including queries too short or too misspelled for full-text search
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_entities_title_trgm ON entities USING gin (title gin_trgm_ops) WHERE deleted_at IS NULL;
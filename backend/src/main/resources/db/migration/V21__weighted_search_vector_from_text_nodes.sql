@@ -0,0 +1,54 @@
+-- Visible text of entity content: string values outside node metadata (type, attrs, marks), mention
+-- labels, and HTML strings with tags and character references removed. Mirrors ContentStorageListener.extractText
+CREATE OR REPLACE FUNCTION entity_content_text(node jsonb) RETURNS text AS $$
+DECLARE
+    result text;
+BEGIN
+    CASE jsonb_typeof(node)
+        WHEN 'string' THEN
+            RETURN regexp_replace(node #>> '{}', '<[^>]*>|&#?[A-Za-z0-9]+;', ' ', 'g');
+        WHEN 'array' THEN
+            SELECT string_agg(entity_content_text(value), ' ') INTO result FROM jsonb_array_elements(node);
+        WHEN 'object' THEN
+            IF node ->> 'type' = 'mention' THEN
+                RETURN COALESCE(node -> 'attrs' ->> 'label', '');
+            END IF;
+            SELECT string_agg(entity_content_text(value), ' ') INTO result
+            FROM jsonb_each(node) WHERE key NOT IN ('type', 'attrs', 'marks');
+        ELSE
+            RETURN '';
+    END CASE;
+    RETURN COALESCE(result, '');
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Title weighted A and body text weighted B, so title hits rank first. Compressed rows carry their
+-- extracted text in content_text
+CREATE OR REPLACE FUNCTION entities_search_vector_update() RETURNS trigger AS $$
+BEGIN
+    NEW.search_vector :=
+        setweight(to_tsvector('english', COALESCE(NEW.title, '')), 'A') ||
+        setweight(to_tsvector('english',
+            COALESCE(NEW.content_text, entity_content_text(NEW.content), '')), 'B');
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+-- Skips statements that leave the indexed columns out. JPA saves list every column, so these still fire;
+-- V22 replaces this trigger with one that compares values
+DROP TRIGGER entities_search_vector_trigger ON entities;
+CREATE TRIGGER entities_search_vector_trigger
+    BEFORE INSERT OR UPDATE OF title, content, content_text ON entities
+    FOR EACH ROW EXECUTE FUNCTION entities_search_vector_update();
+
+-- content_text of rows compressed before this migration still holds tags and node names
+UPDATE entities SET content_text = regexp_replace(content_text, '<[^>]*>|&#?[A-Za-z0-9]+;', ' ', 'g')
+WHERE content_text IS NOT NULL;
+
+UPDATE entities SET search_vector =
+    setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+    setweight(to_tsvector('english', COALESCE(content_text, entity_content_text(content), '')), 'B')
+WHERE content_text IS NULL;
+
+-- The index shrinks once JSON keys and node names are gone
+REINDEX INDEX idx_entities_search_vector;
@@ -0,0 +1,38 @@
+-- Search vectors are rebuilt asynchronously (see SearchIndexService): writes only enqueue the entity id,
+-- and repeated writes before the worker gets to it collapse into the one pending row
+CREATE TABLE search_index_queue (
+    entity_id UUID PRIMARY KEY REFERENCES entities(id) ON DELETE CASCADE,
+    enqueued_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
+
+-- Oldest first, and MIN(enqueued_at) for the lag gauge
+CREATE INDEX idx_search_index_queue_enqueued ON search_index_queue(enqueued_at);
+
+CREATE OR REPLACE FUNCTION entity_search_vector(title text, content_text text, content jsonb) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('english', COALESCE(title, '')), 'A') ||
+           setweight(to_tsvector('english', COALESCE(content_text, entity_content_text(content), '')), 'B');
+$$ LANGUAGE sql IMMUTABLE;
+
+DROP TRIGGER entities_search_vector_trigger ON entities;
+DROP FUNCTION entities_search_vector_update();
+
+-- Keeps the first enqueue time, so the lag covers the whole burst
+CREATE OR REPLACE FUNCTION entities_search_index_enqueue() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO search_index_queue (entity_id) VALUES (NEW.id) ON CONFLICT (entity_id) DO NOTHING;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER entities_search_index_insert_trigger
+    AFTER INSERT ON entities
+    FOR EACH ROW EXECUTE FUNCTION entities_search_index_enqueue();
+
+-- Saves rewrite every column, so compare values: tag, version and updated_at changes enqueue nothing
+CREATE TRIGGER entities_search_index_update_trigger
+    AFTER UPDATE OF title, content, content_text ON entities
+    FOR EACH ROW
+    WHEN (OLD.title IS DISTINCT FROM NEW.title
+        OR OLD.content IS DISTINCT FROM NEW.content
+        OR OLD.content_text IS DISTINCT FROM NEW.content_text)
+    EXECUTE FUNCTION entities_search_index_enqueue();
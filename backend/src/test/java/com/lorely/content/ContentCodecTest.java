@@ -0,0 +1,78 @@
+package com.lorely.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentCodecTest {
+
+    @Test
+    void shouldRoundTripContent() {
+        Map<String, Object> content = Map.of(
+                "text", chapter(40),
+                "notes", List.of("first", Map.of("nested", true)));
+
+        byte[] encoded = ContentCodec.encode(ContentCodec.toJson(content));
+
+        assertThat(ContentCodec.fromJson(ContentCodec.decode(encoded))).isEqualTo(content);
+    }
+
+    @Test
+    void shouldCompressSmallDocumentsBetterThanPlainDeflate() {
+        byte[] json = ContentCodec.toJson(Map.of("text", chapter(3)));
+
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        deflater.setInput(json);
+        deflater.finish();
+        int plain = deflater.deflate(new byte[json.length * 2]);
+        deflater.end();
+
+        assertThat(ContentCodec.encode(json).length).isLessThan(plain);
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        byte[] encoded = ContentCodec.encode("{}".getBytes(StandardCharsets.UTF_8));
+        byte[] corrupt = Arrays.copyOf(encoded, encoded.length);
+        corrupt[0] = 42;
+
+        assertThatThrownBy(() -> ContentCodec.decode(corrupt)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ContentCodec.decode(Arrays.copyOf(encoded, 2))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldExtractTextInDocumentOrder() {
+        String text = ContentStorageListener.extractText(Map.of("text", List.of("a", Map.of("b", "c"), 3)));
+
+        assertThat(text).isEqualTo("a c");
+    }
+
+    @Test
+    void shouldExtractOnlyVisibleText() {
+        Map<String, Object> doc = Map.of("type", "doc", "content", List.of(
+                Map.of("type", "paragraph", "content", List.of(
+                        Map.of("type", "text", "text", "Ride to", "marks", List.of(Map.of("type", "bold"))),
+                        Map.of("type", "mention", "attrs", Map.of("id", "x", "label", "Rohan"))))));
+
+        assertThat(ContentStorageListener.extractText(doc)).isEqualTo("Ride to Rohan");
+        assertThat(ContentStorageListener.extractText(Map.of("text", "<p>Fish &amp; chips</p>")).trim().split("\\s+"))
+                .containsExactly("Fish", "chips");
+    }
+
+    // Editor HTML as saved by the entity page
+    static String chapter(int paragraphs) {
+        StringBuilder html = new StringBuilder("<h2>The Siege of Arden</h2>");
+        for (int i = 0; i < paragraphs; i++) {
+            html.append("<p>The <strong>tower</strong> fell at dawn on day ").append(i)
+                    .append(", and <em>nobody</em> in the valley slept.</p>");
+        }
+        return html.toString();
+    }
+}
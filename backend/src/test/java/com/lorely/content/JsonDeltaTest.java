@@ -0,0 +1,110 @@
+package com.lorely.content;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonDeltaTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldReturnNullForEqualDocuments() throws Exception {
+        JsonNode document = json("{\"a\":[1,2,{\"b\":true}]}");
+
+        assertThat(JsonDelta.diff(document, document.deepCopy())).isNull();
+    }
+
+    @Test
+    void shouldDescendIntoChangedTextNode() throws Exception {
+        JsonNode from = json(doc("The tower fell at dawn.", "Nobody survived."));
+        JsonNode to = json(doc("The tower fell at dusk.", "Nobody survived."));
+
+        ObjectNode delta = JsonDelta.diff(from, to);
+
+        assertThat(JsonDelta.apply(from, delta)).isEqualTo(to);
+        // Only the edited text node is spelled out, not the untouched paragraph
+        assertThat(delta.toString()).contains("dusk").doesNotContain("Nobody");
+    }
+
+    @Test
+    void shouldSpliceInsertedAndRemovedArrayElements() throws Exception {
+        JsonNode from = json("{\"items\":[1,2,3,4,5]}");
+        JsonNode to = json("{\"items\":[1,2,9,9,9,5]}");
+
+        ObjectNode delta = JsonDelta.diff(from, to);
+
+        assertThat(JsonDelta.apply(from, delta)).isEqualTo(to);
+        assertThat(delta.at("/o/items/s").toString()).isEqualTo("[2,2]");
+    }
+
+    @Test
+    void shouldAddReplaceAndRemoveMembers() throws Exception {
+        JsonNode from = json("{\"keep\":1,\"drop\":2,\"change\":\"a\"}");
+        JsonNode to = json("{\"keep\":1,\"change\":[\"b\"],\"add\":null}");
+
+        JsonNode result = JsonDelta.apply(from, JsonDelta.diff(from, to));
+
+        assertThat(result).isEqualTo(to);
+    }
+
+    @Test
+    void shouldNotMutateInputs() throws Exception {
+        JsonNode from = json(doc("First", "Second"));
+        JsonNode copy = from.deepCopy();
+        JsonNode to = json(doc("First!", "Third"));
+
+        JsonDelta.apply(from, JsonDelta.diff(from, to));
+
+        assertThat(from).isEqualTo(copy);
+    }
+
+    @Test
+    void shouldReplayChainOfDeltas() throws Exception {
+        Random random = new Random(42);
+        JsonNode current = json(doc("a", "b"));
+        JsonNode replayed = current;
+        for (int i = 0; i < 50; i++) {
+            String[] paragraphs = new String[1 + random.nextInt(5)];
+            for (int p = 0; p < paragraphs.length; p++) {
+                paragraphs[p] = "p" + random.nextInt(6);
+            }
+            JsonNode next = json(doc(paragraphs));
+            replayed = JsonDelta.apply(replayed, JsonDelta.diff(current, next));
+            current = next;
+            assertThat(replayed).isEqualTo(current);
+        }
+    }
+
+    @Test
+    void shouldRejectDeltaThatDoesNotFit() throws Exception {
+        ObjectNode delta = JsonDelta.diff(json("{\"a\":[1,2,3]}"), json("{\"a\":[1]}"));
+
+        assertThatThrownBy(() -> JsonDelta.apply(json("{\"a\":{}}"), delta))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // TipTap-style document with one paragraph per argument
+    private String doc(String... paragraphs) {
+        StringBuilder json = new StringBuilder("{\"body\":{\"type\":\"doc\",\"content\":[");
+        for (int i = 0; i < paragraphs.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"type\":\"paragraph\",\"content\":[{\"type\":\"text\",\"text\":\"")
+                    .append(paragraphs[i])
+                    .append("\"}]}");
+        }
+        return json.append("]}}").toString();
+    }
+
+    private JsonNode json(String value) throws Exception {
+        return objectMapper.readTree(value);
+    }
+}
@@ -0,0 +1,52 @@
+package com.lorely.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MentionExtractorTest {
+
+    private final UUID elara = UUID.randomUUID();
+    private final UUID arden = UUID.randomUUID();
+
+    @Test
+    void shouldExtractMentionsFromEditorHtml() {
+        String html = "<p>Hi <span data-type=\"mention\" class=\"mention\" data-id=\"" + elara + "\" data-label=\"Elara\">@Elara</span>"
+                + " rode to <span data-id=\"" + arden + "\" data-type=\"mention\">@Arden</span>.</p>"
+                + "<p><span data-type=\"mention\" data-id=\"" + elara + "\">@Elara</span> again</p>";
+
+        Map<UUID, MentionExtractor.Mention> mentions = MentionExtractor.extract(Map.of("text", html));
+
+        assertThat(mentions.keySet()).containsExactly(elara, arden);
+        assertThat(mentions.get(elara)).isEqualTo(new MentionExtractor.Mention(2, 3));
+        // "Hi @Elara rode to " is 18 visible characters
+        assertThat(mentions.get(arden)).isEqualTo(new MentionExtractor.Mention(1, 18));
+    }
+
+    @Test
+    void shouldExtractMentionNodesFromTipTapJson() {
+        Map<String, Object> doc = Map.of("type", "doc", "content", List.of(
+                Map.of("type", "paragraph", "content", List.of(
+                        Map.of("type", "text", "text", "Ask "),
+                        Map.of("type", "mention", "attrs", Map.of("id", elara.toString(), "label", "Elara")),
+                        Map.of("type", "text", "text", " about "),
+                        Map.of("type", "mention", "attrs", Map.of("id", arden.toString(), "label", "Arden"))))));
+
+        Map<UUID, MentionExtractor.Mention> mentions = MentionExtractor.extract(Map.of("body", doc));
+
+        assertThat(mentions.get(elara)).isEqualTo(new MentionExtractor.Mention(1, 4));
+        assertThat(mentions.get(arden)).isEqualTo(new MentionExtractor.Mention(1, 17));
+    }
+
+    @Test
+    void shouldIgnoreMalformedMentions() {
+        String html = "<p><span data-type=\"mention\" data-id=\"not-a-uuid\">@X</span> 3 < 4 <span data-type=\"mention\">@Y</span></p>";
+
+        assertThat(MentionExtractor.extract(Map.of("text", html))).isEmpty();
+        assertThat(MentionExtractor.extract(null)).isEmpty();
+    }
+}
@@ -1,32 +1,53 @@
 package com.lorely.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lorely.dto.request.AutosaveRequest;
 import com.lorely.dto.request.CreateEntityRequest;
 import com.lorely.dto.request.UpdateEntityRequest;
+import com.lorely.model.EntityRevision;
 import com.lorely.model.EntityType;
 import com.lorely.model.Project;
+import com.lorely.model.Tag;
 import com.lorely.model.User;
 import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityMentionRepository;
 import com.lorely.repository.EntityRepository;
+import com.lorely.repository.EntityRevisionRepository;
 import com.lorely.repository.ProjectRepository;
 import com.lorely.repository.RefreshTokenRepository;
+import com.lorely.repository.TagRepository;
 import com.lorely.repository.UserRepository;
 import com.lorely.security.JwtTokenProvider;
+import com.lorely.service.AutosaveService;
+import com.lorely.service.EntityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,9 +74,27 @@ class EntityControllerTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityRevisionRepository entityRevisionRepository;
+
+    @Autowired
+    private EntityMentionRepository entityMentionRepository;
+
+    @Autowired
+    private AutosaveService autosaveService;
+
+    @Autowired
+    private EntityService entityService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
 
@@ -65,7 +104,10 @@ class EntityControllerTest {
 
     @BeforeEach
     void setUp() {
+        entityRevisionRepository.deleteAll();
+        entityMentionRepository.deleteAll();
         entityRepository.deleteAll();
+        tagRepository.deleteAll();
         projectRepository.deleteAll();
         refreshTokenRepository.deleteAll();
         userRepository.deleteAll();
@@ -239,6 +281,95 @@ class EntityControllerTest {
                 .andExpect(jsonPath("$.totalElements").value(2));
     }
 
+    @Test
+    void shouldSearchTitlesInSimilarityMode() throws Exception {
+        entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Aragorn")
+                .build());
+
+        entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Rivendell")
+                .build());
+
+        // H2 has no pg_trgm, so this only covers the substring fallback (the trigram query logs a SQL error first).
+        // Routing and the threshold are unit-tested in PostgresSearchEngineTest; misspellings such as "Aragron"
+        // ranking "Aragorn" are only verified against PostgreSQL
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "ragor")
+                        .param("mode", "similarity"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Aragorn"));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "Aragorn")
+                        .param("mode", "fuzzy"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldSuggestEntitiesByTitleWordPrefix() throws Exception {
+        entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Gandalf the Grey")
+                .build());
+
+        entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Grey Havens")
+                .build());
+
+        WorldEntity gondor = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Gondor")
+                .build());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/suggest")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "grey"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Grey Havens"))
+                .andExpect(jsonPath("$[0].type").value("LOCATION"))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[1].title").value("Gandalf the Grey"));
+
+        // Renames reach the cached index through the change event
+        UpdateEntityRequest rename = UpdateEntityRequest.builder().title("Minas Tirith").build();
+        mockMvc.perform(put("/api/entities/" + gondor.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(rename)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/suggest")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "g"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/suggest")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "tir"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(gondor.getId().toString()));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/suggest")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "g")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void shouldGetEntityById() throws Exception {
         WorldEntity entity = entityRepository.save(WorldEntity.builder()
@@ -414,4 +545,841 @@ class EntityControllerTest {
                 .andExpect(jsonPath("$.page").value(0))
                 .andExpect(jsonPath("$.last").value(false));
     }
+
+    @Test
+    void shouldWalkEntitiesWithCursor() throws Exception {
+        // Duplicate titles exercise the id tiebreak between pages
+        for (String title : List.of("Delta", "Beta", "Alpha", "Beta", "Gamma")) {
+            entityRepository.save(WorldEntity.builder()
+                    .projectId(testProject.getId())
+                    .type(EntityType.CHARACTER)
+                    .title(title)
+                    .build());
+        }
+
+        List<String> titles = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/projects/" + testProject.getId() + "/entities/cursor")
+                    .header("Authorization", "Bearer " + accessToken)
+                    .param("size", "2")
+                    .param("sort", "title")
+                    .param("direction", "asc");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(entity -> {
+                titles.add(entity.get("title").asText());
+                ids.add(entity.get("id").asText());
+            });
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(titles).containsExactly("Alpha", "Beta", "Beta", "Delta", "Gamma");
+        assertThat(ids).hasSize(5);
+    }
+
+    @Test
+    void shouldRejectCursorForDifferentSort() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            entityRepository.save(WorldEntity.builder()
+                    .projectId(testProject.getId())
+                    .type(EntityType.CHARACTER)
+                    .title("Entity " + i)
+                    .build());
+        }
+
+        String body = mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/cursor")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.last").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/cursor")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("cursor", cursor)
+                        .param("sort", "createdAt"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/cursor")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldOmitContentInSummaryView() throws Exception {
+        Tag hero = tagRepository.save(Tag.builder()
+                .projectId(testProject.getId())
+                .name("hero")
+                .build());
+        Map<String, Object> content = new HashMap<>();
+        content.put("description", "A wise elven mage");
+        entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .content(content)
+                .tags(new HashSet<>(Set.of(hero)))
+                .build());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Elara"))
+                .andExpect(jsonPath("$.content[0].type").value("CHARACTER"))
+                .andExpect(jsonPath("$.content[0].tags[0].name").value("hero"))
+                .andExpect(jsonPath("$.content[0].updatedAt").exists())
+                .andExpect(jsonPath("$.content[0].content").doesNotExist());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "El")
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("Elara"))
+                .andExpect(jsonPath("$.content[0].content").doesNotExist());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].content.description").value("A wise elven mage"));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("view", "compact"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("fields", "title,type"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "El")
+                        .param("fields", "title"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldApplyBulkOperationsWithPerItemResults() throws Exception {
+        WorldEntity toUpdate = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Old Title")
+                .build());
+        WorldEntity toDelete = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Ruins")
+                .build());
+
+        String body = "{\"operations\":["
+                + "{\"action\":\"CREATE\",\"type\":\"CHARACTER\",\"title\":\"Orin\"},"
+                + "{\"action\":\"CREATE\",\"type\":\"ITEM\",\"title\":\"Sunblade\",\"content\":{\"rarity\":\"legendary\"}},"
+                + "{\"action\":\"UPDATE\",\"id\":\"" + toUpdate.getId() + "\",\"title\":\"New Title\"},"
+                + "{\"action\":\"DELETE\",\"id\":\"" + toDelete.getId() + "\"},"
+                + "{\"action\":\"CREATE\",\"type\":\"CHARACTER\"},"
+                + "{\"action\":\"DELETE\",\"id\":\"" + UUID.randomUUID() + "\"}"
+                + "]}";
+
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities/bulk")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(4))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("OK"))
+                .andExpect(jsonPath("$.results[0].id").exists())
+                .andExpect(jsonPath("$.results[2].id").value(toUpdate.getId().toString()))
+                .andExpect(jsonPath("$.results[4].status").value("ERROR"))
+                .andExpect(jsonPath("$.results[4].error").exists())
+                .andExpect(jsonPath("$.results[5].status").value("ERROR"));
+
+        assertThat(entityRepository.findById(toUpdate.getId()).orElseThrow().getTitle()).isEqualTo("New Title");
+        assertThat(entityRepository.findById(toDelete.getId())).isEmpty();
+        assertThat(entityRepository.findByProjectIdOrderByCreatedAtDesc(testProject.getId()))
+                .extracting(WorldEntity::getTitle)
+                .containsExactlyInAnyOrder("Orin", "Sunblade", "New Title");
+    }
+
+    @Test
+    void shouldRejectBulkRequestInOtherUsersProject() throws Exception {
+        User otherUser = userRepository.save(User.builder()
+                .email("bulk-other@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+        Project otherProject = projectRepository.save(Project.builder()
+                .ownerId(otherUser.getId())
+                .name("Other Project")
+                .build());
+
+        mockMvc.perform(post("/api/projects/" + otherProject.getId() + "/entities/bulk")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"CREATE\",\"type\":\"CHARACTER\",\"title\":\"Spy\"}]}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities/bulk")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldMergePatchContentInDatabase() throws Exception {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strength", 10);
+        stats.put("wisdom", 18);
+        Map<String, Object> content = new HashMap<>();
+        content.put("description", "A wise elven mage");
+        content.put("age", 300);
+        content.put("stats", stats);
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .content(content)
+                .build());
+
+        mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"Elara the Wise\",\"content\":{\"age\":null,\"stats\":{\"wisdom\":20},\"home\":\"Silverwood\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Elara the Wise"))
+                .andExpect(jsonPath("$.content").doesNotExist());
+
+        mockMvc.perform(get("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Elara the Wise"))
+                .andExpect(jsonPath("$.type").value("CHARACTER"))
+                .andExpect(jsonPath("$.content.description").value("A wise elven mage"))
+                .andExpect(jsonPath("$.content.age").doesNotExist())
+                .andExpect(jsonPath("$.content.stats.strength").value(10))
+                .andExpect(jsonPath("$.content.stats.wisdom").value(20))
+                .andExpect(jsonPath("$.content.home").value("Silverwood"));
+    }
+
+    @Test
+    void shouldRejectInvalidMergePatch() throws Exception {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .build());
+
+        mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":null}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"projectId\":\"" + UUID.randomUUID() + "\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch("/api/entities/" + UUID.randomUUID())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"Ghost\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldHonorETagPreconditions() throws Exception {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .build());
+
+        String etag = mockMvc.perform(get("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        UpdateEntityRequest request = UpdateEntityRequest.builder()
+                .title("Elara the Wise")
+                .build();
+        String newETag = mockMvc.perform(put("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newETag).isNotEqualTo(etag);
+
+        // A second tab still holding the old version is refused instead of overwriting
+        mockMvc.perform(put("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", etag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"content\":{\"mood\":\"calm\"}}"))
+                .andExpect(status().isPreconditionFailed());
+
+        String patchedETag = mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", newETag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"content\":{\"mood\":\"calm\"}}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(patchedETag).isNotEqualTo(newETag);
+
+        mockMvc.perform(get("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-None-Match", newETag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", patchedETag))
+                .andExpect(jsonPath("$.content.mood").value("calm"));
+    }
+
+    @Test
+    void shouldRecordCoalesceDiffAndRestoreRevisions() throws Exception {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Draft")
+                .content(new HashMap<>(Map.of("text", "first draft", "notes", "keep")))
+                .build());
+
+        updateContent(entity.getId(), "Chapter One", "second draft");
+        // Within the coalescing window, so this replaces revision 2 instead of adding one
+        updateContent(entity.getId(), "Chapter One", "third draft");
+
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].revision").value(2))
+                .andExpect(jsonPath("$[0].title").value("Chapter One"))
+                .andExpect(jsonPath("$[0].content").doesNotExist())
+                .andExpect(jsonPath("$[1].revision").value(1))
+                .andExpect(jsonPath("$[1].title").value("Draft"));
+
+        // Age revision 2 past the window so the next save starts a new revision
+        EntityRevision latest = entityRevisionRepository.findFirstByEntityIdOrderByRevisionNumberDesc(entity.getId()).orElseThrow();
+        latest.setCreatedAt(Instant.now().minusSeconds(3600));
+        entityRevisionRepository.save(latest);
+        updateContent(entity.getId(), "Chapter One", "fourth draft");
+
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/1")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.text").value("first draft"))
+                .andExpect(jsonPath("$.content.notes").value("keep"));
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/2")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.text").value("third draft"));
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/3")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.text").value("fourth draft"));
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/4")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/diff")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("from", "1")
+                        .param("to", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromTitle").value("Draft"))
+                .andExpect(jsonPath("$.toTitle").value("Chapter One"))
+                .andExpect(jsonPath("$.contentDelta.o.text.v").value("fourth draft"))
+                .andExpect(jsonPath("$.contentDelta.o.notes").doesNotExist());
+
+        mockMvc.perform(post("/api/entities/" + entity.getId() + "/revisions/1/restore")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.title").value("Draft"))
+                .andExpect(jsonPath("$.content.text").value("first draft"));
+
+        // The restore is a new revision; the drafts after revision 1 are still there
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].title").value("Draft"));
+    }
+
+    @Test
+    void shouldRecordRevisionsForPatchAndBulkUpdates() throws Exception {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Draft")
+                .content(new HashMap<>(Map.of("text", "first draft")))
+                .build());
+
+        mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"content\":{\"text\":\"second draft\"}}"))
+                .andExpect(status().isOk());
+        // Coalesced into the patch's revision
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities/bulk")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[{\"action\":\"UPDATE\",\"id\":\"" + entity.getId()
+                                + "\",\"title\":\"Chapter One\",\"content\":{\"text\":\"third draft\"}}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1));
+
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].title").value("Chapter One"));
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/1")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(jsonPath("$.content.text").value("first draft"));
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions/2")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(jsonPath("$.content.text").value("third draft"));
+    }
+
+    private void updateContent(UUID entityId, String title, String text) throws Exception {
+        UpdateEntityRequest request = UpdateEntityRequest.builder()
+                .title(title)
+                .content(new HashMap<>(Map.of("text", text, "notes", "keep")))
+                .build();
+        mockMvc.perform(put("/api/entities/" + entityId)
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldStoreLargeChapterContentCompressed() throws Exception {
+        StringBuilder html = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            html.append("<p>The <strong>tower</strong> fell at dawn on day ").append(i).append(".</p>");
+        }
+        CreateEntityRequest request = CreateEntityRequest.builder()
+                .type(EntityType.CHAPTER)
+                .title("The Siege")
+                .content(Map.of("text", html.toString()))
+                .build();
+
+        String body = mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.content.text").value(html.toString()))
+                .andReturn().getResponse().getContentAsString();
+        UUID id = UUID.fromString(objectMapper.readTree(body).get("id").asText());
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT content, content_compressed, content_text FROM entities WHERE id = ?", id);
+        // H2 keeps a null JSON attribute as the JSON literal null rather than SQL NULL
+        assertThat(row.get("content")).satisfiesAnyOf(
+                content -> assertThat(content).isNull(),
+                content -> assertThat(new String((byte[]) content)).isEqualTo("null"));
+        assertThat((byte[]) row.get("content_compressed")).hasSizeLessThan(html.length() / 4);
+        assertThat(row.get("content_text").toString()).contains("fell at dawn on day 49");
+
+        mockMvc.perform(get("/api/entities/" + id)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.text").value(html.toString()));
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].title").value("The Siege"));
+
+        // Compressed content is merged in memory and re-encoded
+        mockMvc.perform(patch("/api/entities/" + id)
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"content\":{\"pov\":\"Elara\"}}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/entities/" + id)
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.pov").value("Elara"))
+                .andExpect(jsonPath("$.content.text").value(html.toString()));
+
+        // Shrinking below the threshold moves the content back to the jsonb column
+        updateContent(id, "The Siege", "<p>Short.</p>");
+        row = jdbcTemplate.queryForMap("SELECT content, content_compressed FROM entities WHERE id = ?", id);
+        assertThat(new String((byte[]) row.get("content"))).contains("Short.");
+        assertThat(row.get("content_compressed")).isNull();
+    }
+
+    @Test
+    void shouldIndexMentionsAndListBacklinks() throws Exception {
+        WorldEntity elara = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .build());
+        WorldEntity chapter = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHAPTER)
+                .title("Chapter One")
+                .build());
+        String mention = "<span data-type=\"mention\" data-id=\"" + elara.getId() + "\">@Elara</span>";
+
+        UpdateEntityRequest update = UpdateEntityRequest.builder()
+                .title("Chapter One")
+                .content(Map.of("text", "<p>" + mention + " wakes. Later " + mention + " sleeps.</p>"))
+                .build();
+        mockMvc.perform(put("/api/entities/" + chapter.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        CreateEntityRequest request = CreateEntityRequest.builder()
+                .type(EntityType.LOCATION)
+                .title("Silverwood")
+                .content(Map.of("text", "<p>Home of " + mention + " and of <span data-type=\"mention\" data-id=\""
+                        + UUID.randomUUID() + "\">@Nobody</span></p>"))
+                .build();
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/backlinks")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].entityId").value(chapter.getId().toString()))
+                .andExpect(jsonPath("$[0].mentionCount").value(2))
+                .andExpect(jsonPath("$[0].firstOffset").value(0))
+                .andExpect(jsonPath("$[1].title").value("Silverwood"))
+                .andExpect(jsonPath("$[1].firstOffset").value(8));
+
+        // Removing the mentions from the chapter drops it from the backlinks
+        mockMvc.perform(patch("/api/entities/" + chapter.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"content\":{\"text\":\"<p>Nobody here.</p>\"}}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/backlinks")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Silverwood"));
+    }
+
+    @Test
+    void shouldBufferAutosavesAndFlushThem() throws Exception {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHAPTER)
+                .title("Chapter One")
+                .content(Map.of("text", "<p>first</p>"))
+                .build());
+        long version = entity.getVersion();
+
+        for (String text : List.of("<p>first draft</p>", "<p>first draft, longer</p>")) {
+            mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                            .header("Authorization", "Bearer " + accessToken)
+                            .header("If-Match", "\"" + version + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    AutosaveRequest.builder().title("Dawn").content(Map.of("text", text)).build())))
+                    .andExpect(status().isAccepted());
+        }
+        // Not due yet, so nothing has been written
+        autosaveService.flushDue();
+        assertThat(entityRepository.findById(entity.getId()).orElseThrow().getVersion()).isEqualTo(version);
+
+        // Reading flushes the latest draft in a single write
+        mockMvc.perform(get("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Dawn"))
+                .andExpect(jsonPath("$.content.text").value("<p>first draft, longer</p>"))
+                .andExpect(jsonPath("$.version").value(version + 1));
+
+        // Title is optional and kept as is; "save now" writes immediately
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", "\"" + (version + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"text\":\"<p>second</p>\"}}"))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(post("/api/entities/" + entity.getId() + "/autosave/flush")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (version + 2) + "\""))
+                .andExpect(jsonPath("$.title").value("Dawn"))
+                .andExpect(jsonPath("$.content.text").value("<p>second</p>"));
+
+        // Due drafts are flushed in the background
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", "\"" + (version + 2) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"text\":\"<p>third</p>\"}}"))
+                .andExpect(status().isAccepted());
+        long flushIntervalMs = (long) ReflectionTestUtils.getField(autosaveService, "flushIntervalMs");
+        ReflectionTestUtils.setField(autosaveService, "flushIntervalMs", 0L);
+        try {
+            autosaveService.flushDue();
+        } finally {
+            ReflectionTestUtils.setField(autosaveService, "flushIntervalMs", flushIntervalMs);
+        }
+        assertThat(entityRepository.findById(entity.getId()).orElseThrow().getContent())
+                .containsEntry("text", "<p>third</p>");
+
+        // A full buffer writes through; the editor was not told about the background write, so its base is rebased
+        int maxEntries = (int) ReflectionTestUtils.getField(autosaveService, "maxEntries");
+        ReflectionTestUtils.setField(autosaveService, "maxEntries", 0);
+        try {
+            mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                            .header("Authorization", "Bearer " + accessToken)
+                            .header("If-Match", "\"" + (version + 2) + "\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"content\":{\"text\":\"<p>fourth</p>\"}}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content.text").value("<p>fourth</p>"));
+        } finally {
+            ReflectionTestUtils.setField(autosaveService, "maxEntries", maxEntries);
+        }
+    }
+
+    @Test
+    void shouldNotLetAutosavesOverwriteChangesTheyHaveNotSeen() throws Exception {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHAPTER)
+                .title("Chapter One")
+                .content(Map.of("text", "<p>first</p>"))
+                .build());
+        String eTag = "\"" + entity.getVersion() + "\"";
+
+        // Drafts must name their base version, and one entity's drafts must share it
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"text\":\"<p>tab a</p>\"}}"))
+                .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Tab A\",\"content\":{\"text\":\"<p>tab a</p>\"}}"))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", "\"" + (entity.getVersion() + 5) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"text\":\"<p>tab b</p>\"}}"))
+                .andExpect(status().isPreconditionFailed());
+
+        // A PUT from the same editor supersedes its draft: no 412 from the draft's write, and no extra revision
+        mockMvc.perform(put("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"CHAPTER\",\"title\":\"Saved\",\"content\":{\"text\":\"<p>saved</p>\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (entity.getVersion() + 1) + "\""))
+                .andExpect(jsonPath("$.title").value("Saved"));
+        assertThat(autosaveService.flush(entity.getId())).isEmpty();
+        mockMvc.perform(get("/api/entities/" + entity.getId() + "/revisions")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(jsonPath("$.length()").value(2));
+
+        // A PATCH writes the draft first and is checked against the version the draft was based on
+        String savedETag = "\"" + (entity.getVersion() + 1) + "\"";
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", savedETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"text\":\"<p>drafted</p>\",\"mood\":\"calm\"}}"))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(patch("/api/entities/" + entity.getId())
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", savedETag)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\":\"Patched\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (entity.getVersion() + 3) + "\""));
+        assertThat(entityRepository.findById(entity.getId()).orElseThrow().getContent())
+                .containsEntry("text", "<p>drafted</p>");
+
+        // A draft based on a version someone else has since replaced is dropped instead of written over it
+        String patchedETag = "\"" + (entity.getVersion() + 3) + "\"";
+        mockMvc.perform(put("/api/entities/" + entity.getId() + "/autosave")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("If-Match", patchedETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\":{\"text\":\"<p>stale</p>\"}}"))
+                .andExpect(status().isAccepted());
+        entityService.patchEntity(entity.getId(), Map.of("title", "Other Tab"), null);
+        mockMvc.perform(post("/api/entities/" + entity.getId() + "/autosave/flush")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isPreconditionFailed());
+        assertThat(autosaveService.flush(entity.getId())).isEmpty();
+        assertThat(entityRepository.findById(entity.getId()).orElseThrow().getContent())
+                .containsEntry("text", "<p>drafted</p>");
+    }
+
+    @Test
+    void shouldDropAutosaveThatKeepsFailing() {
+        WorldEntity entity = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHAPTER)
+                .title("Dawn")
+                .build());
+        // Longer than the column allows, so every write fails
+        autosaveService.buffer(entity.getId(), entity.getVersion(), "x".repeat(300), Map.of("text", "<p>lost</p>"));
+
+        int maxFlushAttempts = (int) ReflectionTestUtils.getField(autosaveService, "maxFlushAttempts");
+        ReflectionTestUtils.setField(autosaveService, "maxFlushAttempts", 2);
+        try {
+            assertThatThrownBy(() -> autosaveService.flush(entity.getId())).isInstanceOf(RuntimeException.class);
+            assertThatThrownBy(() -> autosaveService.flush(entity.getId())).isInstanceOf(RuntimeException.class);
+            assertThat(autosaveService.flush(entity.getId())).isEmpty();
+        } finally {
+            ReflectionTestUtils.setField(autosaveService, "maxFlushAttempts", maxFlushAttempts);
+        }
+        assertThat(entityRepository.findById(entity.getId()).orElseThrow().getTitle()).isEqualTo("Dawn");
+    }
+
+    @Test
+    void shouldCountFacetsForCurrentFilters() throws Exception {
+        Tag hero = tagRepository.save(Tag.builder().projectId(testProject.getId()).name("hero").build());
+        Tag villain = tagRepository.save(Tag.builder().projectId(testProject.getId()).name("villain").build());
+        saveTagged(EntityType.CHARACTER, "Elara", hero);
+        saveTagged(EntityType.CHARACTER, "Morwen", villain);
+        saveTagged(EntityType.LOCATION, "Silverwood", hero);
+        UUID dawn = saveTagged(EntityType.CHAPTER, "Dawn").getId();
+        WorldEntity ruin = saveTagged(EntityType.LOCATION, "Old Ruin");
+        ruin.setDeletedAt(Instant.now());
+        entityRepository.save(ruin);
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/facets")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.types.CHARACTER").value(2))
+                .andExpect(jsonPath("$.types.LOCATION").value(1))
+                .andExpect(jsonPath("$.types.CHAPTER").value(1))
+                .andExpect(jsonPath("$.tags['" + hero.getId() + "']").value(2))
+                .andExpect(jsonPath("$.tags['" + villain.getId() + "']").value(1));
+
+        // Each facet ignores its own filter
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/facets")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("tagId", hero.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.types.CHARACTER").value(1))
+                .andExpect(jsonPath("$.types.LOCATION").value(1))
+                .andExpect(jsonPath("$.types.CHAPTER").doesNotExist())
+                .andExpect(jsonPath("$.tags['" + villain.getId() + "']").value(1));
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/facets")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("type", "CHARACTER")
+                        .param("q", "wood"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0))
+                .andExpect(jsonPath("$.types.LOCATION").value(1))
+                .andExpect(jsonPath("$.tags.length()").value(0));
+
+        // Tagging an entity invalidates the cached counts
+        mockMvc.perform(post("/api/entities/" + dawn + "/tags/" + villain.getId())
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/facets")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags['" + villain.getId() + "']").value(2));
+    }
+
+    @Test
+    void shouldFilterByCombinedTagsAndType() throws Exception {
+        Tag hero = tagRepository.save(Tag.builder().projectId(testProject.getId()).name("hero").build());
+        Tag villain = tagRepository.save(Tag.builder().projectId(testProject.getId()).name("villain").build());
+        Tag royal = tagRepository.save(Tag.builder().projectId(testProject.getId()).name("royal").build());
+        WorldEntity elara = saveTagged(EntityType.CHARACTER, "Elara", hero, royal);
+        WorldEntity morwen = saveTagged(EntityType.CHARACTER, "Morwen", villain, royal);
+        WorldEntity arden = saveTagged(EntityType.CHARACTER, "Arden", hero);
+        saveTagged(EntityType.LOCATION, "Castle", royal);
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("type", "CHARACTER")
+                        .param("tagId", royal.getId().toString())
+                        .param("sort", "title")
+                        .param("direction", "asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Elara"))
+                .andExpect(jsonPath("$.content[1].title").value("Morwen"));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("anyTags", hero.getId() + "," + villain.getId())
+                        .param("noneTags", royal.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(arden.getId().toString()));
+
+        // Tag changes reach the cached index
+        mockMvc.perform(delete("/api/entities/" + elara.getId() + "/tags/" + royal.getId())
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("allTags", royal.getId().toString())
+                        .param("type", "CHARACTER")
+                        .param("view", "summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(morwen.getId().toString()));
+    }
+
+    private WorldEntity saveTagged(EntityType type, String title, Tag... tags) {
+        return entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(type)
+                .title(title)
+                .tags(new HashSet<>(Set.of(tags)))
+                .build());
+    }
 }
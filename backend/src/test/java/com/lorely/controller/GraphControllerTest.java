@@ -0,0 +1,441 @@
+package com.lorely.controller;
+
+import com.lorely.model.EntityType;
+import com.lorely.model.Link;
+import com.lorely.model.Project;
+import com.lorely.model.Relationship;
+import com.lorely.model.Tag;
+import com.lorely.model.User;
+import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityLayoutRepository;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.LinkRepository;
+import com.lorely.repository.ProjectRepository;
+import com.lorely.repository.RefreshTokenRepository;
+import com.lorely.repository.RelationshipRepository;
+import com.lorely.repository.TagRepository;
+import com.lorely.repository.UserRepository;
+import com.lorely.security.JwtTokenProvider;
+import com.lorely.graph.ProjectGraph;
+import com.lorely.service.GraphIndexService;
+import com.lorely.service.GraphLayoutService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class GraphControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityRepository entityRepository;
+
+    @Autowired
+    private RelationshipRepository relationshipRepository;
+
+    @Autowired
+    private LinkRepository linkRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private EntityLayoutRepository entityLayoutRepository;
+
+    @Autowired
+    private GraphLayoutService graphLayoutService;
+
+    @Autowired
+    private GraphIndexService graphIndexService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private Project testProject;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        entityLayoutRepository.deleteAll();
+        relationshipRepository.deleteAll();
+        linkRepository.deleteAll();
+        entityRepository.deleteAll();
+        tagRepository.deleteAll();
+        projectRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User testUser = userRepository.save(User.builder()
+                .email("graph-test@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+
+        testProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Graph Project")
+                .build());
+
+        accessToken = jwtTokenProvider.generateAccessToken(testUser.getId(), testUser.getEmail());
+    }
+
+    @Test
+    void shouldReturnNodesAndEdgesInOnePayload() throws Exception {
+        Tag hero = tagRepository.save(Tag.builder()
+                .projectId(testProject.getId())
+                .name("hero")
+                .build());
+
+        WorldEntity elara = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .tags(Set.of(hero))
+                .build());
+
+        WorldEntity tower = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("The Tower")
+                .build());
+
+        relationshipRepository.save(Relationship.builder()
+                .projectId(testProject.getId())
+                .fromEntityId(elara.getId())
+                .toEntityId(tower.getId())
+                .relationType("LOCATED_IN")
+                .build());
+
+        linkRepository.save(Link.builder()
+                .projectId(testProject.getId())
+                .fromEntityId(tower.getId())
+                .toEntityId(elara.getId())
+                .build());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/graph")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodes.length()").value(2))
+                .andExpect(jsonPath("$.nodes[*].title", containsInAnyOrder("Elara", "The Tower")))
+                .andExpect(jsonPath("$.nodes[?(@.title == 'Elara')].tagIds[0]").value(hero.getId().toString()))
+                .andExpect(jsonPath("$.nodes[0].content").doesNotExist())
+                .andExpect(jsonPath("$.edges.length()").value(2))
+                .andExpect(jsonPath("$.edges[*].kind", containsInAnyOrder("RELATIONSHIP", "LINK")))
+                .andExpect(jsonPath("$.edges[?(@.kind == 'RELATIONSHIP')].relationType").value("LOCATED_IN"));
+    }
+
+    @Test
+    void shouldDropEdgesToSoftDeletedEntities() throws Exception {
+        WorldEntity elara = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara")
+                .build());
+
+        WorldEntity ghost = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Ghost")
+                .deletedAt(Instant.now())
+                .build());
+
+        relationshipRepository.save(Relationship.builder()
+                .projectId(testProject.getId())
+                .fromEntityId(elara.getId())
+                .toEntityId(ghost.getId())
+                .relationType("FRIEND_OF")
+                .build());
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/graph")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodes.length()").value(1))
+                .andExpect(jsonPath("$.edges.length()").value(0));
+    }
+
+    @Test
+    void shouldReturnNeighborhoodWithinDepth() throws Exception {
+        WorldEntity elara = saveCharacter("Elara");
+        WorldEntity marcus = saveCharacter("Marcus");
+        WorldEntity selene = saveCharacter("Selene");
+        WorldEntity orin = saveCharacter("Orin");
+
+        saveRelationship(elara, marcus, "FRIEND_OF");
+        saveRelationship(selene, marcus, "SIBLING_OF");
+        saveRelationship(selene, orin, "ENEMY_OF");
+        linkRepository.save(Link.builder()
+                .projectId(testProject.getId())
+                .fromEntityId(orin.getId())
+                .toEntityId(elara.getId())
+                .build());
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/neighborhood")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("depth", "2")
+                        .param("types", "FRIEND_OF", "SIBLING_OF", "ENEMY_OF"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.truncated").value(false))
+                .andExpect(jsonPath("$.nodes[*].title", containsInAnyOrder("Elara", "Marcus", "Selene")))
+                .andExpect(jsonPath("$.edges.length()").value(2));
+
+        // Links are followed alongside the given types only when asked for
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/neighborhood")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("depth", "1")
+                        .param("types", "FRIEND_OF")
+                        .param("links", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodes[*].title", containsInAnyOrder("Elara", "Marcus", "Orin")));
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/neighborhood")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("depth", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nodes[*].title", containsInAnyOrder("Elara", "Marcus", "Orin")))
+                .andExpect(jsonPath("$.edges[*].kind", containsInAnyOrder("RELATIONSHIP", "LINK")));
+    }
+
+    @Test
+    void shouldTruncateNeighborhoodAtNodeLimit() throws Exception {
+        WorldEntity elara = saveCharacter("Elara");
+        saveRelationship(elara, saveCharacter("Marcus"), "FRIEND_OF");
+        saveRelationship(elara, saveCharacter("Selene"), "FRIEND_OF");
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/neighborhood")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.truncated").value(true))
+                .andExpect(jsonPath("$.nodes.length()").value(2));
+    }
+
+    @Test
+    void shouldRejectNeighborhoodDepthOutOfRange() throws Exception {
+        WorldEntity elara = saveCharacter("Elara");
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/neighborhood")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("depth", "9"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldReturnShortestPathWithRelationTypes() throws Exception {
+        WorldEntity elara = saveCharacter("Elara");
+        WorldEntity marcus = saveCharacter("Marcus");
+        WorldEntity selene = saveCharacter("Selene");
+        saveRelationship(elara, marcus, "FRIEND_OF");
+        saveRelationship(selene, marcus, "SIBLING_OF");
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/paths")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("to", selene.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length").value(2))
+                .andExpect(jsonPath("$.paths.length()").value(1))
+                .andExpect(jsonPath("$.paths[0].entityIds[1]").value(marcus.getId().toString()))
+                .andExpect(jsonPath("$.paths[0].edges[0].relationType").value("FRIEND_OF"))
+                .andExpect(jsonPath("$.paths[0].edges[1].relationType").value("SIBLING_OF"))
+                .andExpect(jsonPath("$.nodes.length()").value(3));
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/paths")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("to", selene.getId().toString())
+                        .param("types", "FRIEND_OF"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length").doesNotExist())
+                .andExpect(jsonPath("$.paths.length()").value(0));
+    }
+
+    @Test
+    void shouldShipPersistedLayoutAndOnlySettleAroundChanges() throws Exception {
+        WorldEntity elara = saveCharacter("Elara");
+        WorldEntity marcus = saveCharacter("Marcus");
+        WorldEntity selene = saveCharacter("Selene");
+        saveRelationship(elara, marcus, "FRIEND_OF");
+
+        // Reads never compute or store a layout; unplaced entities get a provisional, stable spot
+        JsonNode provisional = fetchGraphNodes();
+        assertThat(provisional).hasSize(3);
+        provisional.forEach(node -> {
+            assertThat(node.get("x").isNumber()).isTrue();
+            assertThat(node.get("y").isNumber()).isTrue();
+        });
+        assertThat(fetchGraphNodes()).isEqualTo(provisional);
+        assertThat(entityLayoutRepository.findByProjectId(testProject.getId())).isEmpty();
+
+        graphLayoutService.settleDirtyProjects();
+        JsonNode first = fetchGraphNodes();
+        assertThat(entityLayoutRepository.findByProjectId(testProject.getId())).hasSize(3);
+        assertThat(fetchGraphNodes()).isEqualTo(first);
+
+        String created = mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"CHARACTER\",\"title\":\"Orin\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String orinId = objectMapper.readTree(created).get("id").asText();
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/relationships")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromEntityId\":\"" + orinId + "\",\"toEntityId\":\"" + elara.getId()
+                                + "\",\"relationType\":\"MENTOR_OF\"}"))
+                .andExpect(status().isCreated());
+
+        assertThat(findNode(fetchGraphNodes(), orinId).get("x").isNumber()).isTrue();
+        graphLayoutService.settleDirtyProjects();
+
+        JsonNode second = fetchGraphNodes();
+        assertThat(second).hasSize(4);
+        // Selene is outside the neighbourhood of the change and keeps its position
+        assertThat(findNode(second, selene.getId().toString())).isEqualTo(findNode(first, selene.getId().toString()));
+        assertThat(findNode(second, orinId).get("x").isNumber()).isTrue();
+        assertThat(entityLayoutRepository.findByProjectId(testProject.getId())).hasSize(4);
+    }
+
+    @Test
+    void shouldPatchCachedGraphOnceAfterBulkCreate() throws Exception {
+        WorldEntity elara = saveCharacter("Elara");
+        ProjectGraph before = graphIndexService.getGraph(testProject.getId());
+
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities/bulk")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":["
+                                + "{\"action\":\"CREATE\",\"type\":\"CHARACTER\",\"title\":\"Marcus\"},"
+                                + "{\"action\":\"CREATE\",\"type\":\"CHARACTER\",\"title\":\"Selene\"},"
+                                + "{\"action\":\"CREATE\",\"type\":\"CHARACTER\",\"title\":\"Orin\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(3));
+
+        ProjectGraph after = graphIndexService.getGraph(testProject.getId());
+        assertThat(before.nodeCount()).isEqualTo(1);
+        assertThat(after.nodeCount()).isEqualTo(4);
+        assertThat(after.ordinal(elara.getId())).isZero();
+    }
+
+    @Test
+    void shouldSuggestSimilarEntitiesNotYetConnected() throws Exception {
+        WorldEntity elara = saveCharacter("Elara", "A wizard of the northern tower who studies starlight and ancient runes.");
+        WorldEntity marcus = saveCharacter("Marcus", "A wizard apprentice studying ancient runes in the tower.");
+        WorldEntity tobin = saveCharacter("Tobin", "Keeper of the ancient runes.");
+        saveCharacter("Selene", "Reads ancient runes by starlight from her tower.");
+        saveCharacter("Orin", "A blacksmith forging swords in the harbor town.");
+        saveRelationship(marcus, elara, "APPRENTICE_OF");
+        linkRepository.save(Link.builder()
+                .projectId(testProject.getId())
+                .fromEntityId(elara.getId())
+                .toEntityId(tobin.getId())
+                .build());
+
+        // Marcus and Tobin are already connected; Orin shares no words with Elara
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/similar")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Selene"))
+                .andExpect(jsonPath("$[0].score").isNumber());
+
+        // Entities written through the API are picked up by the loaded index
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/entities")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "type", "CHARACTER",
+                                "title", "Vesper",
+                                "content", Map.of("description", "Charts starlight over the northern tower.")))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/similar")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].title", containsInAnyOrder("Selene", "Vesper")));
+
+        mockMvc.perform(get("/api/entities/" + elara.getId() + "/similar")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("limit", "51"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode fetchGraphNodes() throws Exception {
+        String body = mockMvc.perform(get("/api/projects/" + testProject.getId() + "/graph")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("nodes");
+    }
+
+    private JsonNode findNode(JsonNode nodes, String id) {
+        for (JsonNode node : nodes) {
+            if (node.get("id").asText().equals(id)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private WorldEntity saveCharacter(String title) {
+        return entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title(title)
+                .build());
+    }
+
+    private WorldEntity saveCharacter(String title, String description) {
+        return entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title(title)
+                .content(Map.of("description", description))
+                .build());
+    }
+
+    private void saveRelationship(WorldEntity from, WorldEntity to, String relationType) {
+        relationshipRepository.save(Relationship.builder()
+                .projectId(testProject.getId())
+                .fromEntityId(from.getId())
+                .toEntityId(to.getId())
+                .relationType(relationType)
+                .build());
+    }
+}
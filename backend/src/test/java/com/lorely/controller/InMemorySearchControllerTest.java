@@ -0,0 +1,150 @@
+package com.lorely.controller;
+
+import com.lorely.model.EntityType;
+import com.lorely.model.Project;
+import com.lorely.model.User;
+import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.ProjectRepository;
+import com.lorely.repository.RefreshTokenRepository;
+import com.lorely.repository.SearchIndexQueueRepository;
+import com.lorely.repository.UserRepository;
+import com.lorely.security.JwtTokenProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.search.engine=memory")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class InMemorySearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityRepository entityRepository;
+
+    @Autowired
+    private SearchIndexQueueRepository searchIndexQueueRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private Project testProject;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        searchIndexQueueRepository.deleteAll();
+        // Repository deletes would skip soft-deleted rows
+        jdbcTemplate.update("DELETE FROM entities");
+        jdbcTemplate.update("DELETE FROM projects");
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User testUser = userRepository.save(User.builder()
+                .email("test@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+
+        testProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Test Project")
+                .build());
+
+        accessToken = jwtTokenProvider.generateAccessToken(testUser.getId(), testUser.getEmail());
+    }
+
+    @Test
+    void shouldSearchContentWithTyposAndHighlights() throws Exception {
+        saveEntity("Aragorn", "Heir of Isildur, raised in Rivendell.");
+        saveEntity("Rivendell", "The Last Homely House, hidden in a valley.");
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "rivendel"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Rivendell"))
+                .andExpect(jsonPath("$.content[1].title").value("Aragorn"))
+                .andExpect(jsonPath("$.content[1].highlight").value("Heir of Isildur, raised in <b>Rivendell</b>."));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "\"homely house\" -isildur"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Rivendell"));
+    }
+
+    @Test
+    void shouldPickUpChangesAndRebuildOnDemand() throws Exception {
+        WorldEntity aragorn = saveEntity("Aragorn", "A ranger of the North.");
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "ranger"))
+                .andExpect(jsonPath("$.totalElements").value(1));
+
+        // Deleting through the API marks the entity dirty in the loaded index
+        mockMvc.perform(delete("/api/entities/" + aragorn.getId())
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "ranger"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+
+        // Writes that bypass the service are only seen after a rebuild
+        saveEntity("Strider", "Another ranger.");
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "ranger"))
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/search/reindex")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/entities/search")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .param("q", "ranger"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Strider"));
+    }
+
+    private WorldEntity saveEntity(String title, String description) {
+        return entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title(title)
+                .content(Map.of("description", description))
+                .build());
+    }
+}
@@ -0,0 +1,196 @@
+package com.lorely.controller;
+
+import com.lorely.model.EntityType;
+import com.lorely.model.Project;
+import com.lorely.model.SearchIndexQueueEntry;
+import com.lorely.model.User;
+import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.ProjectRepository;
+import com.lorely.repository.RefreshTokenRepository;
+import com.lorely.repository.SearchIndexQueueRepository;
+import com.lorely.repository.UserRepository;
+import com.lorely.security.JwtTokenProvider;
+import com.lorely.service.SearchIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityRepository entityRepository;
+
+    @Autowired
+    private SearchIndexQueueRepository searchIndexQueueRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User testUser;
+    private Project testProject;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        // search_vector is PostgreSQL-only and unmapped, so Hibernate does not create it in H2
+        jdbcTemplate.execute("ALTER TABLE entities ADD COLUMN IF NOT EXISTS search_vector VARCHAR");
+        searchIndexQueueRepository.deleteAll();
+        // Repository deletes would skip soft-deleted rows
+        jdbcTemplate.update("DELETE FROM entities");
+        jdbcTemplate.update("DELETE FROM projects");
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = userRepository.save(User.builder()
+                .email("test@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+
+        testProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Test Project")
+                .build());
+
+        accessToken = jwtTokenProvider.generateAccessToken(testUser.getId(), testUser.getEmail());
+    }
+
+    @Test
+    void shouldQueueProjectForReindexOnce() throws Exception {
+        saveEntity(testProject, "Elara");
+        saveEntity(testProject, "Marcus");
+        Project otherProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Other Project")
+                .build());
+        saveEntity(otherProject, "Arden");
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/search/index")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pending").value(0))
+                .andExpect(jsonPath("$.lagMs").doesNotExist());
+
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/search/reindex")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.pending").value(2))
+                .andExpect(jsonPath("$.oldestEnqueuedAt").exists())
+                .andExpect(jsonPath("$.lagMs").exists());
+
+        // Entities already queued are not queued twice
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/search/reindex")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.pending").value(2));
+        assertThat(searchIndexQueueRepository.count()).isEqualTo(2);
+
+    }
+
+    @Test
+    void shouldDrainQueueAndRebuildVectorsOfDequeuedEntities() throws Exception {
+        UUID elara = saveEntity(testProject, "Elara");
+        UUID marcus = saveEntity(testProject, "Marcus");
+        mockMvc.perform(post("/api/projects/" + testProject.getId() + "/search/reindex")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.pending").value(2));
+
+        searchIndexService.processQueue();
+
+        assertThat(searchIndexQueueRepository.count()).isZero();
+        assertThat(searchVector(elara)).startsWith("Elara");
+        assertThat(searchVector(marcus)).startsWith("Marcus");
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/search/index")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(jsonPath("$.pending").value(0));
+    }
+
+    @Test
+    void shouldKeepEntriesEnqueuedAfterTheBatchWasRead() {
+        UUID elara = saveEntity(testProject, "Elara");
+        Instant read = Instant.now().minusSeconds(60);
+        searchIndexQueueRepository.save(SearchIndexQueueEntry.builder()
+                .entityId(elara)
+                .enqueuedAt(Instant.now())
+                .build());
+
+        // As if Elara was re-enqueued between the worker reading its batch and deleting it
+        Integer deleted = new TransactionTemplate(transactionManager)
+                .execute(status -> searchIndexQueueRepository.deleteDequeued(List.of(elara), read));
+        assertThat(deleted).isZero();
+        assertThat(searchIndexQueueRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotReindexOtherUsersProjects() throws Exception {
+        User otherUser = userRepository.save(User.builder()
+                .email("other@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+        Project otherProject = projectRepository.save(Project.builder()
+                .ownerId(otherUser.getId())
+                .name("Other Project")
+                .build());
+
+        mockMvc.perform(post("/api/projects/" + otherProject.getId() + "/search/reindex")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+    }
+
+    private UUID saveEntity(Project project, String title) {
+        return entityRepository.save(WorldEntity.builder()
+                .projectId(project.getId())
+                .type(EntityType.CHARACTER)
+                .title(title)
+                .build()).getId();
+    }
+
+    private String searchVector(UUID entityId) {
+        return jdbcTemplate.queryForObject("SELECT search_vector FROM entities WHERE id = ?", String.class, entityId);
+    }
+}
@@ -0,0 +1,173 @@
+package com.lorely.controller;
+
+import com.lorely.model.EntityType;
+import com.lorely.model.Project;
+import com.lorely.model.User;
+import com.lorely.model.WorldEntity;
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.ProjectRepository;
+import com.lorely.repository.RefreshTokenRepository;
+import com.lorely.repository.UserRepository;
+import com.lorely.security.JwtTokenProvider;
+import com.lorely.service.TrashService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TrashControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EntityRepository entityRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TrashService trashService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    private User testUser;
+    private Project testProject;
+    private String accessToken;
+
+    @BeforeEach
+    void setUp() {
+        // Repository deletes would skip soft-deleted rows
+        jdbcTemplate.update("DELETE FROM entities");
+        jdbcTemplate.update("DELETE FROM projects");
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+
+        testUser = userRepository.save(User.builder()
+                .email("test@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+
+        testProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Test Project")
+                .build());
+
+        accessToken = jwtTokenProvider.generateAccessToken(testUser.getId(), testUser.getEmail());
+    }
+
+    @Test
+    void shouldListRestoreAndPurgeTrash() throws Exception {
+        Instant now = Instant.now();
+        Project oldProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Abandoned World")
+                .deletedAt(now.minus(Duration.ofDays(40)))
+                .build());
+        Project recentProject = projectRepository.save(Project.builder()
+                .ownerId(testUser.getId())
+                .name("Second Thoughts")
+                .deletedAt(now.minus(Duration.ofDays(1)))
+                .build());
+        UUID liveEntity = saveEntity(testProject, "Elara", null);
+        UUID oldEntity = saveEntity(testProject, "Old Draft", now.minus(Duration.ofDays(40)));
+        UUID recentEntity = saveEntity(testProject, "New Draft", now.minus(Duration.ofDays(2)));
+        UUID restoredEntity = saveEntity(testProject, "Mistake", now.minus(Duration.ofDays(1)));
+        UUID orphanedEntity = saveEntity(oldProject, "Forgotten", null);
+
+        mockMvc.perform(get("/api/projects/trash")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Second Thoughts"))
+                .andExpect(jsonPath("$.content[0].purgeAfter").exists())
+                .andExpect(jsonPath("$.content[1].id").value(oldProject.getId().toString()));
+
+        mockMvc.perform(post("/api/entities/" + restoredEntity + "/restore")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Mistake"));
+
+        mockMvc.perform(get("/api/projects/" + testProject.getId() + "/trash")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(recentEntity.toString()))
+                .andExpect(jsonPath("$.content[0].type").value("CHARACTER"))
+                .andExpect(jsonPath("$.content[1].id").value(oldEntity.toString()));
+
+        // One row per batch exercises the batching loop
+        int batchSize = (int) ReflectionTestUtils.getField(trashService, "batchSize");
+        long pauseMs = (long) ReflectionTestUtils.getField(trashService, "pauseMs");
+        ReflectionTestUtils.setField(trashService, "batchSize", 1);
+        ReflectionTestUtils.setField(trashService, "pauseMs", 0L);
+        try {
+            trashService.purgeExpired();
+        } finally {
+            ReflectionTestUtils.setField(trashService, "batchSize", batchSize);
+            ReflectionTestUtils.setField(trashService, "pauseMs", pauseMs);
+        }
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM entities", UUID.class))
+                .containsExactlyInAnyOrder(liveEntity, recentEntity, restoredEntity)
+                .doesNotContain(oldEntity, orphanedEntity);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM projects", UUID.class))
+                .containsExactlyInAnyOrder(testProject.getId(), recentProject.getId());
+    }
+
+    @Test
+    void shouldRejectTrashOfOtherUsersProject() throws Exception {
+        User otherUser = userRepository.save(User.builder()
+                .email("other@example.com")
+                .passwordHash(passwordEncoder.encode("password"))
+                .build());
+        Project otherProject = projectRepository.save(Project.builder()
+                .ownerId(otherUser.getId())
+                .name("Other Project")
+                .build());
+
+        mockMvc.perform(get("/api/projects/" + otherProject.getId() + "/trash")
+                        .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+    }
+
+    private UUID saveEntity(Project project, String title, Instant deletedAt) {
+        return entityRepository.save(WorldEntity.builder()
+                .projectId(project.getId())
+                .type(EntityType.CHARACTER)
+                .title(title)
+                .deletedAt(deletedAt)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,97 @@
+package com.lorely.filter;
+
+import com.lorely.model.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityFilterIndexTest {
+
+    private final UUID hero = UUID.randomUUID();
+    private final UUID villain = UUID.randomUUID();
+    private final UUID royal = UUID.randomUUID();
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void shouldCombineAllAnyAndNoneTagFiltersWithType() {
+        EntityFilterIndex index = new EntityFilterIndex();
+        UUID elara = put(index, EntityType.CHARACTER, "Elara", 1, hero, royal);
+        UUID morwen = put(index, EntityType.CHARACTER, "Morwen", 2, villain, royal);
+        UUID arden = put(index, EntityType.CHARACTER, "Arden", 3, hero);
+        UUID castle = put(index, EntityType.LOCATION, "Castle", 4, royal);
+
+        assertThat(ids(index, index.match(null, Set.of(royal), Set.of(), Set.of()))).containsExactlyInAnyOrder(elara, morwen, castle);
+        assertThat(ids(index, index.match(EntityType.CHARACTER, Set.of(royal), Set.of(), Set.of()))).containsExactlyInAnyOrder(elara, morwen);
+        assertThat(ids(index, index.match(null, Set.of(), Set.of(hero, villain), Set.of(royal)))).containsExactly(arden);
+        assertThat(ids(index, index.match(EntityType.LOCATION, Set.of(hero), Set.of(), Set.of()))).isEmpty();
+        // Unknown tags match nothing when required and exclude nothing otherwise
+        assertThat(index.match(null, Set.of(UUID.randomUUID()), Set.of(), Set.of()).cardinality()).isZero();
+        assertThat(index.match(null, Set.of(), Set.of(), Set.of(UUID.randomUUID())).cardinality()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldReplaceAndRemoveEntities() {
+        EntityFilterIndex index = new EntityFilterIndex();
+        UUID elara = put(index, EntityType.CHARACTER, "Elara", 1, hero);
+        UUID morwen = put(index, EntityType.CHARACTER, "Morwen", 2, villain);
+
+        index.put(elara, EntityType.CHARACTER, "Elara", now, now, List.of(villain));
+        assertThat(index.match(null, Set.of(hero), Set.of(), Set.of()).cardinality()).isZero();
+        assertThat(ids(index, index.match(null, Set.of(villain), Set.of(), Set.of()))).containsExactlyInAnyOrder(elara, morwen);
+
+        index.remove(morwen);
+        assertThat(ids(index, index.match(null, Set.of(), Set.of(), Set.of()))).containsExactly(elara);
+        assertThat(index.entityCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPageInSortOrderWithIdTiebreak() {
+        EntityFilterIndex index = new EntityFilterIndex();
+        for (int i = 0; i < 50; i++) {
+            put(index, EntityType.CONCEPT, "Note " + (char) ('A' + i % 26), i);
+        }
+        BitSet all = index.match(null, Set.of(), Set.of(), Set.of());
+
+        List<UUID> newest = index.page(all, "updatedAt", false, 0, 50);
+        List<UUID> firstPage = index.page(all, "updatedAt", false, 0, 10);
+        List<UUID> thirdPage = index.page(all, "updatedAt", false, 20, 10);
+        assertThat(firstPage).isEqualTo(newest.subList(0, 10));
+        assertThat(thirdPage).isEqualTo(newest.subList(20, 30));
+        assertThat(index.page(all, "updatedAt", false, 45, 10)).isEqualTo(newest.subList(45, 50));
+
+        // Titles repeat, so consecutive pages rely on the id tiebreak to neither repeat nor skip entities
+        List<UUID> byTitle = index.page(all, "title", true, 0, 50);
+        assertThat(index.page(all, "title", true, 0, 7)).isEqualTo(byTitle.subList(0, 7));
+        assertThat(index.page(all, "title", true, 7, 7)).isEqualTo(byTitle.subList(7, 14));
+        assertThat(Set.copyOf(byTitle)).hasSize(50);
+    }
+
+    @Test
+    void shouldOrderTitlesByCollationRatherThanCodePoint() {
+        EntityFilterIndex index = new EntityFilterIndex();
+        UUID zed = put(index, EntityType.CHARACTER, "Zed", 1);
+        UUID elan = put(index, EntityType.CHARACTER, "Élan", 2);
+        UUID beta = put(index, EntityType.CHARACTER, "beta", 3);
+        UUID alpha = put(index, EntityType.CHARACTER, "Alpha", 4);
+        BitSet all = index.match(null, Set.of(), Set.of(), Set.of());
+
+        assertThat(index.page(all, "title", true, 0, 10)).containsExactly(alpha, beta, elan, zed);
+    }
+
+    private UUID put(EntityFilterIndex index, EntityType type, String title, int minute, UUID... tags) {
+        UUID id = UUID.randomUUID();
+        Instant at = now.plusSeconds(60L * minute);
+        index.put(id, type, title, at, at, List.of(tags));
+        return id;
+    }
+
+    private List<UUID> ids(EntityFilterIndex index, BitSet matches) {
+        return index.page(matches, "createdAt", true, 0, Integer.MAX_VALUE / 2);
+    }
+}
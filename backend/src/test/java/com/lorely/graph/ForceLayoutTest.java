@@ -0,0 +1,107 @@
+package com.lorely.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ForceLayoutTest {
+
+    @Test
+    void shouldPlaceConnectedNodesCloserThanUnconnectedOnes() {
+        // Two dense clusters of 20 nodes joined by a single bridge edge
+        ProjectGraph.Builder builder = ProjectGraph.builder();
+        UUID[] ids = new UUID[40];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+            builder.addNode(ids[i]);
+        }
+        for (int cluster = 0; cluster < 2; cluster++) {
+            for (int i = 0; i < 20; i++) {
+                for (int j = i + 1; j < 20; j += 3) {
+                    builder.addEdge(UUID.randomUUID(), ids[cluster * 20 + i], ids[cluster * 20 + j], "ALLY_OF");
+                }
+            }
+        }
+        builder.addEdge(UUID.randomUUID(), ids[0], ids[20], "ENEMY_OF");
+        ProjectGraph graph = builder.build();
+
+        double[] x = new double[40];
+        double[] y = new double[40];
+        randomize(x, y, ForceLayout.initialRadius(40));
+        ForceLayout.run(graph, x, y, null, 300, ForceLayout.initialRadius(40) / 4);
+
+        assertThat(Arrays.stream(x).allMatch(Double::isFinite)).isTrue();
+        assertThat(Arrays.stream(y).allMatch(Double::isFinite)).isTrue();
+        double within = averageDistance(x, y, 0, 20, 0, 20);
+        double across = averageDistance(x, y, 0, 20, 20, 40);
+        assertThat(within).isLessThan(across);
+    }
+
+    @Test
+    void shouldKeepPinnedNodesInPlace() {
+        ProjectGraph.Builder builder = ProjectGraph.builder();
+        UUID[] ids = new UUID[5];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+            builder.addNode(ids[i]);
+        }
+        for (int i = 1; i < ids.length; i++) {
+            builder.addEdge(UUID.randomUUID(), ids[0], ids[i], "KNOWS");
+        }
+        ProjectGraph graph = builder.build();
+
+        double[] x = {0, 100, -100, 0, 0};
+        double[] y = {0, 0, 0, 100, -100};
+        boolean[] pinned = {false, true, true, true, true};
+        x[0] = 80;
+        y[0] = 70;
+        ForceLayout.run(graph, x, y, pinned, 100, ForceLayout.EDGE_LENGTH);
+
+        assertThat(x).startsWith(x[0], 100, -100, 0, 0);
+        assertThat(y).startsWith(y[0], 0, 0, 100, -100);
+        // The hub settles near the middle of its pinned neighbours
+        assertThat(Math.hypot(x[0], y[0])).isLessThan(30);
+    }
+
+    @Test
+    void shouldSeparateCoincidentNodes() {
+        ProjectGraph.Builder builder = ProjectGraph.builder();
+        for (int i = 0; i < 3; i++) {
+            builder.addNode(UUID.randomUUID());
+        }
+        ProjectGraph graph = builder.build();
+
+        double[] x = new double[3];
+        double[] y = new double[3];
+        ForceLayout.run(graph, x, y, null, 50, ForceLayout.EDGE_LENGTH);
+
+        assertThat(Math.hypot(x[0] - x[1], y[0] - y[1])).isGreaterThan(1);
+        assertThat(Math.hypot(x[1] - x[2], y[1] - y[2])).isGreaterThan(1);
+    }
+
+    private void randomize(double[] x, double[] y, double radius) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < x.length; i++) {
+            x[i] = (random.nextDouble() * 2 - 1) * radius;
+            y[i] = (random.nextDouble() * 2 - 1) * radius;
+        }
+    }
+
+    private double averageDistance(double[] x, double[] y, int fromA, int toA, int fromB, int toB) {
+        double sum = 0;
+        int count = 0;
+        for (int a = fromA; a < toA; a++) {
+            for (int b = fromB; b < toB; b++) {
+                if (a != b) {
+                    sum += Math.hypot(x[a] - x[b], y[a] - y[b]);
+                    count++;
+                }
+            }
+        }
+        return sum / count;
+    }
+}
@@ -0,0 +1,90 @@
+package com.lorely.graph;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GraphTraversalTest {
+
+    private final UUID[] ids = new UUID[7];
+    private ProjectGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        // 0 -> 1 -> 3 -> 4 and 0 -> 2 -> 3 (diamond), 4 <- 5 via link, 6 isolated, 3 -> 0 closes a cycle
+        ProjectGraph.Builder builder = ProjectGraph.builder();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID();
+            builder.addNode(ids[i]);
+        }
+        builder.addEdge(UUID.randomUUID(), ids[0], ids[1], "FRIEND_OF")
+                .addEdge(UUID.randomUUID(), ids[0], ids[2], "ENEMY_OF")
+                .addEdge(UUID.randomUUID(), ids[1], ids[3], "FRIEND_OF")
+                .addEdge(UUID.randomUUID(), ids[2], ids[3], "FRIEND_OF")
+                .addEdge(UUID.randomUUID(), ids[3], ids[4], "MEMBER_OF")
+                .addEdge(UUID.randomUUID(), ids[3], ids[0], "RIVAL_OF")
+                .addLink(UUID.randomUUID(), ids[5], ids[4]);
+        graph = builder.build();
+    }
+
+    @Test
+    void shouldCollectNeighborhoodInBothDirections() {
+        GraphTraversal.Subgraph subgraph = GraphTraversal.neighborhood(graph, node(4), 1, null, 100);
+
+        assertThat(entities(subgraph.nodes())).containsExactlyInAnyOrder(ids[4], ids[3], ids[5]);
+        assertThat(subgraph.edges()).hasSize(2);
+        assertThat(subgraph.truncated()).isFalse();
+    }
+
+    @Test
+    void shouldFindAllShortestPathsAcrossDiamond() {
+        List<GraphTraversal.Path> paths = GraphTraversal.shortestPaths(graph, node(1), node(2), null, 6, 10);
+
+        // 1-0-2 and 1-3-2 are both two hops long
+        assertThat(paths).hasSize(2);
+        assertThat(paths).allSatisfy(path -> {
+            assertThat(path.edges()).hasSize(2);
+            assertThat(path.nodes()[0]).isEqualTo(node(1));
+            assertThat(path.nodes()[2]).isEqualTo(node(2));
+        });
+        assertThat(paths).extracting(path -> graph.nodeId(path.nodes()[1]))
+                .containsExactlyInAnyOrder(ids[0], ids[3]);
+    }
+
+    @Test
+    void shouldFollowLinksAndRespectTypeFilter() {
+        List<GraphTraversal.Path> paths = GraphTraversal.shortestPaths(graph, node(0), node(5), null, 6, 10);
+
+        assertThat(paths).hasSize(1);
+        assertThat(entities(paths.get(0).nodes())).containsExactly(ids[0], ids[3], ids[4], ids[5]);
+        assertThat(graph.isLink(paths.get(0).edges()[2])).isTrue();
+
+        boolean[] noLinks = graph.typeMask(List.of("FRIEND_OF", "ENEMY_OF", "MEMBER_OF", "RIVAL_OF"), null);
+        assertThat(GraphTraversal.shortestPaths(graph, node(0), node(5), noLinks, 6, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldHonorMaxDepthAndDisconnectedNodes() {
+        assertThat(GraphTraversal.shortestPaths(graph, node(0), node(5), null, 2, 10)).isEmpty();
+        assertThat(GraphTraversal.shortestPaths(graph, node(0), node(6), null, 10, 10)).isEmpty();
+        assertThat(GraphTraversal.shortestPaths(graph, node(0), node(0), null, 1, 10).get(0).edges()).isEmpty();
+    }
+
+    @Test
+    void shouldCapNumberOfPaths() {
+        assertThat(GraphTraversal.shortestPaths(graph, node(1), node(2), null, 6, 1)).hasSize(1);
+    }
+
+    private int node(int index) {
+        return graph.ordinal(ids[index]);
+    }
+
+    private List<UUID> entities(int[] nodes) {
+        return Arrays.stream(nodes).mapToObj(graph::nodeId).toList();
+    }
+}
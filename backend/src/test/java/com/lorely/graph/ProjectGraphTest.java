@@ -0,0 +1,136 @@
+package com.lorely.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectGraphTest {
+
+    private final UUID elara = UUID.randomUUID();
+    private final UUID marcus = UUID.randomUUID();
+    private final UUID tower = UUID.randomUUID();
+
+    @Test
+    void shouldIndexOutAndInEdgesGroupedByType() {
+        UUID friendship = UUID.randomUUID();
+        UUID residence = UUID.randomUUID();
+        UUID link = UUID.randomUUID();
+
+        ProjectGraph graph = ProjectGraph.builder()
+                .addNode(elara)
+                .addNode(marcus)
+                .addNode(tower)
+                .addEdge(friendship, elara, marcus, "FRIEND_OF")
+                .addEdge(residence, elara, tower, "LOCATED_IN")
+                .addLink(link, tower, elara)
+                .build();
+
+        assertThat(graph.nodeCount()).isEqualTo(3);
+        assertThat(graph.edgeCount()).isEqualTo(3);
+
+        int node = graph.ordinal(elara);
+        assertThat(outTypes(graph, node)).containsExactly("FRIEND_OF", "LOCATED_IN");
+        assertThat(graph.inEnd(node) - graph.inStart(node)).isEqualTo(1);
+        int incoming = graph.inEdge(graph.inStart(node));
+        assertThat(graph.isLink(incoming)).isTrue();
+        assertThat(graph.nodeId(graph.edgeSource(incoming))).isEqualTo(tower);
+        assertThat(graph.degree(node)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldSkipEdgesTouchingUnknownNodes() {
+        ProjectGraph graph = ProjectGraph.builder()
+                .addNode(elara)
+                .addEdge(UUID.randomUUID(), elara, UUID.randomUUID(), "FRIEND_OF")
+                .build();
+
+        assertThat(graph.edgeCount()).isZero();
+        assertThat(graph.ordinal(marcus)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldPatchWithoutMutatingTheOriginalSnapshot() {
+        UUID friendship = UUID.randomUUID();
+        ProjectGraph original = ProjectGraph.builder()
+                .addNode(elara)
+                .addNode(marcus)
+                .build();
+
+        ProjectGraph withEdge = original.withEdge(friendship, elara, marcus, "FRIEND_OF");
+        ProjectGraph retyped = withEdge.withEdge(friendship, elara, marcus, "ENEMY_OF");
+        ProjectGraph withoutEdge = retyped.withoutEdge(friendship);
+        ProjectGraph withNode = withoutEdge.withNode(tower);
+
+        assertThat(original.edgeCount()).isZero();
+        assertThat(withEdge.edgeCount()).isEqualTo(1);
+        assertThat(retyped.edgeCount()).isEqualTo(1);
+        assertThat(outTypes(retyped, retyped.ordinal(elara))).containsExactly("ENEMY_OF");
+        assertThat(withoutEdge.edgeCount()).isZero();
+        assertThat(withNode.ordinal(tower)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBuildTypeMasks() {
+        ProjectGraph graph = ProjectGraph.builder()
+                .addNode(elara)
+                .addNode(marcus)
+                .addEdge(UUID.randomUUID(), elara, marcus, "FRIEND_OF")
+                .addLink(UUID.randomUUID(), marcus, elara)
+                .build();
+
+        boolean[] mask = graph.typeMask(List.of("FRIEND_OF", "UNKNOWN"), null);
+        boolean[] linksOnly = graph.typeMask(List.of(), true);
+        boolean[] noLinks = graph.typeMask(null, false);
+
+        assertThat(graph.typeMask(List.of(), null)).isNull();
+        int node = graph.ordinal(elara);
+        int friendship = graph.outEdge(graph.outStart(node));
+        int link = graph.inEdge(graph.inStart(node));
+        assertThat(graph.allows(mask, friendship)).isTrue();
+        assertThat(graph.allows(mask, link)).isFalse();
+        assertThat(graph.allows(null, link)).isTrue();
+        assertThat(graph.allows(linksOnly, link)).isTrue();
+        assertThat(graph.allows(noLinks, friendship)).isTrue();
+        assertThat(graph.allows(noLinks, link)).isFalse();
+    }
+
+    @Test
+    void shouldKeepRelationshipsNamedLinkApartFromLinks() {
+        UUID named = UUID.randomUUID();
+        UUID link = UUID.randomUUID();
+        ProjectGraph graph = ProjectGraph.builder()
+                .addNode(elara)
+                .addNode(marcus)
+                .addEdge(named, elara, marcus, "LINK")
+                .addLink(link, marcus, elara)
+                .build()
+                .toBuilder(Set.of())
+                .build();
+
+        int node = graph.ordinal(elara);
+        int relationship = graph.outEdge(graph.outStart(node));
+        int incoming = graph.inEdge(graph.inStart(node));
+        assertThat(graph.edgeId(relationship)).isEqualTo(named);
+        assertThat(graph.isLink(relationship)).isFalse();
+        assertThat(graph.typeName(graph.edgeType(relationship))).isEqualTo("LINK");
+        assertThat(graph.isLink(incoming)).isTrue();
+        assertThat(graph.typeName(graph.edgeType(incoming))).isNull();
+
+        boolean[] mask = graph.typeMask(List.of("LINK"), null);
+        assertThat(graph.allows(mask, relationship)).isTrue();
+        assertThat(graph.allows(mask, incoming)).isFalse();
+    }
+
+    private List<String> outTypes(ProjectGraph graph, int node) {
+        List<String> types = new ArrayList<>();
+        for (int slot = graph.outStart(node); slot < graph.outEnd(node); slot++) {
+            types.add(graph.typeName(graph.edgeType(graph.outEdge(slot))));
+        }
+        return types;
+    }
+}
@@ -2,22 +2,32 @@ package com.lorely.repository;
 
 import com.lorely.model.EntityType;
 import com.lorely.model.Project;
+import com.lorely.model.Tag;
 import com.lorely.model.User;
 import com.lorely.model.WorldEntity;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.lorely.repository.EntityRepositoryTest$CapturingStatementInspector")
 @ActiveProfiles("test")
 @Transactional
 class EntityRepositoryTest {
@@ -31,6 +41,9 @@ class EntityRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private TagRepository tagRepository;
+
     private Project testProject;
 
     @BeforeEach
@@ -184,4 +197,72 @@ class EntityRepositoryTest {
 
         assertThat(entities).isEmpty();
     }
+
+    @Test
+    void shouldFindTitlesByIdsInOneLookup() {
+        WorldEntity elara = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.CHARACTER)
+                .title("Elara the Wise")
+                .build());
+
+        WorldEntity tower = entityRepository.save(WorldEntity.builder()
+                .projectId(testProject.getId())
+                .type(EntityType.LOCATION)
+                .title("Elara's Tower")
+                .build());
+
+        UUID missingId = UUID.randomUUID();
+
+        Map<UUID, String> titles = entityRepository.findTitlesByIds(List.of(elara.getId(), tower.getId(), missingId));
+
+        assertThat(titles).hasSize(2);
+        assertThat(titles).containsEntry(elara.getId(), "Elara the Wise");
+        assertThat(titles).containsEntry(tower.getId(), "Elara's Tower");
+        assertThat(titles).doesNotContainKey(missingId);
+    }
+
+    @Test
+    void shouldPageIdsInSqlAndLoadTagsForThatPageOnly() {
+        Tag hero = tagRepository.save(Tag.builder()
+                .projectId(testProject.getId())
+                .name("hero")
+                .build());
+        for (int i = 0; i < 5; i++) {
+            entityRepository.save(WorldEntity.builder()
+                    .projectId(testProject.getId())
+                    .type(EntityType.CHARACTER)
+                    .title("Entity " + i)
+                    .tags(new HashSet<>(Set.of(hero)))
+                    .build());
+        }
+        entityRepository.flush();
+        CapturingStatementInspector.STATEMENTS.clear();
+
+        Page<UUID> ids = entityRepository.findIdsByProjectIdAndTagId(
+                testProject.getId(), hero.getId(), PageRequest.of(1, 2, Sort.by("title", "id")));
+
+        assertThat(ids.getTotalElements()).isEqualTo(5);
+        assertThat(ids.getContent()).hasSize(2);
+        // The row limit must reach the database rather than being applied to a fully fetched result
+        assertThat(CapturingStatementInspector.STATEMENTS)
+                .filteredOn(sql -> sql.toLowerCase().startsWith("select") && !sql.toLowerCase().contains("count("))
+                .singleElement()
+                .satisfies(sql -> assertThat(sql.toLowerCase()).containsAnyOf("limit", "fetch first"));
+
+        List<WorldEntity> page = entityRepository.findAllWithTagsByIdIn(ids.getContent());
+        assertThat(page).extracting(WorldEntity::getTitle).containsExactlyInAnyOrder("Entity 2", "Entity 3");
+        assertThat(page).allSatisfy(entity -> assertThat(entity.getTags()).extracting(Tag::getName).containsExactly("hero"));
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
 }
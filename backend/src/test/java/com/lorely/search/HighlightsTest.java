@@ -0,0 +1,24 @@
+package com.lorely.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HighlightsTest {
+
+    @Test
+    void shouldEscapeTextAndTurnMarkersIntoTags() {
+        String marked = "The <script>Dark</script> Lord & his " + Highlights.START + "ring" + Highlights.STOP + ".";
+
+        assertThat(Highlights.fromMarked(marked))
+                .isEqualTo("The &lt;script&gt;Dark&lt;/script&gt; Lord &amp; his <b>ring</b>.");
+    }
+
+    @Test
+    void shouldKeepTagsBalancedAroundStrayMarkers() {
+        String marked = Highlights.STOP + "a " + Highlights.START + "b " + Highlights.START + "c";
+
+        assertThat(Highlights.fromMarked(marked)).isEqualTo("a <b>b c</b>");
+        assertThat(Highlights.fromMarked(null)).isNull();
+    }
+}
@@ -0,0 +1,122 @@
+package com.lorely.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TextIndexTest {
+
+    private final UUID aragorn = UUID.randomUUID();
+    private final UUID rivendell = UUID.randomUUID();
+    private final UUID arwen = UUID.randomUUID();
+
+    private TextIndex index() {
+        TextIndex index = new TextIndex();
+        index.put(aragorn, "Aragorn", "Heir of Isildur, raised in Rivendell by Elrond.");
+        index.put(rivendell, "Rivendell", "The Last Homely House east of the Sea, where Aragorn grew up.");
+        index.put(arwen, "Arwen Undómiel", "Daughter of Elrond, the evening star of her people.");
+        return index;
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveBodyMatches() {
+        TextIndex index = index();
+
+        TextIndex.Hits hits = index.search("rivendell", false, 0, 10);
+
+        assertThat(hits.ids()).containsExactly(rivendell, aragorn);
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(index.search("elrond", false, 0, 1).ids()).hasSize(1);
+        assertThat(index.search("elrond", false, 0, 1).total()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRequireEveryWordAndMatchPhrasesInOrder() {
+        TextIndex index = index();
+
+        assertThat(index.search("elrond daughter", false, 0, 10).ids()).containsExactly(arwen);
+        assertThat(index.search("\"evening star\"", false, 0, 10).ids()).containsExactly(arwen);
+        assertThat(index.search("\"star evening\"", false, 0, 10).ids()).isEmpty();
+        // Stop words keep their place in phrases
+        assertThat(index.search("\"heir of isildur\"", false, 0, 10).ids()).containsExactly(aragorn);
+        assertThat(index.search("\"heir isildur\"", false, 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void shouldExcludeNegatedWordsAndPhrases() {
+        TextIndex index = index();
+
+        assertThat(index.search("elrond -isildur", false, 0, 10).ids()).containsExactly(arwen);
+        assertThat(index.search("elrond -\"evening star\"", false, 0, 10).ids()).containsExactly(aragorn);
+        // A query of exclusions alone matches nothing
+        assertThat(index.search("-isildur", false, 0, 10).ids()).isEmpty();
+    }
+
+    @Test
+    void shouldMatchMisspellingsAndShortPrefixes() {
+        TextIndex index = index();
+
+        // Unknown words match within one edit, so typos are found without asking
+        assertThat(index.search("aragon", false, 0, 10).ids()).containsExactly(aragorn, rivendell);
+        assertThat(index.search("undomiel", false, 0, 10).ids()).containsExactly(arwen);
+        assertThat(index.search("ar", false, 0, 10).ids()).contains(aragorn, arwen);
+        // Known words only expand when asked
+        index.put(UUID.randomUUID(), "Elron", "A misspelled elf.");
+        assertThat(index.search("elrond", false, 0, 10).total()).isEqualTo(2);
+        assertThat(index.search("elrond", true, 0, 10).total()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldEscapeExcerptsAndHighlightMatchedTerms() {
+        TextIndex index = new TextIndex();
+        UUID id = UUID.randomUUID();
+        index.put(id, "Sauron", "The <b>Dark</b> Lord & his ring.");
+
+        TextIndex.Hits hits = index.search("ring", false, 0, 10);
+
+        assertThat(index.excerpt(id, hits.terms()))
+                .isEqualTo("The &lt;b&gt;Dark&lt;/b&gt; Lord &amp; his <b>ring</b>.");
+        assertThat(index.excerpt(UUID.randomUUID(), Set.of("ring"))).isNull();
+    }
+
+    @Test
+    void shouldForgetRemovedAndReplacedDocuments() {
+        TextIndex index = index();
+
+        index.remove(rivendell);
+        index.put(aragorn, "Strider", "A ranger of the North.");
+
+        assertThat(index.search("rivendell", false, 0, 10).ids()).isEmpty();
+        // Nor are their terms left in the dictionary for fuzzy and prefix matches
+        assertThat(index.search("rivendel", false, 0, 10).ids()).isEmpty();
+        assertThat(index.search("ri", false, 0, 10).ids()).isEmpty();
+        assertThat(index.search("st", false, 0, 10).ids()).containsExactly(aragorn, arwen);
+        assertThat(index.search("ranger", false, 0, 10).ids()).containsExactly(aragorn);
+        assertThat(index.documentCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRankSimilarDocumentsByCosineOfTermVectors() {
+        TextIndex index = index();
+        UUID strider = UUID.randomUUID();
+        index.put(strider, "Strider", "A ranger raised in Rivendell, heir of kings.");
+
+        List<TextIndex.Similar> similar = index.similar(aragorn, Set.of(), 10);
+
+        // Rivendell names Aragorn, whose title term outweighs the body terms Strider shares
+        assertThat(similar).extracting(TextIndex.Similar::id).containsExactly(rivendell, strider, arwen);
+        assertThat(similar.get(0).score()).isGreaterThan(similar.get(1).score()).isLessThanOrEqualTo(1.0);
+        assertThat(index.similar(aragorn, Set.of(rivendell), 1)).extracting(TextIndex.Similar::id)
+                .containsExactly(strider);
+        assertThat(index.similar(UUID.randomUUID(), Set.of(), 10)).isEmpty();
+
+        // Documents put after the norms were computed are found too
+        UUID elrond = UUID.randomUUID();
+        index.put(elrond, "Elrond", "Lord of Rivendell, who raised Isildur's heir.");
+        assertThat(index.similar(aragorn, Set.of(), 10)).extracting(TextIndex.Similar::id).contains(elrond);
+    }
+}
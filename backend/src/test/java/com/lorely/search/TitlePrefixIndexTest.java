@@ -0,0 +1,73 @@
+package com.lorely.search;
+
+import com.lorely.model.EntityType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitlePrefixIndexTest {
+
+    private final Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Test
+    void shouldMatchPrefixesOfAnyNormalizedTitleToken() {
+        TitlePrefixIndex index = new TitlePrefixIndex();
+        UUID gandalf = UUID.randomUUID();
+        UUID eowyn = UUID.randomUUID();
+        index.put(gandalf, EntityType.CHARACTER, "Gandalf the Grey", now);
+        index.put(eowyn, EntityType.CHARACTER, "Éowyn of Rohan", now);
+        index.put(UUID.randomUUID(), EntityType.LOCATION, "Minas Tirith", now);
+
+        assertThat(titles(index.suggest("grey", 10, now))).containsExactly("Gandalf the Grey");
+        assertThat(titles(index.suggest("GAN", 10, now))).containsExactly("Gandalf the Grey");
+        assertThat(titles(index.suggest("gandalf gr", 10, now))).containsExactly("Gandalf the Grey");
+        assertThat(titles(index.suggest("gandalf ro", 10, now))).isEmpty();
+        assertThat(titles(index.suggest("eow", 10, now))).containsExactly("Éowyn of Rohan");
+        assertThat(index.suggest("  ", 10, now)).isEmpty();
+    }
+
+    @Test
+    void shouldRankByMentionsRecencyAndLeadingMatch() {
+        TitlePrefixIndex index = new TitlePrefixIndex();
+        UUID oldMentioned = UUID.randomUUID();
+        UUID recent = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        index.put(oldMentioned, EntityType.LOCATION, "Shire of Hobbits", now.minus(Duration.ofDays(365)));
+        index.put(recent, EntityType.CHARACTER, "Samwise of the Shire", now.minus(Duration.ofHours(1)));
+        index.put(stale, EntityType.CHARACTER, "Rosie of the Shire", now.minus(Duration.ofDays(365)));
+
+        // The title starting with the query wins on its own
+        assertThat(titles(index.suggest("shire", 10, now)))
+                .containsExactly("Shire of Hobbits", "Samwise of the Shire", "Rosie of the Shire");
+
+        index.setMentionCounts(Map.of(stale, 20L));
+        assertThat(titles(index.suggest("shire", 2, now))).containsExactly("Rosie of the Shire", "Shire of Hobbits");
+    }
+
+    @Test
+    void shouldReindexRenamedAndRemovedEntities() {
+        TitlePrefixIndex index = new TitlePrefixIndex();
+        UUID city = UUID.randomUUID();
+        index.put(city, EntityType.LOCATION, "Osgiliath", now);
+        index.setMentionCounts(Map.of(city, 3L));
+
+        index.put(city, EntityType.LOCATION, "Minas Tirith", now);
+        assertThat(index.suggest("osg", 10, now)).isEmpty();
+        assertThat(index.suggest("tir", 10, now))
+                .containsExactly(new TitlePrefixIndex.Suggestion(city, "Minas Tirith", EntityType.LOCATION));
+
+        index.remove(city);
+        assertThat(index.suggest("minas", 10, now)).isEmpty();
+        assertThat(index.entityCount()).isZero();
+    }
+
+    private List<String> titles(List<TitlePrefixIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(TitlePrefixIndex.Suggestion::title).toList();
+    }
+}
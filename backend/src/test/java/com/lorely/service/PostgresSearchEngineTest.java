@@ -0,0 +1,114 @@
+package com.lorely.service;
+
+import com.lorely.repository.EntityRepository;
+import com.lorely.repository.projection.EntityHeadlineView;
+import com.lorely.search.Highlights;
+import com.lorely.search.SearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing between the full-text, trigram and ILIKE queries. The queries themselves need PostgreSQL
+ * (tsvector, pg_trgm), so ranking is only verified against a real database.
+ */
+@ExtendWith(MockitoExtension.class)
+class PostgresSearchEngineTest {
+
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @InjectMocks
+    private PostgresSearchEngine searchEngine;
+
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID aragorn = UUID.randomUUID();
+    private final Pageable pageable = PageRequest.of(0, 20);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchEngine, "similarityThreshold", 0.4);
+    }
+
+    @Test
+    void shouldAnswerMisspellingsWithoutFullTextMatchesByTitleSimilarity() {
+        when(entityRepository.fullTextSearchIds(projectId, "Aragron", pageable)).thenReturn(Page.empty());
+        when(entityRepository.similarTitleSearchIds(projectId, "Aragron", 0.4, pageable)).thenReturn(page(aragorn));
+
+        SearchEngine.Result result = searchEngine.search(projectId, " Aragron ", false, pageable);
+
+        assertThat(result.ids().getContent()).containsExactly(aragorn);
+        assertThat(result.highlights()).isEmpty();
+        verify(entityRepository, never()).findHeadlines(any(), anyString());
+    }
+
+    @Test
+    void shouldSkipFullTextSearchInSimilarityModeAndForShortQueries() {
+        when(entityRepository.similarTitleSearchIds(eq(projectId), anyString(), eq(0.4), eq(pageable)))
+                .thenReturn(page(aragorn));
+
+        assertThat(searchEngine.search(projectId, "Aragron", true, pageable).ids().getContent()).containsExactly(aragorn);
+        assertThat(searchEngine.search(projectId, "ar", false, pageable).ids().getContent()).containsExactly(aragorn);
+        verify(entityRepository, never()).fullTextSearchIds(any(), anyString(), any());
+    }
+
+    @Test
+    void shouldSetTheSimilarityThresholdForTheTrigramQuery() {
+        when(entityRepository.similarTitleSearchIds(projectId, "Aragron", 0.4, pageable)).thenCallRealMethod();
+        when(entityRepository.similarTitleIds(projectId, "Aragron", pageable)).thenReturn(page(aragorn));
+
+        searchEngine.search(projectId, "Aragron", true, pageable);
+
+        verify(entityRepository).setWordSimilarityThreshold("0.4");
+    }
+
+    @Test
+    void shouldFallBackToSubstringSearchWhenTrigramSearchFails() {
+        when(entityRepository.similarTitleSearchIds(eq(projectId), anyString(), anyDouble(), any()))
+                .thenThrow(new IllegalStateException("operator does not exist: text <% text"));
+        when(entityRepository.searchIdsByTitle(projectId, "ragor", PageRequest.of(0, 20, Sort.by("title", "id"))))
+                .thenReturn(page(aragorn));
+
+        assertThat(searchEngine.search(projectId, "ragor", true, pageable).ids().getContent()).containsExactly(aragorn);
+    }
+
+    @Test
+    void shouldHighlightFullTextMatchesAsEscapedHtml() {
+        when(entityRepository.fullTextSearchIds(projectId, "ranger", pageable)).thenReturn(page(aragorn));
+        EntityHeadlineView headline = mock(EntityHeadlineView.class);
+        when(headline.getId()).thenReturn(aragorn);
+        when(headline.getHeadline()).thenReturn("A <lone> " + Highlights.START + "ranger" + Highlights.STOP);
+        when(entityRepository.findHeadlines(List.of(aragorn), "ranger")).thenReturn(List.of(headline));
+
+        SearchEngine.Result result = searchEngine.search(projectId, "ranger", false, pageable);
+
+        assertThat(result.highlights()).containsEntry(aragorn, "A &lt;lone&gt; <b>ranger</b>");
+        verify(entityRepository, never()).similarTitleSearchIds(any(), anyString(), anyDouble(), any());
+    }
+
+    private Page<UUID> page(UUID... ids) {
+        return new PageImpl<>(List.of(ids), pageable, ids.length);
+    }
+}
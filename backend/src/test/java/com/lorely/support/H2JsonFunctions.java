@@ -0,0 +1,54 @@
+package com.lorely.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Java stand-ins for the PostgreSQL functions created by Flyway migrations, registered as H2 aliases
+ * in h2-functions.sql so native queries can run against the in-memory test database.
+ */
+public final class H2JsonFunctions {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private H2JsonFunctions() {
+    }
+
+    public static byte[] jsonbMergePatch(byte[] target, byte[] patch) throws Exception {
+        JsonNode merged = mergePatch(read(target), read(patch));
+        return MAPPER.writeValueAsBytes(merged);
+    }
+
+    // Plain text instead of a tsvector: enough to see which entities the index worker rebuilt, and from what
+    public static String entitySearchVector(String title, String contentText, byte[] content) throws Exception {
+        String body = contentText != null ? contentText : content != null ? read(content).toString() : "";
+        return (title != null ? title : "") + " " + body;
+    }
+
+    private static JsonNode read(byte[] json) throws Exception {
+        if (json == null) {
+            return null;
+        }
+        JsonNode node = MAPPER.readTree(new String(json, StandardCharsets.UTF_8));
+        // H2 turns a bound string cast to JSON into a JSON string value; unwrap it
+        return node.isTextual() ? MAPPER.readTree(node.asText()) : node;
+    }
+
+    private static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject() ? ((ObjectNode) target).deepCopy() : MAPPER.createObjectNode();
+        patch.fields().forEachRemaining(member -> {
+            if (member.getValue().isNull()) {
+                result.remove(member.getKey());
+            } else {
+                result.set(member.getKey(), mergePatch(result.get(member.getKey()), member.getValue()));
+            }
+        });
+        return result;
+    }
+}
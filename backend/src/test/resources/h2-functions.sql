@@ -0,0 +1,2 @@
+CREATE ALIAS IF NOT EXISTS jsonb_merge_patch FOR "com.lorely.support.H2JsonFunctions.jsonbMergePatch";
+CREATE ALIAS IF NOT EXISTS entity_search_vector FOR "com.lorely.support.H2JsonFunctions.entitySearchVector";
@@ -83,6 +83,21 @@ export interface EntityResponse {
   tags: TagResponse[];
   createdAt: string;
   updatedAt: string;
+  // HTML-escaped excerpt with matches wrapped in <b>, on full-text search results only
+  highlight?: string;
+}
+
+export interface EntitySuggestion {
+  id: string;
+  title: string;
+  type: EntityType;
+}
+
+export interface SimilarEntity {
+  id: string;
+  title: string;
+  type: EntityType;
+  score: number;
 }
 
 export interface CreateEntityRequest {
@@ -279,6 +294,19 @@ class ApiClient {
     return data.content;
   }
 
+  // Lightweight title autocomplete for @mentions; matches the start of any word in the title
+  async suggestEntities(projectId: string, query: string, limit = 10): Promise<EntitySuggestion[]> {
+    return this.request<EntitySuggestion[]>(`/projects/${projectId}/entities/suggest?q=${encodeURIComponent(query)}&limit=${limit}`, {
+      method: "GET",
+    });
+  }
+
+  async getSimilarEntities(id: string, limit = 10): Promise<SimilarEntity[]> {
+    return this.request<SimilarEntity[]>(`/entities/${id}/similar?limit=${limit}`, {
+      method: "GET",
+    });
+  }
+
   async getEntity(id: string): Promise<EntityResponse> {
     return this.request<EntityResponse>(`/entities/${id}`, {
       method: "GET",